@@ -0,0 +1,195 @@
+package com.pbe.benchmarks;
+
+import com.pbe.collections.CompactBitSet;
+import com.pbe.collections.ConcurrentBitSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** One million feature flags, as Boolean checkA = true in Main but many of them:
+ - list: ArrayList<Boolean>, a reference per flag
+ - bitset: java.util.BitSet
+ - compact: CompactBitSet
+ Single-threaded: random lookups, and with another million flags, cardinality, iteration over set flags and AND.
+ Multi-threaded: four threads setting random flags, in a synchronized java.util.BitSet versus a ConcurrentBitSet.
+ Retained heap of each form is printed once per fork as a "[retained heap]" line.
+ Run with: java -jar benchmarks/target/benchmarks.jar BitSetBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BitSetBenchmark {
+
+    private static final int SIZE = 1_000_000;
+    private static final int LOOKUPS = 1024;
+
+    @State(Scope.Thread)
+    public static class Flags {
+
+        @Param({"list", "bitset", "compact"})
+        public String storage;
+
+        List<Boolean> list;
+        List<Boolean> otherList;
+        BitSet bitSet;
+        BitSet otherBitSet;
+        CompactBitSet compact;
+        CompactBitSet otherCompact;
+        int[] lookups;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            SplittableRandom random = new SplittableRandom(42);
+            boolean[] values = new boolean[SIZE];
+            boolean[] otherValues = new boolean[SIZE];
+            for (int i = 0; i < SIZE; i++) {
+                values[i] = random.nextInt(3) == 0;
+                otherValues[i] = random.nextInt(3) == 0;
+            }
+            lookups = random.ints(LOOKUPS, 0, SIZE).toArray();
+
+            long before = HeapMeter.usedHeapAfterGc();
+            switch (storage) {
+                case "list":
+                    list = new ArrayList<>(SIZE);
+                    for (boolean value : values) list.add(value); // autoboxing to Boolean.TRUE/FALSE
+                    break;
+                case "bitset":
+                    bitSet = new BitSet(SIZE);
+                    for (int i = 0; i < SIZE; i++) bitSet.set(i, values[i]);
+                    break;
+                default:
+                    compact = new CompactBitSet(SIZE);
+                    for (int i = 0; i < SIZE; i++) compact.set(i, values[i]);
+            }
+            HeapMeter.report(storage, before, HeapMeter.usedHeapAfterGc(), SIZE);
+
+            otherList = new ArrayList<>(SIZE);
+            otherBitSet = new BitSet(SIZE);
+            otherCompact = new CompactBitSet(SIZE);
+            for (int i = 0; i < SIZE; i++) {
+                otherList.add(otherValues[i]);
+                otherBitSet.set(i, otherValues[i]);
+                otherCompact.set(i, otherValues[i]);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int get(Flags flags) {
+        int count = 0;
+        switch (flags.storage) {
+            case "list":
+                for (int index : flags.lookups) if (flags.list.get(index)) count++; // auto-unboxing
+                return count;
+            case "bitset":
+                for (int index : flags.lookups) if (flags.bitSet.get(index)) count++;
+                return count;
+            default:
+                for (int index : flags.lookups) if (flags.compact.get(index)) count++;
+                return count;
+        }
+    }
+
+    @Benchmark
+    public int cardinality(Flags flags) {
+        switch (flags.storage) {
+            case "list": {
+                int count = 0;
+                for (Boolean flag : flags.list) if (flag) count++;
+                return count;
+            }
+            case "bitset":
+                return flags.bitSet.cardinality();
+            default:
+                return flags.compact.cardinality();
+        }
+    }
+
+    @Benchmark
+    public long iterateSetFlags(Flags flags) {
+        long sum = 0;
+        switch (flags.storage) {
+            case "list":
+                for (int i = 0; i < SIZE; i++) if (flags.list.get(i)) sum += i;
+                return sum;
+            case "bitset":
+                for (int i = flags.bitSet.nextSetBit(0); i >= 0; i = flags.bitSet.nextSetBit(i + 1)) sum += i;
+                return sum;
+            default:
+                for (int i = flags.compact.nextSetBit(0); i >= 0; i = flags.compact.nextSetBit(i + 1)) sum += i;
+                return sum;
+        }
+    }
+
+    // AND into a copy, so the flags themselves stay the same between invocations
+    @Benchmark
+    public Object and(Flags flags) {
+        switch (flags.storage) {
+            case "list": {
+                List<Boolean> result = new ArrayList<>(SIZE);
+                for (int i = 0; i < SIZE; i++) result.add(flags.list.get(i) && flags.otherList.get(i));
+                return result;
+            }
+            case "bitset": {
+                BitSet result = (BitSet) flags.bitSet.clone();
+                result.and(flags.otherBitSet);
+                return result;
+            }
+            default: {
+                CompactBitSet result = flags.compact.copy();
+                result.and(flags.otherCompact);
+                return result;
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class SharedFlags {
+
+        @Param({"synchronizedBitSet", "concurrentBitSet"})
+        public String shared;
+
+        final BitSet bitSet = new BitSet(SIZE);
+        final ConcurrentBitSet concurrent = new ConcurrentBitSet(SIZE);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadRandom {
+        final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Benchmark
+    @Threads(4)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean concurrentSet(SharedFlags flags, ThreadRandom random) {
+        int index = random.random.nextInt(SIZE);
+        if (flags.shared.equals("concurrentBitSet")) return flags.concurrent.set(index);
+        synchronized (flags.bitSet) {
+            boolean wasSet = flags.bitSet.get(index);
+            flags.bitSet.set(index);
+            return !wasSet;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.pbe.benchmarks;
+
+import com.pbe.Main;
+import com.pbe.cache.BoxCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** GC pressure of autoboxme() called in a tight loop with IDs in 0..65535, before and after BoxCache.
+ The boxed argument is kept in a sink array, like it would be when stored in a collection,
+ so escape analysis cannot remove the allocation from the "before" case.
+ Run with: java -jar benchmarks/target/benchmarks.jar BoxCacheBenchmark -prof gc
+ Compare gc.alloc.rate.norm (B/op) and gc.count between the variants.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoxCacheBenchmark {
+
+    private static final int LOOP = 4096;
+
+    @Param({"preloaded", "lazy"})
+    public String population;
+
+    private int[] ids;
+    private Integer[] sink;
+    private BoxCache cache;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        ids = new int[LOOP];
+        for (int i = 0; i < LOOP; i++) ids[i] = random.nextInt(65536);
+        sink = new Integer[LOOP];
+        cache = population.equals("preloaded") ? BoxCache.preloaded(0, 65535) : BoxCache.lazy(0, 65535);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOP)
+    public long autoboxme_jdkCache() {
+        long sum = 0;
+        for (int i = 0; i < LOOP; i++) {
+            Integer boxed = ids[i]; // autoboxing through Integer.valueOf(), cached for -128..127 only
+            sink[i] = boxed;
+            sum += Main.autoboxme(boxed);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOP)
+    public long autoboxme_boxCache() {
+        long sum = 0;
+        for (int i = 0; i < LOOP; i++) {
+            Integer boxed = cache.valueOf(ids[i]);
+            sink[i] = boxed;
+            sum += Main.autoboxme(boxed);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,146 @@
+package com.pbe.benchmarks;
+
+import com.pbe.codec.IntCodec;
+import com.pbe.codec.IntCodecs;
+import com.pbe.codec.LongCodec;
+import com.pbe.codec.LongCodecs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Decoding speed of the int and long codecs, 64 blocks of 4096 values each, over four distributions:
+ - small: uniform in 0..999, the size of the values in Main
+ - skewed: 99% below 128, 1% up to a million (counts, lengths)
+ - offset: a million plus 0..4095 (readings or ids in a narrow range)
+ - sorted: increasing by 1..16 (sorted ids); the longs are epoch-millisecond timestamps about a second apart
+ The score is decoded bytes per nanosecond, which is GB/s: one operation per byte of int[] or long[] written.
+ The compression ratio of each codec and distribution is printed once per fork as a "[compression]" line:
+ raw bytes over encoded bytes (4 or 8 raw bytes per value; an Integer[] costs 20).
+ Run with: java -jar benchmarks/target/benchmarks.jar CodecBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CodecBenchmark {
+
+    private static final int BLOCK = 4096;
+    private static final int BLOCKS = 64;
+    private static final int VALUES = BLOCK * BLOCKS;
+
+    @Param({"varint", "bitPacking", "frameOfReference", "delta+varint", "delta+frameOfReference"})
+    public String codec;
+
+    @Param({"small", "skewed", "offset", "sorted"})
+    public String distribution;
+
+    private IntCodec intCodec;
+    private LongCodec longCodec;
+    private byte[] encodedInts;
+    private byte[] encodedLongs;
+    private int[] ints;
+    private long[] longs;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        intCodec = intCodec(codec);
+        longCodec = longCodec(codec);
+        int[] intValues = new int[VALUES];
+        long[] longValues = new long[VALUES];
+        SplittableRandom random = new SplittableRandom(42);
+        long previous = 1_700_000_000_000L;
+        for (int i = 0; i < VALUES; i++) {
+            switch (distribution) {
+                case "small":
+                    intValues[i] = random.nextInt(1000);
+                    longValues[i] = intValues[i];
+                    break;
+                case "skewed":
+                    intValues[i] = random.nextInt(100) == 0 ? random.nextInt(1_000_000) : random.nextInt(128);
+                    longValues[i] = intValues[i];
+                    break;
+                case "offset":
+                    intValues[i] = 1_000_000 + random.nextInt(4096);
+                    longValues[i] = intValues[i];
+                    break;
+                default:
+                    intValues[i] = (i == 0 ? 0 : intValues[i - 1]) + 1 + random.nextInt(16);
+                    previous += 950 + random.nextInt(100);
+                    longValues[i] = previous;
+            }
+        }
+        encodedInts = new byte[intCodec.maxEncodedBytes(BLOCK) * BLOCKS];
+        encodedLongs = new byte[longCodec.maxEncodedBytes(BLOCK) * BLOCKS];
+        int intBytes = 0;
+        int longBytes = 0;
+        for (int b = 0; b < BLOCKS; b++) {
+            intBytes = intCodec.encode(intValues, b * BLOCK, BLOCK, encodedInts, intBytes);
+            longBytes = longCodec.encode(longValues, b * BLOCK, BLOCK, encodedLongs, longBytes);
+        }
+        ints = new int[VALUES];
+        longs = new long[VALUES];
+        System.out.printf("%n[compression] %s on %s: ints %.2f bytes/value (%.2fx), longs %.2f bytes/value (%.2fx)%n",
+                codec, distribution,
+                intBytes / (double) VALUES, VALUES * (double) Integer.BYTES / intBytes,
+                longBytes / (double) VALUES, VALUES * (double) Long.BYTES / longBytes);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES * Integer.BYTES)
+    public int[] decodeInts() {
+        for (int b = 0, pos = 0; b < BLOCKS; b++) pos = intCodec.decode(encodedInts, pos, ints, b * BLOCK, BLOCK);
+        return ints;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES * Long.BYTES)
+    public long[] decodeLongs() {
+        for (int b = 0, pos = 0; b < BLOCKS; b++) pos = longCodec.decode(encodedLongs, pos, longs, b * BLOCK, BLOCK);
+        return longs;
+    }
+
+    private static IntCodec intCodec(String name) {
+        switch (name) {
+            case "varint":
+                return IntCodecs.varint();
+            case "bitPacking":
+                return IntCodecs.bitPacking();
+            case "frameOfReference":
+                return IntCodecs.frameOfReference();
+            case "delta+varint":
+                return IntCodecs.delta(IntCodecs.varint());
+            default:
+                return IntCodecs.delta(IntCodecs.frameOfReference());
+        }
+    }
+
+    private static LongCodec longCodec(String name) {
+        switch (name) {
+            case "varint":
+                return LongCodecs.varint();
+            case "bitPacking":
+                return LongCodecs.bitPacking();
+            case "frameOfReference":
+                return LongCodecs.frameOfReference();
+            case "delta+varint":
+                return LongCodecs.delta(LongCodecs.varint());
+            default:
+                return LongCodecs.delta(LongCodecs.frameOfReference());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.pbe.benchmarks;
+
+import com.pbe.offheap.columnar.ColumnFileReader;
+import com.pbe.offheap.columnar.ColumnFileWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Saving and loading a column of int values:
+ - objectStream: an ArrayList<Integer> through ObjectOutputStream / ObjectInputStream, an Integer object per value
+   each way (about 10 bytes per value in the file, 16 per Integer on the heap)
+ - columnFile: ColumnFileWriter.writeInts, and ColumnFileReader mapping the file and reading IntBuffer pages
+ load() reads every value back and sums it, so the mapped file is paged in rather than only mapped.
+ The file stays in the page cache between invocations: this measures decoding, not the disk.
+ Run with: java -jar benchmarks/target/benchmarks.jar ColumnFileBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.foreign"})
+@State(Scope.Benchmark)
+public class ColumnFileBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    @Param({"objectStream", "columnFile"})
+    public String format;
+
+    private int[] values;
+    private ArrayList<Integer> boxed;
+    private Path file;
+    private Path saved;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        values = new SplittableRandom(42).ints(size, 0, 1_000_000).toArray();
+        boxed = new ArrayList<>(size);
+        for (int v : values) boxed.add(v); // autoboxing, as the data would be held before saving
+        file = Files.createTempFile("column-benchmark", ".bin");
+        saved = Files.createTempFile("column-benchmark", ".bin");
+        write(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(saved);
+    }
+
+    @Benchmark
+    public long save() throws IOException {
+        write(saved);
+        return Files.size(saved);
+    }
+
+    @Benchmark
+    public long load() throws IOException, ClassNotFoundException {
+        long sum = 0;
+        if (format.equals("objectStream")) {
+            try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                @SuppressWarnings("unchecked")
+                List<Integer> list = (List<Integer>) in.readObject(); // an Integer per value, and a reflective read per Integer
+                for (Integer v : list) sum += v;
+            }
+        } else {
+            try (ColumnFileReader reader = ColumnFileReader.open(file)) {
+                ColumnFileReader.Column column = reader.column("value");
+                for (int p = 0; p < column.pageCount(); p++) {
+                    IntBuffer page = column.intPage(p);
+                    for (int i = 0, n = page.limit(); i < n; i++) sum += page.get(i);
+                }
+            }
+        }
+        return sum;
+    }
+
+    private void write(Path path) throws IOException {
+        if (format.equals("objectStream")) {
+            try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+                out.writeObject(boxed);
+            }
+        } else {
+            try (ColumnFileWriter writer = ColumnFileWriter.create(path)) {
+                writer.writeInts("value", values);
+            }
+        }
+    }
+}
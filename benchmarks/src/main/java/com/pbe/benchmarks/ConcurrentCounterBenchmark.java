@@ -0,0 +1,97 @@
+package com.pbe.benchmarks;
+
+import com.pbe.concurrent.IntLongCounterMap;
+import com.pbe.concurrent.StripedCounter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/** ++iObA from four threads at once: one shared counter, and counts per key.
+ Shared counter:
+ - synchronizedInteger: ++ on a shared Integer field under a lock, unboxing and boxing a new Integer each time
+ - atomicInteger: AtomicInteger.incrementAndGet
+ - longAdder: java.util.concurrent.atomic.LongAdder
+ - stripedCounter: StripedCounter
+ Counts per key, 10000 keys (mostly outside the Integer cache):
+ - chmMerge: ConcurrentHashMap<Integer, Integer>.merge(key, 1, Integer::sum)
+ - counterMap: IntLongCounterMap.increment(key)
+ Contention needs cores: with fewer than four, the threads mostly take turns and the differences shrink.
+ Run with: java -jar benchmarks/target/benchmarks.jar ConcurrentCounterBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ConcurrentCounterBenchmark {
+
+    private static final int KEYS = 10_000;
+
+    @State(Scope.Benchmark)
+    public static class SharedCounter {
+
+        @Param({"synchronizedInteger", "atomicInteger", "longAdder", "stripedCounter"})
+        public String counter;
+
+        Integer boxed = 0;
+        final AtomicInteger atomic = new AtomicInteger();
+        final LongAdder adder = new LongAdder();
+        final StripedCounter striped = new StripedCounter();
+    }
+
+    @State(Scope.Benchmark)
+    public static class SharedMap {
+
+        @Param({"chmMerge", "counterMap"})
+        public String map;
+
+        final ConcurrentHashMap<Integer, Integer> chm = new ConcurrentHashMap<>();
+        final IntLongCounterMap counterMap = new IntLongCounterMap();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadRandom {
+        final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Benchmark
+    public void increment(SharedCounter state) {
+        switch (state.counter) {
+            case "synchronizedInteger":
+                synchronized (state) {
+                    state.boxed++; // unbox, add, box a new Integer
+                }
+                break;
+            case "atomicInteger":
+                state.atomic.incrementAndGet();
+                break;
+            case "longAdder":
+                state.adder.increment();
+                break;
+            default:
+                state.striped.increment();
+        }
+    }
+
+    @Benchmark
+    public void incrementKey(SharedMap state, ThreadRandom random) {
+        int key = random.random.nextInt(KEYS);
+        if (state.map.equals("chmMerge")) state.chm.merge(key, 1, Integer::sum); // boxes the key and the new count
+        else state.counterMap.increment(key);
+    }
+}
@@ -0,0 +1,130 @@
+package com.pbe.benchmarks;
+
+import com.pbe.dispatch.IntDispatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Dispatching a stream of boxed Integer message types to handlers, like switch(iObA) in Main:
+ - switchOnInteger: a switch on the unboxed Integer, with an explicit null check as the switch itself would throw
+ - hashMap: HashMap<Integer, Runnable>.get, falling back to the default handler
+ - dispatcher: the IntDispatcher, built from the same keys and handlers
+ Dense message types are 0..7, sparse ones are spread over the int range; one key in 64 is null,
+ one in 16 has no handler. Every form counts its hits per handler, so the work per message is the same.
+ Run with: java -jar benchmarks/target/benchmarks.jar DispatchBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DispatchBenchmark {
+
+    private static final int MESSAGES = 4096;
+    private static final int[] DENSE_KEYS = {0, 1, 2, 3, 4, 5, 6, 7};
+    private static final int[] SPARSE_KEYS = {-40_000, 3, 97, 1_024, 65_537, 1_000_003, 77_777_777, 2_000_000_011};
+
+    @Param({"dense", "sparse"})
+    public String keys;
+
+    private Integer[] messages;
+    private final long[] counts = new long[DENSE_KEYS.length + 1]; // the last one counts default handling
+    private Map<Integer, Runnable> hashMap;
+    private IntDispatcher dispatcher;
+    private Runnable defaultHandler;
+
+    @Setup
+    public void setup() {
+        int[] used = keys.equals("dense") ? DENSE_KEYS : SPARSE_KEYS;
+        hashMap = new HashMap<>();
+        IntDispatcher.Builder builder = IntDispatcher.builder();
+        for (int i = 0; i < used.length; i++) {
+            int handler = i;
+            Runnable runnable = () -> counts[handler]++;
+            hashMap.put(used[i], runnable);
+            builder.on(used[i], runnable);
+        }
+        defaultHandler = () -> counts[DENSE_KEYS.length]++;
+        dispatcher = builder.otherwise(defaultHandler).build();
+
+        SplittableRandom random = new SplittableRandom(42);
+        messages = new Integer[MESSAGES];
+        for (int i = 0; i < MESSAGES; i++) {
+            int pick = random.nextInt(64);
+            if (pick == 0) messages[i] = null;
+            else if (pick < 4) messages[i] = 12_345 + pick; // no handler
+            else messages[i] = used[random.nextInt(used.length)]; // autoboxing, not cached for most sparse keys
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public long switchOnInteger() {
+        boolean dense = keys.equals("dense");
+        for (Integer message : messages) {
+            if (message == null) counts[DENSE_KEYS.length]++;
+            else if (dense) denseSwitch(message); // auto-unboxing, as in Main
+            else sparseSwitch(message);
+        }
+        return counts[0];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public long hashMap() {
+        for (Integer message : messages) hashMap.getOrDefault(message, defaultHandler).run();
+        return counts[0];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public long dispatcher() {
+        for (Integer message : messages) dispatcher.dispatch(message);
+        return counts[0];
+    }
+
+    // Compiles to a tableswitch
+    private void denseSwitch(int message) {
+        switch (message) {
+            case 0: counts[0]++; break;
+            case 1: counts[1]++; break;
+            case 2: counts[2]++; break;
+            case 3: counts[3]++; break;
+            case 4: counts[4]++; break;
+            case 5: counts[5]++; break;
+            case 6: counts[6]++; break;
+            case 7: counts[7]++; break;
+            default: counts[8]++;
+        }
+    }
+
+    // Compiles to a lookupswitch, a binary search over the sorted keys
+    private void sparseSwitch(int message) {
+        switch (message) {
+            case -40_000: counts[0]++; break;
+            case 3: counts[1]++; break;
+            case 97: counts[2]++; break;
+            case 1_024: counts[3]++; break;
+            case 65_537: counts[4]++; break;
+            case 1_000_003: counts[5]++; break;
+            case 77_777_777: counts[6]++; break;
+            case 2_000_000_011: counts[7]++; break;
+            default: counts[8]++;
+        }
+    }
+}
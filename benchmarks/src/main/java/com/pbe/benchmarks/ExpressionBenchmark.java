@@ -0,0 +1,145 @@
+package com.pbe.benchmarks;
+
+import com.pbe.expr.Ast;
+import com.pbe.expr.CompiledExpression;
+import com.pbe.expr.ExpressionCompiler;
+import com.pbe.expr.Frame;
+import com.pbe.expr.Parser;
+import com.pbe.expr.Variables;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** The compiled primitive expression engine versus an interpreter working on wrappers, as user code on
+ Integer/Double variables would. Both evaluate the same parsed expression over a batch of variable values.
+ Run with: java -jar benchmarks/target/benchmarks.jar ExpressionBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ExpressionBenchmark {
+
+    private static final int BATCH = 1024;
+
+    @Param({"iObA + (iObA / 3)", "dObA + iObA", "(iObA * 31 + n) % 1000 - dObA / 2"})
+    public String expression;
+
+    private Ast ast;
+    private Map<String, Number> boxedVariables;
+
+    private CompiledExpression compiled;
+    private Frame frame;
+    private int iObA;
+
+    @Setup
+    public void setup() {
+        ast = Parser.parse(expression);
+        boxedVariables = new HashMap<>();
+        boxedVariables.put("dObA", 97.97);
+        boxedVariables.put("n", 1L << 33);
+
+        Variables variables = new Variables();
+        iObA = variables.intVar("iObA");
+        int dObA = variables.doubleVar("dObA");
+        int n = variables.longVar("n");
+        compiled = ExpressionCompiler.compile(expression, variables);
+        frame = variables.newFrame().setDouble(dObA, 97.97).setLong(n, 1L << 33);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public double boxedInterpreter() {
+        double sum = 0;
+        for (int i = 0; i < BATCH; i++) {
+            boxedVariables.put("iObA", 1000 + i); // autoboxing, as assigning an Integer variable does
+            sum += BoxedInterpreter.eval(ast, boxedVariables).doubleValue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public double compiled() {
+        double sum = 0;
+        for (int i = 0; i < BATCH; i++) {
+            frame.setInt(iObA, 1000 + i);
+            sum += compiled.evalDouble(frame);
+        }
+        return sum;
+    }
+
+    // Evaluates on wrappers: every intermediate result is unboxed, computed and re-boxed, like iObB = iObA + (iObA / 3)
+    static final class BoxedInterpreter {
+
+        static Number eval(Ast ast, Map<String, Number> variables) {
+            if (ast instanceof Ast.Literal) {
+                Ast.Literal literal = (Ast.Literal) ast;
+                switch (literal.type()) {
+                    case INT:
+                        return (int) literal.longValue();
+                    case LONG:
+                        return literal.longValue();
+                    default:
+                        return literal.doubleValue();
+                }
+            }
+            if (ast instanceof Ast.Variable) return variables.get(((Ast.Variable) ast).name());
+            if (ast instanceof Ast.Negate) {
+                Number value = eval(((Ast.Negate) ast).operand(), variables);
+                if (value instanceof Double) return -value.doubleValue();
+                if (value instanceof Long) return -value.longValue();
+                return -value.intValue();
+            }
+            Ast.Binary binary = (Ast.Binary) ast;
+            Number left = eval(binary.left(), variables);
+            Number right = eval(binary.right(), variables);
+            if (left instanceof Double || right instanceof Double) {
+                double l = left.doubleValue();
+                double r = right.doubleValue();
+                switch (binary.operator()) {
+                    case '+': return l + r;
+                    case '-': return l - r;
+                    case '*': return l * r;
+                    case '/': return l / r;
+                    default: return l % r;
+                }
+            }
+            if (left instanceof Long || right instanceof Long) {
+                long l = left.longValue();
+                long r = right.longValue();
+                switch (binary.operator()) {
+                    case '+': return l + r;
+                    case '-': return l - r;
+                    case '*': return l * r;
+                    case '/': return l / r;
+                    default: return l % r;
+                }
+            }
+            int l = left.intValue();
+            int r = right.intValue();
+            switch (binary.operator()) {
+                case '+': return l + r;
+                case '-': return l - r;
+                case '*': return l * r;
+                case '/': return l / r;
+                default: return l % r;
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.pbe.benchmarks;
+
+import com.pbe.format.Utf8Writer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/** Printing lines like Main does, "iOb value = " + iOb, with println and string concatenation versus the Utf8Writer.
+ The PrintStream is built the way System.out is (autoflush, 128-byte buffer); both write to /dev/null,
+ so the numbers show the cost of formatting and encoding rather than of the disk. Linux and macOS only.
+ Run with: java -jar benchmarks/target/benchmarks.jar FormatBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FormatBenchmark {
+
+    private static final int LINES = 1000;
+
+    private PrintStream out;
+    private Utf8Writer writer;
+
+    private final Integer[] iObs = new Integer[LINES];
+    private final Double[] dObs = new Double[LINES];
+
+    @Setup
+    public void setup() throws IOException {
+        out = new PrintStream(new BufferedOutputStream(new FileOutputStream("/dev/null"), 128), true);
+        writer = new Utf8Writer(new FileOutputStream("/dev/null").getChannel());
+        for (int i = 0; i < LINES; i++) {
+            iObs[i] = 1000 + 7 * i; // autoboxing
+            dObs[i] = 97.97 + i / 3.0;
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        out.close();
+        writer.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void println() {
+        for (int i = 0; i < LINES; i++) {
+            Integer iOb = iObs[i];
+            Double dObA = dObs[i];
+            out.println("iOb value = " + iOb + ", dObA is: " + dObA + ", ch2 is " + 'a' + ", checkA is " + (i % 2 == 0));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void writer() throws IOException {
+        for (int i = 0; i < LINES; i++) {
+            writer.append("iOb value = ").append(iObs[i].intValue())
+                    .append(", dObA is: ").append(dObs[i].doubleValue())
+                    .append(", ch2 is ").append('a')
+                    .append(", checkA is ").append(i % 2 == 0)
+                    .newLine();
+        }
+        writer.flush(); // once per batch, where println flushes every line
+    }
+}
@@ -0,0 +1,33 @@
+package com.pbe.benchmarks;
+
+/** Rough retained-heap measurement: used heap after forcing a few garbage collections.
+ Good enough to compare data structures that differ by megabytes; for exact layouts use the footprint tooling.
+ */
+final class HeapMeter {
+
+    private HeapMeter() {
+    }
+
+    static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+
+    // Prints the heap retained by whatever was built between the two measurements
+    static void report(String label, long before, long after, int entries) {
+        long retained = after - before;
+        System.out.printf("%n[retained heap] %s: %,d bytes for %,d entries (%.1f bytes/entry)%n",
+                label, retained, entries, entries == 0 ? 0.0 : retained / (double) entries);
+    }
+}
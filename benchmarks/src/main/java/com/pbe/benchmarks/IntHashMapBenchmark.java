@@ -0,0 +1,130 @@
+package com.pbe.benchmarks;
+
+import com.pbe.collections.IntIntHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** HashMap<Integer, Integer> versus IntIntHashMap at 1K, 1M and 50M entries.
+ - build: throughput of inserting all keys into an empty map
+ - get: throughput of looking up a batch of existing keys
+ Retained heap of each fully built map is printed once per fork as a "[retained heap]" line.
+ The 50M case needs a large heap, hence -Xmx12g; run it with: java -jar benchmarks/target/benchmarks.jar IntHashMapBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms12g", "-Xmx12g"})
+public class IntHashMapBenchmark {
+
+    private static final int BATCH = 1024;
+
+    @State(Scope.Benchmark)
+    public static class Keys {
+
+        @Param({"1000", "1000000", "50000000"})
+        public int size;
+
+        int[] keys;
+        int[] lookups;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            SplittableRandom random = new SplittableRandom(42);
+            keys = new int[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = random.nextInt(); // mostly outside the Integer cache, as real IDs are
+            }
+            lookups = new int[BATCH];
+            for (int i = 0; i < BATCH; i++) {
+                lookups[i] = keys[random.nextInt(size)];
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class BoxedMap {
+
+        Map<Integer, Integer> map;
+
+        @Setup(Level.Trial)
+        public void setup(Keys keys) {
+            long before = HeapMeter.usedHeapAfterGc();
+            map = new HashMap<>();
+            for (int k : keys.keys) map.put(k, k); // autoboxing of both key and value
+            HeapMeter.report("HashMap<Integer, Integer>", before, HeapMeter.usedHeapAfterGc(), map.size());
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class PrimitiveMap {
+
+        IntIntHashMap map;
+
+        @Setup(Level.Trial)
+        public void setup(Keys keys) {
+            long before = HeapMeter.usedHeapAfterGc();
+            map = new IntIntHashMap();
+            for (int k : keys.keys) map.put(k, k);
+            HeapMeter.report("IntIntHashMap", before, HeapMeter.usedHeapAfterGc(), map.size());
+        }
+    }
+
+    // **********************
+    // Building the map
+    // **********************
+
+    @Benchmark
+    public Map<Integer, Integer> build_boxed(Keys keys) {
+        Map<Integer, Integer> map = new HashMap<>();
+        for (int k : keys.keys) map.put(k, k);
+        return map;
+    }
+
+    @Benchmark
+    public IntIntHashMap build_primitive(Keys keys) {
+        IntIntHashMap map = new IntIntHashMap();
+        for (int k : keys.keys) map.put(k, k);
+        return map;
+    }
+
+    // **********************
+    // Looking up existing keys, reported per lookup
+    // **********************
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long get_boxed(Keys keys, BoxedMap boxed) {
+        long sum = 0;
+        for (int k : keys.lookups) {
+            sum += boxed.map.get(k); // boxes the key for the lookup, unboxes the value
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long get_primitive(Keys keys, PrimitiveMap primitive) {
+        long sum = 0;
+        for (int k : keys.lookups) {
+            sum += primitive.map.get(k);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,137 @@
+package com.pbe.benchmarks;
+
+import com.pbe.collections.IntList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** ArrayList<Integer>, filled through autoboxing exactly like "Integer iOb2 = a;" in Main, versus IntList.
+ Run with: java -jar benchmarks/target/benchmarks.jar IntListBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IntListBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private int[] values;
+    private List<Integer> boxedList;
+    private IntList intList;
+
+    @Setup
+    public void setup() {
+        values = new Random(42).ints(size).toArray();
+        boxedList = new ArrayList<>(size);
+        for (int v : values) boxedList.add(v);
+        intList = IntList.of(values);
+    }
+
+    // **********************
+    // Filling
+    // **********************
+
+    @Benchmark
+    public List<Integer> fill_boxed() {
+        List<Integer> list = new ArrayList<>();
+        for (int v : values) {
+            list.add(v); // autoboxing, one Integer per value outside -128..127
+        }
+        return list;
+    }
+
+    @Benchmark
+    public IntList fill_primitive() {
+        IntList list = new IntList();
+        for (int v : values) {
+            list.add(v);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public IntList fillBulk_primitive() {
+        IntList list = new IntList();
+        list.addAll(values);
+        return list;
+    }
+
+    // **********************
+    // Summing, by index and by iterator
+    // **********************
+
+    @Benchmark
+    public long sumIndexed_boxed() {
+        long sum = 0;
+        for (int i = 0; i < boxedList.size(); i++) {
+            sum += boxedList.get(i); // auto-unboxing, plus a pointer chase per element
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long sumIndexed_primitive() {
+        long sum = 0;
+        for (int i = 0; i < intList.size(); i++) {
+            sum += intList.get(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long sumIterator_boxed() {
+        long sum = 0;
+        for (Integer v : boxedList) {
+            sum += v;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long sumIterator_primitive() {
+        long sum = 0;
+        PrimitiveIterator.OfInt it = intList.iterator();
+        while (it.hasNext()) {
+            sum += it.nextInt();
+        }
+        return sum;
+    }
+
+    // **********************
+    // Sorting a copy
+    // **********************
+
+    @Benchmark
+    public List<Integer> sort_boxed() {
+        List<Integer> copy = new ArrayList<>(boxedList);
+        Collections.sort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public IntList sort_primitive() {
+        IntList copy = new IntList(intList.size());
+        copy.addAll(intList);
+        copy.sort();
+        return copy;
+    }
+}
@@ -0,0 +1,217 @@
+package com.pbe.benchmarks;
+
+import com.pbe.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** Benchmarks for every example section of {@link Main#main(String[])}.
+ Each section comes as a pair: a primitive baseline and the boxed variant as written in Main.
+ The value is parameterized so results show both sides of the Integer cache (-128..127).
+ Run with: java -jar benchmarks/target/benchmarks.jar MainBenchmark -prof gc
+ The gc profiler adds the gc.alloc.rate.norm column, which is the B/op figure.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MainBenchmark {
+
+    // 10 and 100 are the values used in Main and hit the Integer cache, 500 and 1000 do not
+    @Param({"10", "100", "500", "1000"})
+    public int value;
+
+    private int a;
+    private Integer iOb;
+    private double d;
+    private Double dOb;
+    private boolean flag;
+    private char c;
+
+    @Setup
+    public void setup() {
+        a = value;
+        iOb = Integer.valueOf(value); // boxed once here, so the unboxing benchmarks do not measure boxing
+        d = 97.97;
+        dOb = Double.valueOf(97.97);
+        flag = (value & 1) == 0;
+        c = (char) ('a' + value % 26);
+    }
+
+    // **********************
+    // Type wrapper: manual boxing with Integer.valueOf() and unboxing with intValue()
+    // **********************
+
+    @Benchmark
+    public int typeWrapper_primitive() {
+        return a;
+    }
+
+    @Benchmark
+    public Integer typeWrapper_boxed() {
+        return Integer.valueOf(a);
+    }
+
+    @Benchmark
+    public int typeWrapperUnbox_boxed() {
+        return iOb.intValue();
+    }
+
+    // **********************
+    // Autoboxing/unboxing by assignment
+    // **********************
+
+    @Benchmark
+    public int autoboxing_primitive() {
+        int b = a;
+        return b;
+    }
+
+    @Benchmark
+    public Integer autoboxing_boxed() {
+        Integer boxed = a; // autoboxing
+        return boxed;
+    }
+
+    @Benchmark
+    public int autoboxingRoundTrip_boxed() {
+        Integer boxed = a; // autoboxing, which escape analysis may or may not remove
+        int b = boxed; // auto-unboxing
+        return b;
+    }
+
+    // **********************
+    // Autoboxing/unboxing in method parameters and return value
+    // **********************
+
+    @Benchmark
+    public int methodBoundary_primitive() {
+        return identity(a);
+    }
+
+    @Benchmark
+    public Integer methodBoundary_boxed() {
+        return Main.autoboxme(a); // boxed on the way in, unboxed on return, re-boxed on assignment
+    }
+
+    // **********************
+    // Autoboxing/unboxing in expressions
+    // **********************
+
+    // Both increment a local copy, so every invocation starts from value and stays on its side of the cache
+    @Benchmark
+    public int increment_primitive() {
+        int x = a;
+        return ++x;
+    }
+
+    @Benchmark
+    public Integer increment_boxed() {
+        Integer x = iOb;
+        return ++x; // unbox, increment, re-box
+    }
+
+    @Benchmark
+    public int expression_primitive() {
+        return a + (a / 3);
+    }
+
+    @Benchmark
+    public Integer expression_boxed() {
+        Integer iObB = iOb + (iOb / 3); // unboxes twice, re-boxes the outcome
+        return iObB;
+    }
+
+    // **********************
+    // Type promotions and conversions applied with autoboxing
+    // **********************
+
+    @Benchmark
+    public double promotion_primitive() {
+        return d + a;
+    }
+
+    @Benchmark
+    public Double promotion_boxed() {
+        Double dObA = dOb + iOb; // both unboxed, int widened to double, re-boxed as Double
+        return dObA;
+    }
+
+    // **********************
+    // Integer object used to control a switch statement
+    // **********************
+
+    @Benchmark
+    public int switch_primitive() {
+        return select(a);
+    }
+
+    @Benchmark
+    public int switch_boxed() {
+        return select(iOb); // iOb unboxed to obtain its int value
+    }
+
+    // **********************
+    // Autoboxing/unboxing Boolean & Character values
+    // **********************
+
+    @Benchmark
+    public int booleanCharacter_primitive() {
+        boolean checkA = flag;
+        char ch2 = c;
+        return checkA ? ch2 : -ch2;
+    }
+
+    @Benchmark
+    public int booleanCharacter_boxed() {
+        Boolean checkA = flag; // always one of the two Boolean constants
+        Character ch = c; // cached for chars up to 127
+        char ch2 = ch;
+        return checkA ? ch2 : -ch2;
+    }
+
+    // **********************
+    // Manual unboxing as a narrower type
+    // **********************
+
+    @Benchmark
+    public int byteValue_primitive() {
+        return (byte) a;
+    }
+
+    @Benchmark
+    public int byteValue_boxed() {
+        return iOb.byteValue();
+    }
+
+    // **********************
+    // Helpers
+    // **********************
+
+    private static int identity(int x) {
+        return x;
+    }
+
+    private static int select(int x) {
+        switch (x) {
+            case 1:
+                return 1;
+            case 2:
+                return 2;
+            default:
+                return -1;
+        }
+    }
+}
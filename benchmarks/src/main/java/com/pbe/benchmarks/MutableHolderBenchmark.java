@@ -0,0 +1,139 @@
+package com.pbe.benchmarks;
+
+import com.pbe.mutable.HolderPool;
+import com.pbe.mutable.MutableInt;
+import com.pbe.mutable.MutableLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.CompilerControl;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Results handed back through a method boundary, as autoboxme() does, versus mutable holders:
+ - accumulate: a running total updated by a method per value. boxed: Long total = add(total, v), a new Long per call;
+   holder: one MutableLong per invocation, updated in place; pooled: the MutableLong comes from a HolderPool scope.
+ - minMax: a method with two results per chunk of 16 values. boxed: returns an Integer[] {min, max};
+   holder: two new MutableInt out-parameters per call; pooled: two MutableInt from a HolderPool scope per call.
+ The called methods are kept out of line (CompilerControl.DONT_INLINE), as a method of another class behind
+ an interface or a large method would be; once inlined, escape analysis could remove the boxes, see the escape report.
+ They must not share a name with a benchmark method: JMH force-inlines methods by name.
+ Run with: java -jar benchmarks/target/benchmarks.jar MutableHolderBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MutableHolderBenchmark {
+
+    private static final int SIZE = 1024;
+    private static final int CHUNK = 16;
+
+    @Param({"boxed", "holder", "pooled"})
+    public String form;
+
+    private int[] values;
+
+    @Setup
+    public void setup() {
+        values = new SplittableRandom(42).ints(SIZE, 0, 1_000_000).toArray();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public long accumulate() {
+        switch (form) {
+            case "boxed": {
+                Long total = 0L;
+                for (int v : values) total = add(total, v); // unboxed in add, the sum boxed into a new Long
+                return total;
+            }
+            case "holder": {
+                MutableLong total = new MutableLong();
+                for (int v : values) add(total, v);
+                return total.get();
+            }
+            default:
+                try (HolderPool.Scope scope = HolderPool.open()) {
+                    MutableLong total = scope.mutableLong(0);
+                    for (int v : values) add(total, v);
+                    return total.get();
+                }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE / CHUNK)
+    public long minMax() {
+        long sum = 0;
+        for (int from = 0; from < SIZE; from += CHUNK) sum += range(from);
+        return sum;
+    }
+
+    private int range(int from) {
+        switch (form) {
+            case "boxed": {
+                Integer[] minMax = findMinMaxBoxed(values, from, from + CHUNK);
+                return minMax[1] - minMax[0];
+            }
+            case "holder": {
+                MutableInt min = new MutableInt();
+                MutableInt max = new MutableInt();
+                findMinMax(values, from, from + CHUNK, min, max);
+                return max.get() - min.get();
+            }
+            default:
+                try (HolderPool.Scope scope = HolderPool.open()) {
+                    MutableInt min = scope.mutableInt(0);
+                    MutableInt max = scope.mutableInt(0);
+                    findMinMax(values, from, from + CHUNK, min, max);
+                    return max.get() - min.get();
+                }
+        }
+    }
+
+    @CompilerControl(CompilerControl.Mode.DONT_INLINE)
+    private static Long add(Long total, int value) {
+        return total + value;
+    }
+
+    @CompilerControl(CompilerControl.Mode.DONT_INLINE)
+    private static void add(MutableLong total, int value) {
+        total.add(value);
+    }
+
+    @CompilerControl(CompilerControl.Mode.DONT_INLINE)
+    private static Integer[] findMinMaxBoxed(int[] values, int from, int to) {
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = from; i < to; i++) {
+            min = Math.min(min, values[i]);
+            max = Math.max(max, values[i]);
+        }
+        return new Integer[]{min, max}; // two boxes and an array
+    }
+
+    @CompilerControl(CompilerControl.Mode.DONT_INLINE)
+    private static void findMinMax(int[] values, int from, int to, MutableInt min, MutableInt max) {
+        int lo = Integer.MAX_VALUE;
+        int hi = Integer.MIN_VALUE;
+        for (int i = from; i < to; i++) {
+            lo = Math.min(lo, values[i]);
+            hi = Math.max(hi, values[i]);
+        }
+        min.set(lo);
+        max.set(hi);
+    }
+}
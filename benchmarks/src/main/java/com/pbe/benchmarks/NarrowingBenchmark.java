@@ -0,0 +1,74 @@
+package com.pbe.benchmarks;
+
+import com.pbe.convert.Narrowing;
+import com.pbe.convert.Overflow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Narrowing a column of in-range ints to bytes:
+ - boxedByteValue: Integer[] and byteValue(), the unchecked conversion from Main
+ - exactPerElement: an int[] with a range check per element that throws, as Math.toIntExact does for int
+ - narrowing: the bulk Narrowing conversion in each Overflow mode
+ Run with: java -jar benchmarks/target/benchmarks.jar NarrowingBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NarrowingBenchmark {
+
+    private static final int SIZE = 1_000_000;
+
+    @Param({"WRAP", "SATURATE", "THROW", "REPORT_COUNT"})
+    public Overflow mode;
+
+    private int[] source;
+    private Integer[] boxedSource;
+    private final byte[] target = new byte[SIZE];
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        source = new int[SIZE];
+        boxedSource = new Integer[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            source[i] = random.nextInt(Byte.MIN_VALUE, Byte.MAX_VALUE + 1);
+            boxedSource[i] = source[i];
+        }
+    }
+
+    @Benchmark
+    public byte[] boxedByteValue() {
+        for (int i = 0; i < SIZE; i++) target[i] = boxedSource[i].byteValue();
+        return target;
+    }
+
+    @Benchmark
+    public byte[] exactPerElement() {
+        for (int i = 0; i < SIZE; i++) {
+            int value = source[i];
+            if (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) throw new ArithmeticException("byte overflow at " + i);
+            target[i] = (byte) value;
+        }
+        return target;
+    }
+
+    @Benchmark
+    public int narrowing() {
+        return Narrowing.toBytes(source, target, mode);
+    }
+}
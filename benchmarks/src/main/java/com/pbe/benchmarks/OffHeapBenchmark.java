@@ -0,0 +1,100 @@
+package com.pbe.benchmarks;
+
+import com.pbe.offheap.IntArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** Integer[] versus int[] versus the off-heap IntArray, up to 1 billion elements.
+ The 1B case needs about 20 GB of heap for the Integer[] and 4 GB of heap or native memory for the others;
+ lower -Xmx and leave out the 1000000000 parameter on smaller machines:
+ java -jar benchmarks/target/benchmarks.jar OffHeapBenchmark -p size=1000000 -jvmArgsAppend "--add-modules=jdk.incubator.foreign -Xmx2g"
+ (-jvmArgsAppend on the command line replaces the one of the annotation, so the add-modules has to be repeated)
+ Retained heap of each storage form is printed once per fork as a "[retained heap]" line;
+ the IntArray shows up as (almost) nothing, its values live in native memory.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.foreign", "-Xmx24g"})
+@State(Scope.Benchmark)
+public class OffHeapBenchmark {
+
+    @Param({"1000000", "1000000000"})
+    public int size;
+
+    @Param({"boxed", "heap", "offheap"})
+    public String storage;
+
+    private Integer[] boxed;
+    private int[] heap;
+    private IntArray offHeap;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        long before = HeapMeter.usedHeapAfterGc();
+        switch (storage) {
+            case "boxed":
+                boxed = new Integer[size];
+                for (int i = 0; i < size; i++) boxed[i] = i; // autoboxing, one Integer per element above 127
+                break;
+            case "heap":
+                heap = new int[size];
+                for (int i = 0; i < size; i++) heap[i] = i;
+                break;
+            default:
+                offHeap = IntArray.allocateShared(size); // shared: JMH may run setup and benchmark on different threads
+                for (int i = 0; i < size; i++) offHeap.set(i, i);
+        }
+        HeapMeter.report(storage, before, HeapMeter.usedHeapAfterGc(), size);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (offHeap != null) offHeap.close();
+    }
+
+    @Benchmark
+    public long sum() {
+        long sum = 0;
+        switch (storage) {
+            case "boxed":
+                for (Integer v : boxed) sum += v;
+                break;
+            case "heap":
+                for (int v : heap) sum += v;
+                break;
+            default:
+                for (long i = 0, n = offHeap.size(); i < n; i++) sum += offHeap.get(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int fill() {
+        switch (storage) {
+            case "boxed":
+                for (int i = 0; i < size; i++) boxed[i] = i;
+                return boxed.length;
+            case "heap":
+                for (int i = 0; i < size; i++) heap[i] = i;
+                return heap.length;
+            default:
+                for (int i = 0; i < size; i++) offHeap.set(i, i);
+                return (int) offHeap.size();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.pbe.benchmarks;
+
+import com.pbe.parse.NumericFileParser;
+import com.pbe.parse.ParseResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Reading a file of 10 million numbers, one per line, into memory:
+ - valueOf: BufferedReader.readLine and Integer.valueOf/Double.valueOf into a List, a String and a wrapper per number
+ - parser: the NumericFileParser, from the memory-mapped file into an int[] or double[] on the common ForkJoinPool
+ The file is written once per trial to the temp directory and deleted afterwards.
+ Run with: java -jar benchmarks/target/benchmarks.jar ParserBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class ParserBenchmark {
+
+    private static final int COUNT = 10_000_000;
+
+    @Param({"int", "double"})
+    public String type;
+
+    private Path file;
+    private final NumericFileParser parser = new NumericFileParser();
+
+    @Setup
+    public void setup() throws IOException {
+        file = Files.createTempFile("parser-benchmark", ".txt");
+        SplittableRandom random = new SplittableRandom(42);
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (int i = 0; i < COUNT; i++) {
+                if (type.equals("int")) writer.write(Integer.toString(random.nextInt()));
+                else writer.write(Double.toString(Math.round(random.nextDouble(-1e6, 1e6) * 1000) / 1000.0));
+                writer.newLine();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public List<? extends Number> valueOf() throws IOException {
+        List<Number> values = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                values.add(type.equals("int") ? (Number) Integer.valueOf(line) : (Number) Double.valueOf(line));
+            }
+        }
+        return values;
+    }
+
+    @Benchmark
+    public ParseResult parser() throws IOException {
+        return type.equals("int") ? parser.parseInts(file) : parser.parseDoubles(file);
+    }
+}
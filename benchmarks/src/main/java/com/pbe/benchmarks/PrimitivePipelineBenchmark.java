@@ -0,0 +1,118 @@
+package com.pbe.benchmarks;
+
+import com.pbe.collections.IntList;
+import com.pbe.stream.IntPipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/** The same pipelines over the same 1,000,000 values (0..999999, so almost none from the Integer cache) as
+ - boxedStream: List<Integer>.stream(), map/filter on Integer, boxing each mapped value and unboxing it again
+ - intStream: IntStream.of(int[])
+ - pipeline: IntPipeline.of(IntList)
+ each run sequentially or in parallel on the common ForkJoinPool:
+ - mapFilterSum: map(v -> v * 3).filter(even).sum()
+ - flatMapSum: every value divisible by 3 becomes two values (flatMap to Stream.of / IntStream.of, mapMulti for
+   the pipeline, which is what its flatMap does), then sum()
+ - filterToArray: filter(v % 10 == 0) collected into an array (Integer[] for the boxed stream)
+ Parallel needs cores: on one or two the split and combine costs show but the speed-up does not.
+ Run with: java -jar benchmarks/target/benchmarks.jar PrimitivePipelineBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PrimitivePipelineBenchmark {
+
+    private static final int SIZE = 1_000_000;
+
+    @Param({"boxedStream", "intStream", "pipeline"})
+    public String form;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private int[] values;
+    private List<Integer> boxedList;
+    private IntList intList;
+
+    @Setup
+    public void setup() {
+        values = new SplittableRandom(42).ints(SIZE, 0, 1_000_000).toArray();
+        boxedList = new ArrayList<>(SIZE);
+        for (int v : values) boxedList.add(v);
+        intList = IntList.of(values);
+    }
+
+    @Benchmark
+    public long mapFilterSum() {
+        switch (form) {
+            case "boxedStream":
+                return boxed().map(v -> v * 3).filter(v -> (v & 1) == 0).mapToLong(v -> v).sum();
+            case "intStream":
+                return ints().map(v -> v * 3).filter(v -> (v & 1) == 0).asLongStream().sum();
+            default:
+                return pipeline().map(v -> v * 3).filter(v -> (v & 1) == 0).sum();
+        }
+    }
+
+    @Benchmark
+    public long flatMapSum() {
+        switch (form) {
+            case "boxedStream":
+                return boxed().flatMap(v -> v % 3 == 0 ? Stream.of(v, -v) : Stream.empty()).mapToLong(v -> v).sum();
+            case "intStream":
+                return ints().flatMap(v -> v % 3 == 0 ? IntStream.of(v, -v) : IntStream.empty()).asLongStream().sum();
+            default:
+                return pipeline().flatMap((v, down) -> {
+                    if (v % 3 == 0) {
+                        down.accept(v);
+                        down.accept(-v);
+                    }
+                }).sum();
+        }
+    }
+
+    @Benchmark
+    public Object filterToArray() {
+        switch (form) {
+            case "boxedStream":
+                return boxed().filter(v -> v % 10 == 0).toArray(Integer[]::new);
+            case "intStream":
+                return ints().filter(v -> v % 10 == 0).toArray();
+            default:
+                return pipeline().filter(v -> v % 10 == 0).toArray();
+        }
+    }
+
+    private Stream<Integer> boxed() {
+        return parallel ? boxedList.parallelStream() : boxedList.stream();
+    }
+
+    private IntStream ints() {
+        IntStream s = IntStream.of(values);
+        return parallel ? s.parallel() : s;
+    }
+
+    private IntPipeline pipeline() {
+        IntPipeline p = IntPipeline.of(intList);
+        return parallel ? p.parallel() : p;
+    }
+}
@@ -0,0 +1,223 @@
+package com.pbe.benchmarks;
+
+import com.pbe.numeric.BinaryOp;
+import com.pbe.numeric.NumericKind;
+import com.pbe.numeric.NumericVector;
+import com.pbe.numeric.Promotion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Column arithmetic on wrappers (unbox, promote, re-box per element, like dObA = dObA + iObA)
+ versus the Promotion engine on primitive columns.
+ The setup checks that both paths produce bit-identical results and fails the run if they do not.
+ Run with: java -jar benchmarks/target/benchmarks.jar PromotionBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PromotionBenchmark {
+
+    private static final int SIZE = 100_000;
+
+    // left and right column types; INT,DOUBLE is the iObA/dObA example from Main
+    @Param({"INT,DOUBLE", "BYTE,SHORT", "CHAR,LONG", "LONG,FLOAT", "FLOAT,DOUBLE"})
+    public String kinds;
+
+    @Param({"ADD", "DIVIDE"})
+    public BinaryOp op;
+
+    private NumericVector left;
+    private NumericVector right;
+    private Number[] boxedLeft;
+    private Number[] boxedRight;
+
+    @Setup
+    public void setup() {
+        String[] pair = kinds.split(",");
+        SplittableRandom random = new SplittableRandom(42);
+        left = column(NumericKind.valueOf(pair[0]), random);
+        right = column(NumericKind.valueOf(pair[1]), random);
+        boxedLeft = boxed(left);
+        boxedRight = boxed(right);
+        verify();
+    }
+
+    @Benchmark
+    public Number[] boxed() {
+        Number[] result = new Number[SIZE];
+        for (int i = 0; i < SIZE; i++) result[i] = BoxedArithmetic.apply(op, boxedLeft[i], boxedRight[i]);
+        return result;
+    }
+
+    @Benchmark
+    public NumericVector primitive() {
+        return Promotion.apply(op, left, right);
+    }
+
+    private void verify() {
+        NumericVector primitive = Promotion.apply(op, left, right);
+        Number[] boxed = boxed();
+        for (int i = 0; i < SIZE; i++) {
+            long expected = bits(boxed[i]);
+            long actual;
+            switch (primitive.kind()) {
+                case INT:
+                    actual = primitive.ints()[i];
+                    break;
+                case LONG:
+                    actual = primitive.longs()[i];
+                    break;
+                case FLOAT:
+                    actual = Float.floatToRawIntBits(primitive.floats()[i]);
+                    break;
+                default:
+                    actual = Double.doubleToRawLongBits(primitive.doubles()[i]);
+            }
+            if (expected != actual) {
+                throw new IllegalStateException("Mismatch at " + i + " for " + kinds + " " + op + ": boxed " + boxed[i]
+                        + ", primitive bits " + Long.toHexString(actual));
+            }
+        }
+    }
+
+    private static long bits(Number value) {
+        if (value instanceof Double) return Double.doubleToRawLongBits(value.doubleValue());
+        if (value instanceof Float) return Float.floatToRawIntBits(value.floatValue());
+        return value.longValue();
+    }
+
+    // Random non-zero values over the whole range of the type, so divisions never divide by zero
+    private static NumericVector column(NumericKind kind, SplittableRandom random) {
+        switch (kind) {
+            case BYTE: {
+                byte[] values = new byte[SIZE];
+                for (int i = 0; i < SIZE; i++) values[i] = (byte) (random.nextInt(255) - 127 | 1);
+                return NumericVector.of(values);
+            }
+            case SHORT: {
+                short[] values = new short[SIZE];
+                for (int i = 0; i < SIZE; i++) values[i] = (short) (random.nextInt() | 1);
+                return NumericVector.of(values);
+            }
+            case CHAR: {
+                char[] values = new char[SIZE];
+                for (int i = 0; i < SIZE; i++) values[i] = (char) (random.nextInt() | 1);
+                return NumericVector.of(values);
+            }
+            case INT: {
+                int[] values = new int[SIZE];
+                for (int i = 0; i < SIZE; i++) values[i] = random.nextInt() | 1;
+                return NumericVector.of(values);
+            }
+            case LONG: {
+                long[] values = new long[SIZE];
+                for (int i = 0; i < SIZE; i++) values[i] = random.nextLong() | 1;
+                return NumericVector.of(values);
+            }
+            case FLOAT: {
+                float[] values = new float[SIZE];
+                for (int i = 0; i < SIZE; i++) values[i] = (float) (random.nextDouble(-1e6, 1e6));
+                return NumericVector.of(values);
+            }
+            default: {
+                double[] values = new double[SIZE];
+                for (int i = 0; i < SIZE; i++) values[i] = random.nextDouble(-1e6, 1e6);
+                return NumericVector.of(values);
+            }
+        }
+    }
+
+    // The column as wrappers of its own type; Character is no Number, so chars are boxed as the int they promote to
+    private static Number[] boxed(NumericVector vector) {
+        Number[] boxed = new Number[vector.length()];
+        for (int i = 0; i < boxed.length; i++) {
+            switch (vector.kind()) {
+                case BYTE:
+                    boxed[i] = vector.bytes()[i];
+                    break;
+                case SHORT:
+                    boxed[i] = vector.shorts()[i];
+                    break;
+                case CHAR:
+                    boxed[i] = (int) vector.chars()[i];
+                    break;
+                case INT:
+                    boxed[i] = vector.ints()[i];
+                    break;
+                case LONG:
+                    boxed[i] = vector.longs()[i];
+                    break;
+                case FLOAT:
+                    boxed[i] = vector.floats()[i];
+                    break;
+                default:
+                    boxed[i] = vector.doubles()[i];
+            }
+        }
+        return boxed;
+    }
+
+    // Per element: unbox, promote, compute, re-box
+    static final class BoxedArithmetic {
+
+        static Number apply(BinaryOp op, Number left, Number right) {
+            if (left instanceof Double || right instanceof Double) {
+                double l = left.doubleValue();
+                double r = right.doubleValue();
+                switch (op) {
+                    case ADD: return l + r;
+                    case SUBTRACT: return l - r;
+                    case MULTIPLY: return l * r;
+                    case DIVIDE: return l / r;
+                    default: return l % r;
+                }
+            }
+            if (left instanceof Float || right instanceof Float) {
+                float l = left.floatValue();
+                float r = right.floatValue();
+                switch (op) {
+                    case ADD: return l + r;
+                    case SUBTRACT: return l - r;
+                    case MULTIPLY: return l * r;
+                    case DIVIDE: return l / r;
+                    default: return l % r;
+                }
+            }
+            if (left instanceof Long || right instanceof Long) {
+                long l = left.longValue();
+                long r = right.longValue();
+                switch (op) {
+                    case ADD: return l + r;
+                    case SUBTRACT: return l - r;
+                    case MULTIPLY: return l * r;
+                    case DIVIDE: return l / r;
+                    default: return l % r;
+                }
+            }
+            int l = left.intValue();
+            int r = right.intValue();
+            switch (op) {
+                case ADD: return l + r;
+                case SUBTRACT: return l - r;
+                case MULTIPLY: return l * r;
+                case DIVIDE: return l / r;
+                default: return l % r;
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.pbe.benchmarks;
+
+import com.pbe.collections.CharArrayDeque;
+import com.pbe.collections.CharBitSet;
+import com.pbe.collections.CharOpenHashSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** A small tokenizer, as Character ch = 'a' in Main but for every char of a text:
+ chars go into a token buffer until a delimiter ends the token, and brackets are matched on a stack.
+ - boxed: ArrayDeque<Character> buffer and stack, HashSet<Character> delimiters
+ - hashSet: CharArrayDeque buffer and stack, CharOpenHashSet delimiters
+ - bitSet: CharArrayDeque buffer and stack, CharBitSet delimiters
+ The text is either ascii, where Character.valueOf hands out cached boxes, or unicode, with Greek and Cyrillic
+ words whose chars are above 127 and get a new Character each time they are boxed; -prof gc shows the difference.
+ Run with: java -jar benchmarks/target/benchmarks.jar TokenizerBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TokenizerBenchmark {
+
+    private static final int LENGTH = 64 * 1024;
+    private static final String DELIMITERS = " \t\n,;:.+-*/=()[]{}";
+    private static final String[] ASCII_WORDS = {"iOb", "iObA", "dObA", "checkA", "ch2", "value", "Integer", "valueOf", "97.97", "100L"};
+    private static final String[] UNICODE_WORDS = {"αριθμός", "τιμή", "число", "значение", "λ", "ключ", "σύνολο", "строка", "iOb", "ch2"};
+
+    @Param({"boxed", "hashSet", "bitSet"})
+    public String form;
+
+    @Param({"ascii", "unicode"})
+    public String text;
+
+    private char[] chars;
+
+    private Set<Character> delimiterSet;
+    private CharOpenHashSet delimiterHashSet;
+    private CharBitSet delimiterBitSet;
+
+    @Setup
+    public void setup() {
+        String[] words = text.equals("ascii") ? ASCII_WORDS : UNICODE_WORDS;
+        SplittableRandom random = new SplittableRandom(42);
+        StringBuilder sb = new StringBuilder(LENGTH + 64);
+        int depth = 0;
+        while (sb.length() < LENGTH) {
+            sb.append(words[random.nextInt(words.length)]);
+            int r = random.nextInt(10);
+            if (r == 0 && depth < 8) {
+                sb.append(" (");
+                depth++;
+            } else if (r == 1 && depth > 0) {
+                sb.append(')');
+                depth--;
+            } else {
+                sb.append(" +-*/,;".charAt(random.nextInt(7))).append(' ');
+            }
+        }
+        sb.setLength(LENGTH - depth);
+        for (; depth > 0; depth--) sb.append(')');
+        chars = sb.toString().toCharArray();
+
+        delimiterSet = new HashSet<>();
+        for (char c : DELIMITERS.toCharArray()) delimiterSet.add(c);
+        delimiterHashSet = CharOpenHashSet.of(DELIMITERS);
+        delimiterBitSet = CharBitSet.of(DELIMITERS);
+    }
+
+    // Returns a hash over all tokens plus the number of mismatched brackets, so the work cannot be skipped
+    @Benchmark
+    @OperationsPerInvocation(LENGTH)
+    public int tokenize() {
+        switch (form) {
+            case "boxed":
+                return tokenizeBoxed();
+            case "hashSet":
+                return tokenizePrimitive(false);
+            default:
+                return tokenizePrimitive(true);
+        }
+    }
+
+    private int tokenizeBoxed() {
+        Deque<Character> buffer = new ArrayDeque<>();
+        Deque<Character> brackets = new ArrayDeque<>();
+        int hash = 0;
+        int mismatches = 0;
+        for (char c : chars) {
+            if (!delimiterSet.contains(c)) { // autoboxing of c for the lookup
+                buffer.addLast(c); // and again to store it
+                continue;
+            }
+            while (!buffer.isEmpty()) hash = 31 * hash + buffer.pollFirst(); // auto-unboxing
+            if (c == '(' || c == '[' || c == '{') {
+                brackets.push(c);
+            } else if (c == ')' || c == ']' || c == '}') {
+                if (brackets.isEmpty() || closing(brackets.pop()) != c) mismatches++;
+            }
+        }
+        while (!buffer.isEmpty()) hash = 31 * hash + buffer.pollFirst();
+        return hash + mismatches + brackets.size();
+    }
+
+    private int tokenizePrimitive(boolean bitSet) {
+        CharArrayDeque buffer = new CharArrayDeque();
+        CharArrayDeque brackets = new CharArrayDeque();
+        int hash = 0;
+        int mismatches = 0;
+        for (char c : chars) {
+            if (!(bitSet ? delimiterBitSet.contains(c) : delimiterHashSet.contains(c))) {
+                buffer.addLast(c);
+                continue;
+            }
+            while (!buffer.isEmpty()) hash = 31 * hash + buffer.removeFirst();
+            if (c == '(' || c == '[' || c == '{') {
+                brackets.push(c);
+            } else if (c == ')' || c == ']' || c == '}') {
+                if (brackets.isEmpty() || closing(brackets.pop()) != c) mismatches++;
+            }
+        }
+        while (!buffer.isEmpty()) hash = 31 * hash + buffer.removeFirst();
+        return hash + mismatches + brackets.size();
+    }
+
+    private static char closing(char open) {
+        return open == '(' ? ')' : open == '[' ? ']' : '}';
+    }
+}
@@ -0,0 +1,133 @@
+package com.pbe.benchmarks;
+
+import com.pbe.vector.ExpressionKernels;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Main's expressions iObB = iObA + (iObA / 3) and dObA = dObA + iObA over whole columns, three ways:
+ - boxed: Integer[]/Double[] with a loop that unboxes and re-boxes per element, as Main does for one value
+ - scalar: a plain loop over int[]/double[]
+ - vector: the SIMD kernels of ExpressionKernels
+ The setup checks that the three forms compute the same values and fails the run if they do not.
+ The 100M case needs about 8 GB of heap for the boxed form; leave it out on smaller machines:
+ java -jar benchmarks/target/benchmarks.jar VectorKernelBenchmark -p size=1000,100000,10000000 -jvmArgsAppend "--add-modules=jdk.incubator.vector -Xmx2g"
+ (-jvmArgsAppend on the command line replaces the one of the annotation, so the add-modules has to be repeated)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Xmx8g"})
+@State(Scope.Benchmark)
+public class VectorKernelBenchmark {
+
+    @Param({"1000", "100000", "10000000", "100000000"})
+    public int size;
+
+    @Param({"boxed", "scalar", "vector"})
+    public String form;
+
+    private Integer[] boxedInts;
+    private Double[] boxedDoubles;
+    private Integer[] boxedIntResult;
+    private Double[] boxedDoubleResult;
+
+    private int[] ints;
+    private double[] doubles;
+    private int[] intResult;
+    private double[] doubleResult;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        ints = new int[size];
+        doubles = new double[size];
+        for (int i = 0; i < size; i++) {
+            ints[i] = random.nextInt();
+            doubles[i] = random.nextDouble(-1e6, 1e6);
+        }
+        intResult = new int[size];
+        doubleResult = new double[size];
+        if (form.equals("boxed")) {
+            boxedInts = new Integer[size];
+            boxedDoubles = new Double[size];
+            for (int i = 0; i < size; i++) {
+                boxedInts[i] = ints[i];
+                boxedDoubles[i] = doubles[i];
+            }
+            boxedIntResult = new Integer[size];
+            boxedDoubleResult = new Double[size];
+        }
+        verify();
+        if (form.equals("boxed")) { // the primitive columns were only needed for the check
+            ints = intResult = null;
+            doubles = doubleResult = null;
+        }
+    }
+
+    @Benchmark
+    public Object plusThird() {
+        switch (form) {
+            case "boxed":
+                for (int i = 0; i < size; i++) {
+                    Integer iObA = boxedInts[i];
+                    boxedIntResult[i] = iObA + (iObA / 3); // unbox twice, re-box the outcome
+                }
+                return boxedIntResult;
+            case "scalar":
+                ExpressionKernels.plusThirdScalar(ints, intResult);
+                return intResult;
+            default:
+                ExpressionKernels.plusThird(ints, intResult);
+                return intResult;
+        }
+    }
+
+    @Benchmark
+    public Object plus() {
+        switch (form) {
+            case "boxed":
+                for (int i = 0; i < size; i++) {
+                    Double dObA = boxedDoubles[i];
+                    boxedDoubleResult[i] = dObA + boxedInts[i]; // unbox both, widen the int, re-box as Double
+                }
+                return boxedDoubleResult;
+            case "scalar":
+                ExpressionKernels.plusScalar(doubles, ints, doubleResult);
+                return doubleResult;
+            default:
+                ExpressionKernels.plus(doubles, ints, doubleResult);
+                return doubleResult;
+        }
+    }
+
+    // Compares this form against the scalar loops, which are the plain Java semantics
+    private void verify() {
+        int[] expectedInts = new int[size];
+        double[] expectedDoubles = new double[size];
+        ExpressionKernels.plusThirdScalar(ints, expectedInts);
+        ExpressionKernels.plusScalar(doubles, ints, expectedDoubles);
+        plusThird();
+        plus();
+        for (int i = 0; i < size; i++) {
+            int actualInt = form.equals("boxed") ? boxedIntResult[i] : intResult[i];
+            double actualDouble = form.equals("boxed") ? boxedDoubleResult[i] : doubleResult[i];
+            if (actualInt != expectedInts[i] || Double.doubleToRawLongBits(actualDouble) != Double.doubleToRawLongBits(expectedDoubles[i])) {
+                throw new IllegalStateException("Mismatch at " + i + " for " + form + ": " + actualInt + ", " + actualDouble);
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.pbe.agent;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.lang.instrument.Instrumentation;
+
+/** Java agent that counts box and unbox events per call site and prints the top call sites at exit.
+ Usage: java -javaagent:boxing-tools.jar[=options] ...
+ Options, comma separated:
+ - top=N            number of call sites in the report (default 20)
+ - include=a.b;c.d  only instrument classes in these packages (default: all non-JDK classes)
+ - out=file         write the report to a file instead of stderr
+
+ Run on the study, the report attributes the events to the lines of Main that box or unbox implicitly,
+ such as ++iObA (Integer.intValue() and Integer.valueOf(int)) and dObA = dObA + iObA (Integer.intValue()).
+ */
+public final class BoxingAgent {
+
+    private static final int DEFAULT_TOP = 20;
+
+    private BoxingAgent() {
+    }
+
+    public static void premain(String agentArgs, Instrumentation instrumentation) {
+        int top = DEFAULT_TOP;
+        String[] includes = new String[0];
+        String out = null;
+        if (agentArgs != null && !agentArgs.isBlank()) {
+            for (String option : agentArgs.split(",")) {
+                int eq = option.indexOf('=');
+                String key = eq < 0 ? option.trim() : option.substring(0, eq).trim();
+                String value = eq < 0 ? "" : option.substring(eq + 1).trim();
+                switch (key) {
+                    case "top":
+                        top = Integer.parseInt(value);
+                        break;
+                    case "include":
+                        includes = value.split(";");
+                        for (int i = 0; i < includes.length; i++) includes[i] = includes[i].replace('.', '/') + '/';
+                        break;
+                    case "out":
+                        out = value;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown boxing agent option: " + key);
+                }
+            }
+        }
+        instrumentation.addTransformer(new BoxingTransformer(includes));
+
+        int reportTop = top;
+        String reportFile = out;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> report(reportTop, reportFile), "boxing-agent-report"));
+    }
+
+    private static void report(int top, String file) {
+        if (file == null) {
+            BoxingSites.report(System.err, top);
+            return;
+        }
+        try (PrintStream out = new PrintStream(file)) {
+            BoxingSites.report(out, top);
+        } catch (FileNotFoundException e) {
+            System.err.println("[boxing-agent] cannot write report to " + file + ": " + e.getMessage());
+            BoxingSites.report(System.err, top);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.pbe.agent;
+
+import com.pbe.bytecode.BoxingCall;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Registry of instrumented box/unbox call sites and their event counters.
+ Each call site gets an id when its class is transformed; the instrumented code calls hit(id) right before
+ the boxing or unboxing call. Counters are LongAdders, which stripe increments over per-thread cells,
+ so hot call sites hit from many threads do not contend on a single cache line.
+ Public only because instrumented classes in any package have to be able to call hit().
+ */
+public final class BoxingSites {
+
+    private static final Object LOCK = new Object();
+
+    private static volatile Site[] sites = new Site[1024];
+    private static volatile LongAdder[] counters = new LongAdder[1024];
+    private static int count;
+
+    private BoxingSites() {
+    }
+
+    // Called from instrumented code, must stay as cheap as possible
+    public static void hit(int site) {
+        counters[site].increment();
+    }
+
+    // Called by the transformer for every boxing call it instruments; returns the id to pass to hit()
+    static int register(String className, String method, int line, BoxingCall call) {
+        synchronized (LOCK) {
+            if (count == sites.length) {
+                // Publish the larger counters array first: every id handed out so far is valid in both
+                counters = Arrays.copyOf(counters, count * 2);
+                sites = Arrays.copyOf(sites, count * 2);
+            }
+            int id = count++;
+            sites[id] = new Site(className, method, line, call);
+            counters[id] = new LongAdder();
+            return id;
+        }
+    }
+
+    // Prints the top call sites by event count
+    static void report(PrintStream out, int top) {
+        // Several calls of the same kind on one line (e.g. autoboxme(100) boxes twice) are reported as one row
+        Map<String, Row> byLine = new HashMap<>();
+        long boxes = 0;
+        long unboxes = 0;
+        synchronized (LOCK) {
+            for (int i = 0; i < count; i++) {
+                long n = counters[i].sum();
+                if (n == 0) continue;
+                Site site = sites[i];
+                byLine.merge(site.className + '.' + site.method + ':' + site.line + ' ' + site.call, new Row(site, n),
+                        (a, b) -> new Row(a.site, a.count + b.count));
+                if (site.call.kind() == BoxingCall.Kind.BOX) boxes += n;
+                else unboxes += n;
+            }
+        }
+        List<Row> rows = new ArrayList<>(byLine.values());
+        rows.sort(Comparator.comparingLong((Row r) -> r.count).reversed());
+        out.println();
+        out.println("Boxing profile: " + boxes + " box and " + unboxes + " unbox events at " + rows.size() + " call sites (per line)");
+        out.printf("%14s  %-28s  %s%n", "count", "call", "site");
+        for (int i = 0; i < Math.min(top, rows.size()); i++) {
+            Row row = rows.get(i);
+            out.printf("%,14d  %-28s  %s.%s:%d%n", row.count, row.site.call.toString(),
+                    row.site.className.replace('/', '.'), row.site.method, row.site.line);
+        }
+        out.flush();
+    }
+
+    private static final class Site {
+
+        final String className;
+        final String method;
+        final int line;
+        final BoxingCall call;
+
+        Site(String className, String method, int line, BoxingCall call) {
+            this.className = className;
+            this.method = method;
+            this.line = line;
+            this.call = call;
+        }
+    }
+
+    private static final class Row {
+
+        final Site site;
+        final long count;
+
+        Row(Site site, long count) {
+            this.site = site;
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.pbe.agent;
+
+import com.pbe.bytecode.BoxingCall;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.lang.instrument.ClassFileTransformer;
+import java.security.ProtectionDomain;
+
+/** Inserts a BoxingSites.hit(id) call in front of every box/unbox call of the classes it transforms.
+ The inserted code only pushes a constant and calls a static method, so it leaves the operand stack
+ as it found it and the existing stack map frames stay valid.
+ */
+final class BoxingTransformer implements ClassFileTransformer {
+
+    private static final String SITES = "com/pbe/agent/BoxingSites";
+
+    private final String[] includes;
+
+    // includes: internal class name prefixes to instrument (e.g. "com/pbe/"), empty means all non-JDK classes
+    BoxingTransformer(String[] includes) {
+        this.includes = includes;
+    }
+
+    // The Module variant, so JDK modules can be told apart from application classes
+    @Override
+    public byte[] transform(Module module, ClassLoader loader, String className, Class<?> classBeingRedefined,
+                            ProtectionDomain protectionDomain, byte[] classfileBuffer) {
+        if (className == null || !shouldInstrument(module, loader, className)) return null;
+        try {
+            ClassReader reader = new ClassReader(classfileBuffer);
+            ClassWriter writer = new ClassWriter(reader, ClassWriter.COMPUTE_MAXS);
+            Instrumenter instrumenter = new Instrumenter(writer, className);
+            reader.accept(instrumenter, 0);
+            return instrumenter.instrumented ? writer.toByteArray() : null;
+        } catch (RuntimeException e) {
+            // Never break the application: an exception here would only be swallowed by the JVM anyway
+            System.err.println("[boxing-agent] could not instrument " + className + ": " + e);
+            return null;
+        }
+    }
+
+    // The name prefixes are only a fast path. Classes of the boot and platform loaders, and of the JDK's named modules
+    // (org/w3c/, org/xml/, org/jcp/xml/dsig/, ... live there too), cannot see BoxingSites: calling it from them would
+    // throw NoClassDefFoundError in the profiled application.
+    private boolean shouldInstrument(Module module, ClassLoader loader, String className) {
+        if (className.startsWith("java/") || className.startsWith("javax/") || className.startsWith("jdk/")
+                || className.startsWith("sun/") || className.startsWith("com/sun/")
+                || className.startsWith("com/pbe/agent/") || className.startsWith("com/pbe/shaded/")) {
+            return false;
+        }
+        if (loader == null || loader == ClassLoader.getPlatformClassLoader() || isJdkModule(module)) return false;
+        if (includes.length == 0) return true;
+        for (String include : includes) {
+            if (className.startsWith(include)) return true;
+        }
+        return false;
+    }
+
+    private static boolean isJdkModule(Module module) {
+        if (module == null || !module.isNamed()) return false;
+        String name = module.getName();
+        return (name.startsWith("java.") || name.startsWith("jdk.")) && ModuleLayer.boot().findModule(name).orElse(null) == module;
+    }
+
+    private static final class Instrumenter extends ClassVisitor {
+
+        private final String className;
+        boolean instrumented;
+
+        Instrumenter(ClassVisitor next, String className) {
+            super(Opcodes.ASM9, next);
+            this.className = className;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+            MethodVisitor next = super.visitMethod(access, name, descriptor, signature, exceptions);
+            return new MethodVisitor(Opcodes.ASM9, next) {
+                private int line = -1;
+
+                @Override
+                public void visitLineNumber(int lineNumber, Label start) {
+                    line = lineNumber;
+                    super.visitLineNumber(lineNumber, start);
+                }
+
+                @Override
+                public void visitMethodInsn(int opcode, String owner, String methodName, String methodDescriptor, boolean isInterface) {
+                    BoxingCall call = BoxingCall.of(owner, methodName, methodDescriptor);
+                    if (call != null) {
+                        super.visitLdcInsn(BoxingSites.register(className, name, line, call));
+                        super.visitMethodInsn(Opcodes.INVOKESTATIC, SITES, "hit", "(I)V", false);
+                        instrumented = true;
+                    }
+                    super.visitMethodInsn(opcode, owner, methodName, methodDescriptor, isInterface);
+                }
+            };
+        }
+    }
+}
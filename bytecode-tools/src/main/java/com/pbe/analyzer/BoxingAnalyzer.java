@@ -0,0 +1,273 @@
+package com.pbe.analyzer;
+
+import com.pbe.bytecode.BoxingCall;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.InsnList;
+import org.objectweb.asm.tree.JumpInsnNode;
+import org.objectweb.asm.tree.LineNumberNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/** Static analyzer that reports hidden boxing in loops and frequently invoked methods.
+ Boxing is often invisible in source: ++iObA unboxes and re-boxes, iObB = iObA + (iObA / 3) unboxes twice and re-boxes,
+ dObA + iObA unboxes and widens. In bytecode every one of these is an explicit valueOf() or xxxValue() call,
+ so the analyzer reads the compiled classes instead of the source.
+ - a loop is the range between a backward jump and its target
+ - a method is hot when it is called inside a loop, from another hot method, or is a lambda body
+ Each finding comes with an estimated cost per execution and a suggested primitive rewrite.
+
+ Usage: java -jar boxing-tools.jar [-all] <classes directory or jar>...
+ -all also reports boxing in straight-line code, such as the examples in Main.
+ */
+public final class BoxingAnalyzer {
+
+    private final List<ClassNode> classes = new ArrayList<>();
+
+    public static void main(String[] args) throws IOException {
+        boolean all = false;
+        BoxingAnalyzer analyzer = new BoxingAnalyzer();
+        for (String arg : args) {
+            if (arg.equals("-all")) all = true;
+            else analyzer.addPath(Paths.get(arg));
+        }
+        if (analyzer.classes.isEmpty()) {
+            System.err.println("Usage: java -jar boxing-tools.jar [-all] <classes directory or jar>...");
+            System.exit(2);
+        }
+        List<Finding> findings = analyzer.analyze(all);
+        for (Finding finding : findings) System.out.println(finding);
+        long boxes = findings.stream().filter(f -> f.call().kind() == BoxingCall.Kind.BOX).count();
+        System.out.println(findings.size() + " findings (" + boxes + " box, " + (findings.size() - boxes) + " unbox) in "
+                + analyzer.classes.size() + " classes");
+    }
+
+    // Adds all classes of a directory tree, a jar, or a single class file
+    public void addPath(Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> files = Files.walk(path)) {
+                files.filter(p -> p.toString().endsWith(".class")).forEach(p -> {
+                    try (InputStream in = Files.newInputStream(p)) {
+                        addClass(in);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        } else if (path.toString().endsWith(".jar")) {
+            try (JarFile jar = new JarFile(path.toFile())) {
+                Enumeration<JarEntry> entries = jar.entries();
+                while (entries.hasMoreElements()) {
+                    JarEntry entry = entries.nextElement();
+                    if (!entry.getName().endsWith(".class") || entry.getName().endsWith("module-info.class")) continue;
+                    try (InputStream in = jar.getInputStream(entry)) {
+                        addClass(in);
+                    }
+                }
+            }
+        } else {
+            try (InputStream in = Files.newInputStream(path)) {
+                addClass(in);
+            }
+        }
+    }
+
+    public void addClass(InputStream classFile) throws IOException {
+        ClassNode node = new ClassNode();
+        new ClassReader(classFile).accept(node, ClassReader.SKIP_FRAMES);
+        classes.add(node);
+    }
+
+    // Returns the findings, most expensive first. With all == false only loops and hot methods are reported.
+    public List<Finding> analyze(boolean all) {
+        Set<String> hot = hotMethods();
+        List<Finding> findings = new ArrayList<>();
+        for (ClassNode owner : classes) {
+            for (MethodNode method : owner.methods) {
+                boolean hotMethod = hot.contains(key(owner.name, method.name, method.desc));
+                int[] depth = loopDepths(method.instructions);
+                int line = -1;
+                for (AbstractInsnNode insn = method.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+                    if (insn instanceof LineNumberNode) {
+                        line = ((LineNumberNode) insn).line;
+                        continue;
+                    }
+                    if (!(insn instanceof MethodInsnNode)) continue;
+                    MethodInsnNode call = (MethodInsnNode) insn;
+                    BoxingCall boxing = BoxingCall.of(call.owner, call.name, call.desc);
+                    if (boxing == null) continue;
+                    int loopDepth = depth[method.instructions.indexOf(insn)];
+                    if (!all && loopDepth == 0 && !hotMethod) continue;
+                    findings.add(new Finding(owner.name, method.name, owner.sourceFile, line, boxing,
+                            loopDepth, hotMethod, allocatedBytes(boxing), suggest(boxing, call)));
+                }
+            }
+        }
+        findings.sort(Comparator.comparingInt(Finding::score).reversed()
+                .thenComparing(Finding::className).thenComparingInt(Finding::line));
+        return findings;
+    }
+
+    // Loop nesting depth per instruction index: every backward jump closes a loop starting at its target
+    private static int[] loopDepths(InsnList instructions) {
+        int[] depth = new int[instructions.size()];
+        for (AbstractInsnNode insn = instructions.getFirst(); insn != null; insn = insn.getNext()) {
+            if (!(insn instanceof JumpInsnNode)) continue;
+            int from = instructions.indexOf(insn);
+            int to = instructions.indexOf(((JumpInsnNode) insn).label);
+            if (to > from) continue; // forward jump, not a loop
+            for (int i = to; i <= from; i++) depth[i]++;
+        }
+        return depth;
+    }
+
+    // Methods of the analyzed classes that run often: called in a loop, called from a hot method, or lambda bodies
+    private Set<String> hotMethods() {
+        Set<String> known = new HashSet<>();
+        for (ClassNode owner : classes) {
+            for (MethodNode method : owner.methods) known.add(key(owner.name, method.name, method.desc));
+        }
+        Set<String> hot = new HashSet<>();
+        for (ClassNode owner : classes) {
+            for (MethodNode method : owner.methods) {
+                if (method.name.startsWith("lambda$")) hot.add(key(owner.name, method.name, method.desc));
+                int[] depth = loopDepths(method.instructions);
+                for (AbstractInsnNode insn = method.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+                    if (!(insn instanceof MethodInsnNode) || depth[method.instructions.indexOf(insn)] == 0) continue;
+                    MethodInsnNode call = (MethodInsnNode) insn;
+                    String callee = key(call.owner, call.name, call.desc);
+                    if (known.contains(callee)) hot.add(callee);
+                }
+            }
+        }
+        // Everything called from a hot method is hot as well
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (ClassNode owner : classes) {
+                for (MethodNode method : owner.methods) {
+                    if (!hot.contains(key(owner.name, method.name, method.desc))) continue;
+                    for (AbstractInsnNode insn = method.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+                        if (!(insn instanceof MethodInsnNode)) continue;
+                        MethodInsnNode call = (MethodInsnNode) insn;
+                        String callee = key(call.owner, call.name, call.desc);
+                        if (known.contains(callee) && hot.add(callee)) changed = true;
+                    }
+                }
+            }
+        }
+        return hot;
+    }
+
+    // Wrapper object size with compressed oops; values in a wrapper cache allocate nothing
+    private static int allocatedBytes(BoxingCall call) {
+        if (call.kind() == BoxingCall.Kind.UNBOX) return 0;
+        switch (call.wrapper()) {
+            case "Boolean":
+            case "Byte":
+                return 0; // every value is cached
+            case "Long":
+            case "Double":
+                return 24;
+            default:
+                return 16; // Character, Short, Integer: cached for -128..127 (0..127 for Character) only
+        }
+    }
+
+    private static String suggest(BoxingCall boxing, MethodInsnNode call) {
+        String primitive = boxing.primitive();
+        String wrapper = boxing.wrapper();
+        if (boxing.kind() == BoxingCall.Kind.BOX) {
+            if (isUnboxOf(previous(call), wrapper)) {
+                return "unbox, compute, re-box (++x, x += y or x = x + y on " + article(wrapper) + "): keep the value in " + article(primitive) + " local";
+            }
+            AbstractInsnNode next = next(call);
+            if (next == null) return "use " + primitive + " instead of " + wrapper;
+            switch (next.getOpcode()) {
+                case Opcodes.ASTORE:
+                    return "stored in " + article(wrapper) + " local variable: declare it as " + primitive;
+                case Opcodes.PUTFIELD:
+                case Opcodes.PUTSTATIC:
+                    return "stored in " + article(wrapper) + " field: declare it as " + primitive;
+                case Opcodes.ARETURN:
+                    return "returned as " + wrapper + ": return " + primitive + " instead";
+                case Opcodes.INVOKEINTERFACE:
+                case Opcodes.INVOKEVIRTUAL:
+                case Opcodes.INVOKESTATIC:
+                case Opcodes.INVOKESPECIAL:
+                    MethodInsnNode target = (MethodInsnNode) next;
+                    if (target.owner.startsWith("java/util/")) {
+                        return "boxed into " + target.owner.replace('/', '.') + "." + target.name
+                                + "(): use a primitive collection from com.pbe.collections";
+                    }
+                    return "passed as " + wrapper + " to " + target.name + "(): add " + article(primitive) + " overload";
+                default:
+                    return "use " + primitive + " instead of " + wrapper;
+            }
+        }
+        AbstractInsnNode previous = previous(call);
+        if (previous != null && previous.getOpcode() == Opcodes.CHECKCAST) {
+            return "element of a boxed collection: use a primitive collection from com.pbe.collections";
+        }
+        if (previous != null && (previous.getOpcode() == Opcodes.GETFIELD || previous.getOpcode() == Opcodes.GETSTATIC)) {
+            return "read from " + article(wrapper) + " field: declare it as " + primitive + " or read it once before the loop";
+        }
+        if (previous != null && previous.getOpcode() == Opcodes.ALOAD) {
+            return "read from " + article(wrapper) + " local variable: declare it as " + primitive + " or unbox once before the loop";
+        }
+        return "obtain " + article(primitive) + " directly instead of unboxing " + article(wrapper);
+    }
+
+    private static boolean isUnboxOf(AbstractInsnNode insn, String wrapper) {
+        // Skip the arithmetic and conversions between the unbox and the re-box, e.g. ICONST_1 IADD for ++x
+        while (insn != null && insn.getOpcode() >= Opcodes.ICONST_M1 && insn.getOpcode() <= Opcodes.I2S) {
+            if (insn.getOpcode() >= Opcodes.ILOAD && insn.getOpcode() <= Opcodes.SASTORE) return false;
+            insn = previous(insn);
+        }
+        if (!(insn instanceof MethodInsnNode)) return false;
+        MethodInsnNode call = (MethodInsnNode) insn;
+        BoxingCall boxing = BoxingCall.of(call.owner, call.name, call.desc);
+        return boxing != null && boxing.kind() == BoxingCall.Kind.UNBOX && boxing.wrapper().equals(wrapper);
+    }
+
+    // Previous and next real instruction, skipping labels, line numbers and frames
+    private static AbstractInsnNode previous(AbstractInsnNode insn) {
+        do {
+            insn = insn.getPrevious();
+        } while (insn != null && insn.getOpcode() < 0);
+        return insn;
+    }
+
+    private static AbstractInsnNode next(AbstractInsnNode insn) {
+        do {
+            insn = insn.getNext();
+        } while (insn != null && insn.getOpcode() < 0);
+        return insn;
+    }
+
+    private static String article(String word) {
+        return ("AEIOUaeiou".indexOf(word.charAt(0)) >= 0 ? "an " : "a ") + word;
+    }
+
+    private static String key(String owner, String name, String descriptor) {
+        return owner + '.' + name + descriptor;
+    }
+}
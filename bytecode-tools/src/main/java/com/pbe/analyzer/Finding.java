@@ -0,0 +1,91 @@
+package com.pbe.analyzer;
+
+import com.pbe.bytecode.BoxingCall;
+
+/** One implicit box or unbox call found by the BoxingAnalyzer.
+ */
+public final class Finding {
+
+    private final String className;
+    private final String method;
+    private final String sourceFile;
+    private final int line;
+    private final BoxingCall call;
+    private final int loopDepth;
+    private final boolean hotMethod;
+    private final int bytes;
+    private final String suggestion;
+
+    Finding(String className, String method, String sourceFile, int line, BoxingCall call,
+            int loopDepth, boolean hotMethod, int bytes, String suggestion) {
+        this.className = className;
+        this.method = method;
+        this.sourceFile = sourceFile;
+        this.line = line;
+        this.call = call;
+        this.loopDepth = loopDepth;
+        this.hotMethod = hotMethod;
+        this.bytes = bytes;
+        this.suggestion = suggestion;
+    }
+
+    // Internal class name, e.g. com/pbe/Main
+    public String className() {
+        return className;
+    }
+
+    public String method() {
+        return method;
+    }
+
+    public int line() {
+        return line;
+    }
+
+    public BoxingCall call() {
+        return call;
+    }
+
+    // Number of loops around the call in its method, 0 when not in a loop
+    public int loopDepth() {
+        return loopDepth;
+    }
+
+    // Whether the method is itself called from a loop, directly or through other such methods, or is a lambda body
+    public boolean hotMethod() {
+        return hotMethod;
+    }
+
+    // Estimated bytes allocated per execution; 0 for unboxing and for values always taken from a wrapper cache
+    public int bytes() {
+        return bytes;
+    }
+
+    public String suggestion() {
+        return suggestion;
+    }
+
+    // Ranking used by the report: allocating calls in deeply nested loops first
+    int score() {
+        int weight = call.kind() == BoxingCall.Kind.BOX ? Math.max(1, bytes) : 1;
+        int depth = loopDepth + (hotMethod ? 1 : 0);
+        return weight * (depth == 0 ? 1 : (int) Math.pow(10, Math.min(depth, 6)));
+    }
+
+    // Estimated cost per execution, in words: allocation is the expensive part, unboxing costs a load and a null check
+    String cost() {
+        if (call.kind() == BoxingCall.Kind.UNBOX) return "~1 ns (load + null check)";
+        if (bytes == 0) return "~1 ns (cached wrapper)";
+        return "up to " + bytes + " B + ~5-10 ns incl. GC";
+    }
+
+    @Override
+    public String toString() {
+        String where = className.replace('/', '.') + '.' + method
+                + '(' + (sourceFile == null ? "?" : sourceFile) + ':' + (line < 0 ? "?" : line) + ')';
+        String context = loopDepth > 0 ? "loop depth " + loopDepth + (hotMethod ? ", hot method" : "")
+                : hotMethod ? "hot method" : "straight-line code";
+        return where + "  [" + context + "]  " + call + "  " + cost() + System.lineSeparator()
+                + "    -> " + suggestion;
+    }
+}
@@ -0,0 +1,108 @@
+package com.pbe.bytecode;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/** A method call the compiler emits for autoboxing or auto-unboxing.
+ Autoboxing is compiled into a call to the static valueOf() of the wrapper class, e.g. Integer.valueOf(int),
+ and auto-unboxing into a call to one of its xxxValue() methods, e.g. Integer.intValue().
+ Manual boxing and unboxing, as in the first example of Main, compile to exactly the same calls,
+ so at bytecode level both are recognized the same way.
+ */
+public final class BoxingCall {
+
+    public enum Kind { BOX, UNBOX }
+
+    private static final Map<String, BoxingCall> CALLS = new HashMap<>();
+
+    static {
+        // wrapper class, primitive type name, primitive type descriptor
+        String[][] wrappers = {
+                {"Boolean", "boolean", "Z"},
+                {"Character", "char", "C"},
+                {"Byte", "byte", "B"},
+                {"Short", "short", "S"},
+                {"Integer", "int", "I"},
+                {"Long", "long", "J"},
+                {"Float", "float", "F"},
+                {"Double", "double", "D"},
+        };
+        for (String[] w : wrappers) {
+            String owner = "java/lang/" + w[0];
+            register(new BoxingCall(Kind.BOX, owner, "valueOf", "(" + w[2] + ")L" + owner + ";", w[0], w[1]));
+        }
+        register(new BoxingCall(Kind.UNBOX, "java/lang/Boolean", "booleanValue", "()Z", "Boolean", "boolean"));
+        register(new BoxingCall(Kind.UNBOX, "java/lang/Character", "charValue", "()C", "Character", "char"));
+        // Every numeric wrapper offers all six numeric xxxValue() methods, see the byteValue() example in Main.
+        // Only the wrappers count as owners: the compiler unboxes a value whose static type is a wrapper and names
+        // that wrapper, while a call on java/lang/Number is an ordinary conversion of BigDecimal, AtomicLong, ...
+        for (int w = 2; w < wrappers.length; w++) {
+            String number = wrappers[w][0];
+            for (int i = 2; i < wrappers.length; i++) {
+                String primitive = wrappers[i][1];
+                register(new BoxingCall(Kind.UNBOX, "java/lang/" + number, primitive + "Value", "()" + wrappers[i][2], number, primitive));
+            }
+        }
+    }
+
+    private final Kind kind;
+    private final String owner;
+    private final String name;
+    private final String descriptor;
+    private final String wrapper;
+    private final String primitive;
+
+    private BoxingCall(Kind kind, String owner, String name, String descriptor, String wrapper, String primitive) {
+        this.kind = kind;
+        this.owner = owner;
+        this.name = name;
+        this.descriptor = descriptor;
+        this.wrapper = wrapper;
+        this.primitive = primitive;
+    }
+
+    // Returns the boxing call for a method instruction, or null if the instruction is not one
+    public static BoxingCall of(String owner, String name, String descriptor) {
+        if (!owner.startsWith("java/lang/")) return null;
+        return CALLS.get(key(owner, name, descriptor));
+    }
+
+    public Kind kind() {
+        return kind;
+    }
+
+    public String owner() {
+        return owner;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String descriptor() {
+        return descriptor;
+    }
+
+    // Simple name of the wrapper class, e.g. Integer
+    public String wrapper() {
+        return wrapper;
+    }
+
+    // Name of the primitive type boxed from or unboxed to, e.g. int
+    public String primitive() {
+        return primitive;
+    }
+
+    @Override
+    public String toString() {
+        return kind == Kind.BOX ? wrapper + ".valueOf(" + primitive + ")" : wrapper + "." + name + "()";
+    }
+
+    private static void register(BoxingCall call) {
+        CALLS.put(key(call.owner, call.name, call.descriptor), call);
+    }
+
+    private static String key(String owner, String name, String descriptor) {
+        return owner + '.' + name + descriptor;
+    }
+}
@@ -1,5 +1,6 @@
 package com.pbe;
 
+import com.pbe.metrics.BoxingRegion;
 import org.w3c.dom.ls.LSOutput;
 
 /** Study on Autoboxing
@@ -67,38 +68,51 @@ public class Main {
 
     public static void main(String[] args) {
 
+        // Each section runs in a BoxingRegion, a JFR event with the bytes the section allocated, see com.pbe.metrics.
+        // Its box count is bytes / 16 and is dominated by the string concatenation for System.out.println (in the first
+        // section also by bootstrapping that concatenation), not by the few wrappers of the example;
+        // MainBenchmark with -prof gc measures those.
+
         // **********************
         // Example of type wrapper
         // **********************
         // Converting an int value into an Integer object
-        System.out.println("Type wrapper example");
-        int a = 10; // setting an int value
+        int a; // used by the next section too
+        Integer iOb;
+        try (BoxingRegion region = BoxingRegion.enter("type wrapper")) {
+            System.out.println("Type wrapper example");
+            a = 10; // setting an int value
 
-        Integer iOb = Integer.valueOf(a); // encapsulating the int value (=boxing) into an Integer object wrapper
-        System.out.println("iOb value = " + iOb.intValue()); // displaying iOb value
+            iOb = Integer.valueOf(a); // encapsulating the int value (=boxing) into an Integer object wrapper
+            System.out.println("iOb value = " + iOb.intValue()); // displaying iOb value
 
-        int b = iOb.intValue(); // storing iOb Integer value as int, essentially extracting the value from the wrapper (=unboxing)
-        System.out.println("int b value = " + b + "\n"); // displaying int value
+            int b = iOb.intValue(); // storing iOb Integer value as int, essentially extracting the value from the wrapper (=unboxing)
+            System.out.println("int b value = " + b + "\n"); // displaying int value
+        }
 
         // **********************
         // Example of type wrapper, using autoboxing/unboxing
         // **********************
         // Converting an int value into an Integer object
-        System.out.println("Type wrapper example, using autoboxing/unboxing");
-        int a2 = 10; // setting an int value
+        try (BoxingRegion region = BoxingRegion.enter("autoboxing")) {
+            System.out.println("Type wrapper example, using autoboxing/unboxing");
+            int a2 = 10; // setting an int value
 
-        Integer iOb2 = a; // autoboxing - encapsulating the int value into an Integer object wrapper
-        System.out.println("iOb value = " + iOb); // displaying iOb value
+            Integer iOb2 = a; // autoboxing - encapsulating the int value into an Integer object wrapper
+            System.out.println("iOb value = " + iOb); // displaying iOb value
 
-        int b2 = iOb; // auto-unboxing - storing iOb Integer value as int
-        System.out.println("int b value = " + b2 + "\n"); // displaying int value
+            int b2 = iOb; // auto-unboxing - storing iOb Integer value as int
+            System.out.println("int b value = " + b2 + "\n"); // displaying int value
+        }
 
         // **********************
         // Example of autoboxing/unboxing in method parameters and return value
         // **********************
-        System.out.println("Autoboxing/unboxing in method parameters and return value");
-        Integer iOb3 = autoboxme(100); // pass an int value to autoboxme() and assign the returned value to an Integer object, autoboxing it
-        System.out.println(iOb3 + "\n");  //
+        try (BoxingRegion region = BoxingRegion.enter("method parameters")) {
+            System.out.println("Autoboxing/unboxing in method parameters and return value");
+            Integer iOb3 = autoboxme(100); // pass an int value to autoboxme() and assign the returned value to an Integer object, autoboxing it
+            System.out.println(iOb3 + "\n");  //
+        }
 
 
         // **********************
@@ -106,60 +120,68 @@ public class Main {
         // **********************
         // Autoboxing takes places whenever a conversion into an object or from an object is required.
         // This includes expressions, where for example a numeric object is automatically unboxed and the outcome of the expression is re-boxed, if needed.
-        System.out.println("Autoboxing/unboxing occurring in expressions");
-        Integer iObA, iObB;
+        Integer iObA, iObB; // used by the sections below too
         int x;
+        try (BoxingRegion region = BoxingRegion.enter("expressions")) {
+            System.out.println("Autoboxing/unboxing occurring in expressions");
 
-        iObA = 10;
-        System.out.println("Original value iObA is: " + iObA);
+            iObA = 10;
+            System.out.println("Original value iObA is: " + iObA);
 
-        ++iObA; // resulting in automatic unboxing of iOb4, incrementing, and re-boxing back into iOb4
-        System.out.println("After ++iObA, it's value now is: " + iObA);
+            ++iObA; // resulting in automatic unboxing of iOb4, incrementing, and re-boxing back into iOb4
+            System.out.println("After ++iObA, it's value now is: " + iObA);
 
-        iObB = iObA + (iObA / 3);
-        System.out.println("iObB's value after the expression is: " + iObB);
+            iObB = iObA + (iObA / 3);
+            System.out.println("iObB's value after the expression is: " + iObB);
 
-        x = iObA + (iObA / 3);
-        System.out.println("x after expression: " + x + "\n");
+            x = iObA + (iObA / 3);
+            System.out.println("x after expression: " + x + "\n");
+        }
 
         // **********************
         // Example of standard type promotions and conversions applies with autoboxing
         // **********************
         // Autoboxing allows different types of numeric objects in an expression to be mixed
-        System.out.println("Example of autoboxing type promotions and conversions applied");
-        iObA = 100;
-        double dObA = 97.97;
-        System.out.println("dObA is: " + dObA);
-        dObA = dObA + iObA; // Double object dObA and Integer object iObA are used in the same expression, with the result re-boxed and stored in dObA
-        System.out.println("dObA is: " + dObA + "\n");
+        try (BoxingRegion region = BoxingRegion.enter("promotions")) {
+            System.out.println("Example of autoboxing type promotions and conversions applied");
+            iObA = 100;
+            double dObA = 97.97;
+            System.out.println("dObA is: " + dObA);
+            dObA = dObA + iObA; // Double object dObA and Integer object iObA are used in the same expression, with the result re-boxed and stored in dObA
+            System.out.println("dObA is: " + dObA + "\n");
+        }
 
         // **********************
         // Example of using an Integer object in a switch statement
         // **********************
         // Because of auto-unboxing, an Integer object can be used to control a switch statement
-        System.out.println("Example of integer object used to control a switch statement");
-        iObA = 2;
-        switch(iObA) { // switch statement is evaluated, iObA unboxed and its int value obtained
-            case 1:
-                System.out.println("one");
-                break;
-            case 2:
-                System.out.println("two");
-                break;
-            default:
-                System.out.println("not my day");
+        try (BoxingRegion region = BoxingRegion.enter("switch")) {
+            System.out.println("Example of integer object used to control a switch statement");
+            iObA = 2;
+            switch(iObA) { // switch statement is evaluated, iObA unboxed and its int value obtained
+                case 1:
+                    System.out.println("one");
+                    break;
+                case 2:
+                    System.out.println("two");
+                    break;
+                default:
+                    System.out.println("not my day");
+            }
+            System.out.println();
         }
-        System.out.println();
 
         // **********************
         // Autoboxing/unboxing Boolean & Character values
         // **********************
-        System.out.println("Example of autoboxing/unboxing Boolean & Character values");
-        Boolean checkA = true;
-        if(checkA) System.out.println("checkA is true");
-        Character ch = 'a'; // box a char - note to use '' and not "" or a String will be expected
-        char ch2 = ch; // unbox a char
-        System.out.println("ch2 is " + ch2);
+        try (BoxingRegion region = BoxingRegion.enter("boolean and character")) {
+            System.out.println("Example of autoboxing/unboxing Boolean & Character values");
+            Boolean checkA = true;
+            if(checkA) System.out.println("checkA is true");
+            Character ch = 'a'; // box a char - note to use '' and not "" or a String will be expected
+            char ch2 = ch; // unbox a char
+            System.out.println("ch2 is " + ch2);
+        }
 
         // **********************
         // Example of autoboxing/unboxing helping prevent errors
@@ -167,10 +189,12 @@ public class Main {
         // Autoboxing always creates a proper object and auto-unboxing always produces a proper value.
         // The process will not produce the wrong type of object or value.
         // If absolutely needed, it's still possible to manually box and unbox values.
-        System.out.println("Example of autoboxing/unboxing Boolean helping prevent error");
-        iObA = 500; // autobox value 500
-        x = iObA.byteValue(); // manually unbox as byte, which will truncate the value stored in iObA, resulting in a garbage value being assigned to x
-        System.out.println(x); // does not display 500
+        try (BoxingRegion region = BoxingRegion.enter("preventing errors")) {
+            System.out.println("Example of autoboxing/unboxing Boolean helping prevent error");
+            iObA = 500; // autobox value 500
+            x = iObA.byteValue(); // manually unbox as byte, which will truncate the value stored in iObA, resulting in a garbage value being assigned to x
+            System.out.println(x); // does not display 500
+        }
     }
 
     // **********************
@@ -178,7 +202,8 @@ public class Main {
     // **********************
 
     // Autoboxes receives value to Integer
-    static int autoboxme(Integer x) {
+    // Public so the benchmarks module can measure the exact method used in the example
+    public static int autoboxme(Integer x) {
         return x;
     }
 }
\ No newline at end of file
@@ -0,0 +1,148 @@
+package com.pbe.cache;
+
+/** Cache of wrapper objects for a configurable range of values.
+ Integer.valueOf(int), and so autoboxing, only returns cached objects for -128..127 (the JDK cache).
+ Every other value allocates a new Integer. When the values boxed in a workload fall into a known range,
+ for example IDs and counters in 0..65535, this cache hands out one shared wrapper per value instead.
+ Inside -128..127 the JDK cached objects are returned, so identity stays the same as with valueOf().
+ Outside the configured range it falls back to the regular valueOf() of the wrapper class.
+
+ A cache is either pre-populated (all wrappers created up front) or lazily populated (created on first use).
+ The lazy variant may, when two threads box the same value for the first time, create two equal wrappers;
+ only one of them ends up in the cache. Wrappers are immutable, so this is harmless except for identity (==),
+ which must never be relied upon for wrapper objects anyway.
+
+ Example, replacing autoboxing in autoboxme(100):
+ BoxCache cache = BoxCache.preloaded(0, 65535);
+ int result = autoboxme(cache.valueOf(100));
+ */
+public final class BoxCache {
+
+    // System properties read by shared(), e.g. -Dcom.pbe.cache.BoxCache.high=1048575
+    public static final String LOW_PROPERTY = "com.pbe.cache.BoxCache.low";
+    public static final String HIGH_PROPERTY = "com.pbe.cache.BoxCache.high";
+    public static final String PRELOAD_PROPERTY = "com.pbe.cache.BoxCache.preload";
+
+    public static final int DEFAULT_LOW = -128;
+    public static final int DEFAULT_HIGH = 65535;
+
+    private final int low;
+    private final int high;
+    private final boolean preloaded;
+
+    private final Integer[] integers;
+    private final Long[] longs;
+    private final Short[] shorts;
+    private final Character[] characters;
+
+    private BoxCache(int low, int high, boolean preload) {
+        if (low > high) throw new IllegalArgumentException("Empty range: " + low + ".." + high);
+        if ((long) high - low + 1 > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("Range too large: " + low + ".." + high);
+        this.low = low;
+        this.high = high;
+        this.preloaded = preload;
+        int length = high - low + 1;
+        integers = new Integer[length];
+        longs = new Long[length];
+        // short and char wrappers are only cached for the part of the range their type can hold
+        shorts = new Short[rangeLength(Short.MIN_VALUE, Short.MAX_VALUE)];
+        characters = new Character[rangeLength(Character.MIN_VALUE, Character.MAX_VALUE)];
+        if (preload) {
+            for (int i = 0; i < length; i++) {
+                integers[i] = Integer.valueOf(low + i);
+                longs[i] = Long.valueOf(low + i);
+            }
+            for (int i = 0; i < shorts.length; i++) shorts[i] = Short.valueOf((short) (Math.max(low, Short.MIN_VALUE) + i));
+            for (int i = 0; i < characters.length; i++) characters[i] = Character.valueOf((char) (Math.max(low, Character.MIN_VALUE) + i));
+        }
+    }
+
+    // A cache with all wrappers for low..high created up front
+    public static BoxCache preloaded(int low, int high) {
+        return new BoxCache(low, high, true);
+    }
+
+    // A cache that creates the wrapper for a value in low..high the first time it is requested
+    public static BoxCache lazy(int low, int high) {
+        return new BoxCache(low, high, false);
+    }
+
+    // Process-wide cache, configured by the system properties above (default: lazy, -128..65535)
+    public static BoxCache shared() {
+        return Shared.INSTANCE;
+    }
+
+    public int low() {
+        return low;
+    }
+
+    public int high() {
+        return high;
+    }
+
+    public boolean isPreloaded() {
+        return preloaded;
+    }
+
+    public Integer valueOf(int value) {
+        if (value < low || value > high) return Integer.valueOf(value);
+        int index = value - low;
+        Integer cached = integers[index];
+        if (cached == null) {
+            cached = Integer.valueOf(value);
+            integers[index] = cached;
+        }
+        return cached;
+    }
+
+    public Long valueOf(long value) {
+        if (value < low || value > high) return Long.valueOf(value);
+        int index = (int) (value - low);
+        Long cached = longs[index];
+        if (cached == null) {
+            cached = Long.valueOf(value);
+            longs[index] = cached;
+        }
+        return cached;
+    }
+
+    public Short valueOf(short value) {
+        int shortLow = Math.max(low, Short.MIN_VALUE);
+        if (value < shortLow || value > high) return Short.valueOf(value);
+        int index = value - shortLow;
+        Short cached = shorts[index];
+        if (cached == null) {
+            cached = Short.valueOf(value);
+            shorts[index] = cached;
+        }
+        return cached;
+    }
+
+    public Character valueOf(char value) {
+        int charLow = Math.max(low, Character.MIN_VALUE);
+        if (value < charLow || value > high) return Character.valueOf(value);
+        int index = value - charLow;
+        Character cached = characters[index];
+        if (cached == null) {
+            cached = Character.valueOf(value);
+            characters[index] = cached;
+        }
+        return cached;
+    }
+
+    // Number of values of the range low..high that also fit in typeLow..typeHigh
+    private int rangeLength(int typeLow, int typeHigh) {
+        return Math.max(0, Math.min(high, typeHigh) - Math.max(low, typeLow) + 1);
+    }
+
+    private static final class Shared {
+
+        static final BoxCache INSTANCE = create();
+
+        private static BoxCache create() {
+            int low = Integer.getInteger(LOW_PROPERTY, DEFAULT_LOW);
+            int high = Integer.getInteger(HIGH_PROPERTY, DEFAULT_HIGH);
+            return Boolean.getBoolean(PRELOAD_PROPERTY) ? preloaded(low, high) : lazy(low, high);
+        }
+    }
+}
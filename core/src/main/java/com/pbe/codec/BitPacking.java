@@ -0,0 +1,267 @@
+package com.pbe.codec;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/** Packs values of width bits each (after subtracting a base) into little-endian words of a byte[], and back.
+ Full chunks of 256 values use a lane layout: value i of a chunk goes to lane i % LANES, and word k of lane l
+ is stored at word k * LANES + l. Every step of the decoder then does the same shifts on LANES neighbouring
+ words and writes LANES neighbouring values, the layout SIMD bit-unpacking uses (8 int lanes are one 256-bit
+ register), and a loop the JIT can unroll without branching per lane. The values left after the last full chunk
+ are packed one after the other. A chunk takes 32 * width bytes for either type; width 0 takes no bytes at all.
+ */
+final class BitPacking {
+
+    static final int CHUNK = 256;
+    static final int INT_LANES = 8;
+    static final int LONG_LANES = 4;
+
+    private static final VarHandle INTS = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private BitPacking() {
+    }
+
+    static int getInt(byte[] in, int offset) {
+        return (int) INTS.get(in, offset);
+    }
+
+    static void putInt(byte[] out, int offset, int value) {
+        INTS.set(out, offset, value);
+    }
+
+    static long getLong(byte[] in, int offset) {
+        return (long) LONGS.get(in, offset);
+    }
+
+    static void putLong(byte[] out, int offset, long value) {
+        LONGS.set(out, offset, value);
+    }
+
+    // **********************
+    // int
+    // **********************
+
+    // Bits needed for the largest value - base, as an unsigned number
+    static int width(int[] values, int offset, int length, int base) {
+        int bits = 0;
+        for (int i = offset, end = offset + length; i < end; i++) bits |= values[i] - base;
+        return Integer.SIZE - Integer.numberOfLeadingZeros(bits);
+    }
+
+    static long packedIntBytes(int length, int width) {
+        long tailBits = (long) (length % CHUNK) * width;
+        return (long) (length / CHUNK) * 32 * width + (tailBits + 31) / 32 * Integer.BYTES;
+    }
+
+    // Returns the offset after the packed values
+    static int pack(int[] values, int offset, int length, int base, int width, byte[] out, int outOffset) {
+        if (width == 0) return outOffset;
+        int i = offset;
+        int end = offset + length;
+        int pos = outOffset;
+        for (; end - i >= CHUNK; i += CHUNK) pos = packChunk(values, i, base, width, out, pos);
+        return i < end ? packTail(values, i, end - i, base, width, out, pos) : pos;
+    }
+
+    // Returns the offset after the packed values
+    static int unpack(byte[] in, int inOffset, int[] values, int offset, int length, int base, int width) {
+        if (width == 0) {
+            Arrays.fill(values, offset, offset + length, base);
+            return inOffset;
+        }
+        int i = offset;
+        int end = offset + length;
+        int pos = inOffset;
+        for (; end - i >= CHUNK; i += CHUNK) pos = unpackChunk(in, pos, values, i, base, width);
+        return i < end ? unpackTail(in, pos, values, i, end - i, base, width) : pos;
+    }
+
+    private static int packChunk(int[] values, int from, int base, int width, byte[] out, int pos) {
+        int perLane = CHUNK / INT_LANES;
+        for (int l = 0; l < INT_LANES; l++) {
+            int word = 0;
+            int bits = 0;
+            int k = 0;
+            for (int j = 0; j < perLane; j++) {
+                int v = values[from + j * INT_LANES + l] - base;
+                word |= v << bits;
+                bits += width;
+                if (bits >= Integer.SIZE) {
+                    putInt(out, pos + (k++ * INT_LANES + l) * Integer.BYTES, word);
+                    bits -= Integer.SIZE;
+                    word = bits == 0 ? 0 : v >>> (width - bits); // the bits of v that did not fit
+                }
+            }
+        }
+        return pos + width * INT_LANES * Integer.BYTES;
+    }
+
+    private static int unpackChunk(byte[] in, int pos, int[] values, int from, int base, int width) {
+        int mask = width == Integer.SIZE ? -1 : (1 << width) - 1;
+        int perLane = CHUNK / INT_LANES;
+        for (int j = 0, bit = 0; j < perLane; j++, bit += width) {
+            int at = pos + (bit >>> 5) * INT_LANES * Integer.BYTES;
+            int shift = bit & 31;
+            int to = from + j * INT_LANES;
+            if (shift + width <= Integer.SIZE) {
+                for (int l = 0; l < INT_LANES; l++) {
+                    values[to + l] = ((getInt(in, at + l * Integer.BYTES) >>> shift) & mask) + base;
+                }
+            } else { // the value continues in the next word of the lane
+                for (int l = 0; l < INT_LANES; l++) {
+                    int low = getInt(in, at + l * Integer.BYTES) >>> shift;
+                    int high = getInt(in, at + (INT_LANES + l) * Integer.BYTES) << (Integer.SIZE - shift);
+                    values[to + l] = ((low | high) & mask) + base;
+                }
+            }
+        }
+        return pos + width * INT_LANES * Integer.BYTES;
+    }
+
+    private static int packTail(int[] values, int from, int count, int base, int width, byte[] out, int pos) {
+        int word = 0;
+        int bits = 0;
+        for (int i = from, end = from + count; i < end; i++) {
+            int v = values[i] - base;
+            word |= v << bits;
+            bits += width;
+            if (bits >= Integer.SIZE) {
+                putInt(out, pos, word);
+                pos += Integer.BYTES;
+                bits -= Integer.SIZE;
+                word = bits == 0 ? 0 : v >>> (width - bits);
+            }
+        }
+        if (bits > 0) {
+            putInt(out, pos, word);
+            pos += Integer.BYTES;
+        }
+        return pos;
+    }
+
+    private static int unpackTail(byte[] in, int pos, int[] values, int from, int count, int base, int width) {
+        int mask = width == Integer.SIZE ? -1 : (1 << width) - 1;
+        for (int j = 0, bit = 0; j < count; j++, bit += width) {
+            int at = pos + (bit >>> 5) * Integer.BYTES;
+            int shift = bit & 31;
+            int v = getInt(in, at) >>> shift;
+            if (shift + width > Integer.SIZE) v |= getInt(in, at + Integer.BYTES) << (Integer.SIZE - shift);
+            values[from + j] = (v & mask) + base;
+        }
+        return pos + (int) ((count * (long) width + 31) / 32) * Integer.BYTES;
+    }
+
+    // **********************
+    // long
+    // **********************
+
+    static int width(long[] values, int offset, int length, long base) {
+        long bits = 0;
+        for (int i = offset, end = offset + length; i < end; i++) bits |= values[i] - base;
+        return Long.SIZE - Long.numberOfLeadingZeros(bits);
+    }
+
+    static long packedLongBytes(int length, int width) {
+        long tailBits = (long) (length % CHUNK) * width;
+        return (long) (length / CHUNK) * 32 * width + (tailBits + 63) / 64 * Long.BYTES;
+    }
+
+    static int pack(long[] values, int offset, int length, long base, int width, byte[] out, int outOffset) {
+        if (width == 0) return outOffset;
+        int i = offset;
+        int end = offset + length;
+        int pos = outOffset;
+        for (; end - i >= CHUNK; i += CHUNK) pos = packChunk(values, i, base, width, out, pos);
+        return i < end ? packTail(values, i, end - i, base, width, out, pos) : pos;
+    }
+
+    static int unpack(byte[] in, int inOffset, long[] values, int offset, int length, long base, int width) {
+        if (width == 0) {
+            Arrays.fill(values, offset, offset + length, base);
+            return inOffset;
+        }
+        int i = offset;
+        int end = offset + length;
+        int pos = inOffset;
+        for (; end - i >= CHUNK; i += CHUNK) pos = unpackChunk(in, pos, values, i, base, width);
+        return i < end ? unpackTail(in, pos, values, i, end - i, base, width) : pos;
+    }
+
+    private static int packChunk(long[] values, int from, long base, int width, byte[] out, int pos) {
+        int perLane = CHUNK / LONG_LANES;
+        for (int l = 0; l < LONG_LANES; l++) {
+            long word = 0;
+            int bits = 0;
+            int k = 0;
+            for (int j = 0; j < perLane; j++) {
+                long v = values[from + j * LONG_LANES + l] - base;
+                word |= v << bits;
+                bits += width;
+                if (bits >= Long.SIZE) {
+                    putLong(out, pos + (k++ * LONG_LANES + l) * Long.BYTES, word);
+                    bits -= Long.SIZE;
+                    word = bits == 0 ? 0 : v >>> (width - bits);
+                }
+            }
+        }
+        return pos + width * LONG_LANES * Long.BYTES;
+    }
+
+    private static int unpackChunk(byte[] in, int pos, long[] values, int from, long base, int width) {
+        long mask = width == Long.SIZE ? -1L : (1L << width) - 1;
+        int perLane = CHUNK / LONG_LANES;
+        for (int j = 0, bit = 0; j < perLane; j++, bit += width) {
+            int at = pos + (bit >>> 6) * LONG_LANES * Long.BYTES;
+            int shift = bit & 63;
+            int to = from + j * LONG_LANES;
+            if (shift + width <= Long.SIZE) {
+                for (int l = 0; l < LONG_LANES; l++) {
+                    values[to + l] = ((getLong(in, at + l * Long.BYTES) >>> shift) & mask) + base;
+                }
+            } else {
+                for (int l = 0; l < LONG_LANES; l++) {
+                    long low = getLong(in, at + l * Long.BYTES) >>> shift;
+                    long high = getLong(in, at + (LONG_LANES + l) * Long.BYTES) << (Long.SIZE - shift);
+                    values[to + l] = ((low | high) & mask) + base;
+                }
+            }
+        }
+        return pos + width * LONG_LANES * Long.BYTES;
+    }
+
+    private static int packTail(long[] values, int from, int count, long base, int width, byte[] out, int pos) {
+        long word = 0;
+        int bits = 0;
+        for (int i = from, end = from + count; i < end; i++) {
+            long v = values[i] - base;
+            word |= v << bits;
+            bits += width;
+            if (bits >= Long.SIZE) {
+                putLong(out, pos, word);
+                pos += Long.BYTES;
+                bits -= Long.SIZE;
+                word = bits == 0 ? 0 : v >>> (width - bits);
+            }
+        }
+        if (bits > 0) {
+            putLong(out, pos, word);
+            pos += Long.BYTES;
+        }
+        return pos;
+    }
+
+    private static int unpackTail(byte[] in, int pos, long[] values, int from, int count, long base, int width) {
+        long mask = width == Long.SIZE ? -1L : (1L << width) - 1;
+        for (int j = 0, bit = 0; j < count; j++, bit += width) {
+            int at = pos + (bit >>> 6) * Long.BYTES;
+            int shift = bit & 63;
+            long v = getLong(in, at) >>> shift;
+            if (shift + width > Long.SIZE) v |= getLong(in, at + Long.BYTES) << (Long.SIZE - shift);
+            values[from + j] = (v & mask) + base;
+        }
+        return pos + (int) ((count * (long) width + 63) / 64) * Long.BYTES;
+    }
+}
@@ -0,0 +1,198 @@
+package com.pbe.codec;
+
+import java.util.Objects;
+
+/** Codecs for blocks of int values. The values in Main (10, 100, 500) need 4 to 9 bits, yet an int takes 32
+ and an Integer 16 bytes of heap plus a 4 byte reference; these store each value in about the bits it needs:
+ - varint(): zigzag then LEB128, 1 byte for -64..63, 2 bytes up to 8191 in magnitude, at most 5.
+   Adapts to every value by itself, so it suits skewed data with a few large values; decoding branches per byte.
+ - bitPacking(): every value in the bits of the largest (a negative value makes that 32), see BitPacking.
+   Branch-free and the fastest to decode, but one large value widens the whole block.
+ - frameOfReference(): bit-packing of value - min, for values in a narrow range far from zero
+   (prices, sensor readings, ids of one batch).
+ - delta(codec): the differences between neighbouring values, encoded with codec. For sorted or slowly
+   changing values (timestamps, sorted ids), pair it with varint() or frameOfReference().
+ Blocks of a few thousand values work best: a block is the unit of decoding, and bit-packing picks one width per block.
+ */
+public final class IntCodecs {
+
+    private static final IntCodec VARINT = new Varint();
+    private static final IntCodec BIT_PACKING = new Packed(false);
+    private static final IntCodec FRAME_OF_REFERENCE = new Packed(true);
+
+    private IntCodecs() {
+    }
+
+    public static IntCodec varint() {
+        return VARINT;
+    }
+
+    public static IntCodec bitPacking() {
+        return BIT_PACKING;
+    }
+
+    public static IntCodec frameOfReference() {
+        return FRAME_OF_REFERENCE;
+    }
+
+    public static IntCodec delta(IntCodec codec) {
+        return new Delta(Objects.requireNonNull(codec, "codec"));
+    }
+
+    private static int checkedBytes(long bytes) {
+        if (bytes > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("Block too large: " + bytes + " bytes");
+        return (int) bytes;
+    }
+
+    private static final class Varint implements IntCodec {
+
+        @Override
+        public String name() {
+            return "varint";
+        }
+
+        @Override
+        public int maxEncodedBytes(int length) {
+            return checkedBytes(5L * length);
+        }
+
+        @Override
+        public int encode(int[] values, int offset, int length, byte[] out, int outOffset) {
+            Objects.checkFromIndexSize(offset, length, values.length);
+            int pos = outOffset;
+            for (int i = offset, end = offset + length; i < end; i++) {
+                int v = (values[i] << 1) ^ (values[i] >> 31); // zigzag: 0, -1, 1, -2, ... become 0, 1, 2, 3, ...
+                while ((v & ~0x7F) != 0) {
+                    out[pos++] = (byte) (v | 0x80);
+                    v >>>= 7;
+                }
+                out[pos++] = (byte) v;
+            }
+            return pos;
+        }
+
+        @Override
+        public int decode(byte[] in, int inOffset, int[] values, int offset, int length) {
+            Objects.checkFromIndexSize(offset, length, values.length);
+            int pos = inOffset;
+            for (int i = offset, end = offset + length; i < end; i++) {
+                int b = in[pos++];
+                int v = b & 0x7F;
+                for (int shift = 7; b < 0; shift += 7) {
+                    b = in[pos++];
+                    v |= (b & 0x7F) << shift;
+                }
+                values[i] = (v >>> 1) ^ -(v & 1);
+            }
+            return pos;
+        }
+
+        @Override
+        public String toString() {
+            return name();
+        }
+    }
+
+    // Bit-packing of value - base: base 0 for bitPacking(), the minimum of the block for frameOfReference().
+    // Block: [base, 4 bytes, frame of reference only] [width, 1 byte] [packed values]
+    private static final class Packed implements IntCodec {
+
+        private final boolean frameOfReference;
+
+        Packed(boolean frameOfReference) {
+            this.frameOfReference = frameOfReference;
+        }
+
+        @Override
+        public String name() {
+            return frameOfReference ? "frameOfReference" : "bitPacking";
+        }
+
+        @Override
+        public int maxEncodedBytes(int length) {
+            return checkedBytes((frameOfReference ? Integer.BYTES : 0) + 1 + BitPacking.packedIntBytes(length, Integer.SIZE));
+        }
+
+        @Override
+        public int encode(int[] values, int offset, int length, byte[] out, int outOffset) {
+            Objects.checkFromIndexSize(offset, length, values.length);
+            int pos = outOffset;
+            int base = 0;
+            if (frameOfReference) {
+                base = length == 0 ? 0 : Integer.MAX_VALUE;
+                for (int i = offset, end = offset + length; i < end; i++) base = Math.min(base, values[i]);
+                BitPacking.putInt(out, pos, base);
+                pos += Integer.BYTES;
+            }
+            int width = BitPacking.width(values, offset, length, base);
+            out[pos++] = (byte) width;
+            return BitPacking.pack(values, offset, length, base, width, out, pos);
+        }
+
+        @Override
+        public int decode(byte[] in, int inOffset, int[] values, int offset, int length) {
+            Objects.checkFromIndexSize(offset, length, values.length);
+            int pos = inOffset;
+            int base = 0;
+            if (frameOfReference) {
+                base = BitPacking.getInt(in, pos);
+                pos += Integer.BYTES;
+            }
+            int width = in[pos++];
+            return BitPacking.unpack(in, pos, values, offset, length, base, width);
+        }
+
+        @Override
+        public String toString() {
+            return name();
+        }
+    }
+
+    // The first value as is, then the difference of each value to the one before it, encoded with another codec.
+    // The differences wrap, so any ints work. Keeping the first value out of the differences keeps
+    // a large first value from widening the bit-packing of the whole block.
+    // Encoding allocates an int[] for the differences; decoding adds them up in place.
+    private static final class Delta implements IntCodec {
+
+        private final IntCodec codec;
+
+        Delta(IntCodec codec) {
+            this.codec = codec;
+        }
+
+        @Override
+        public String name() {
+            return "delta+" + codec.name();
+        }
+
+        @Override
+        public int maxEncodedBytes(int length) {
+            return checkedBytes((long) Integer.BYTES + codec.maxEncodedBytes(Math.max(0, length - 1)));
+        }
+
+        @Override
+        public int encode(int[] values, int offset, int length, byte[] out, int outOffset) {
+            Objects.checkFromIndexSize(offset, length, values.length);
+            if (length == 0) return outOffset;
+            BitPacking.putInt(out, outOffset, values[offset]);
+            int[] deltas = new int[length - 1];
+            for (int i = 0; i < deltas.length; i++) deltas[i] = values[offset + i + 1] - values[offset + i];
+            return codec.encode(deltas, 0, deltas.length, out, outOffset + Integer.BYTES);
+        }
+
+        @Override
+        public int decode(byte[] in, int inOffset, int[] values, int offset, int length) {
+            Objects.checkFromIndexSize(offset, length, values.length);
+            if (length == 0) return inOffset;
+            values[offset] = BitPacking.getInt(in, inOffset);
+            int pos = codec.decode(in, inOffset + Integer.BYTES, values, offset + 1, length - 1);
+            for (int i = offset + 1, end = offset + length; i < end; i++) values[i] += values[i - 1];
+            return pos;
+        }
+
+        @Override
+        public String toString() {
+            return name();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.pbe.codec;
+
+import java.util.Arrays;
+
+/** Encodes a block of long values into bytes and back; see LongCodecs for the codecs.
+ A block does not record its length: the caller keeps it (a page knows its row count) and passes it to decode.
+ Codecs are stateless and thread-safe. Decoders trust their input: bytes that were not written by the same
+ codec give wrong values or an IndexOutOfBoundsException.
+ */
+public interface LongCodec {
+
+    String name();
+
+    // Most bytes encode can take for length values
+    int maxEncodedBytes(int length);
+
+    // Encodes values[offset, offset + length) into out from outOffset; returns the offset after the encoded block
+    int encode(long[] values, int offset, int length, byte[] out, int outOffset);
+
+    // Decodes length values from in at inOffset into values from offset; returns the offset after the encoded block
+    int decode(byte[] in, int inOffset, long[] values, int offset, int length);
+
+    default byte[] encode(long[] values) {
+        byte[] out = new byte[maxEncodedBytes(values.length)];
+        return Arrays.copyOf(out, encode(values, 0, values.length, out, 0));
+    }
+
+    default long[] decode(byte[] in, int length) {
+        long[] values = new long[length];
+        decode(in, 0, values, 0, length);
+        return values;
+    }
+}
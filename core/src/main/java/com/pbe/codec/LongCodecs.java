@@ -0,0 +1,193 @@
+package com.pbe.codec;
+
+import java.util.Objects;
+
+/** Codecs for blocks of long values, the long counterparts of IntCodecs:
+ - varint(): zigzag then LEB128, 1 byte for -64..63, at most 10
+ - bitPacking(): every value in the bits of the largest (a negative value makes that 64)
+ - frameOfReference(): bit-packing of value - min
+ - delta(codec): the differences between neighbouring values, encoded with codec; with epoch-millisecond
+   timestamps a second apart, delta(frameOfReference()) stores about 7 bits per value instead of 64
+ */
+public final class LongCodecs {
+
+    private static final LongCodec VARINT = new Varint();
+    private static final LongCodec BIT_PACKING = new Packed(false);
+    private static final LongCodec FRAME_OF_REFERENCE = new Packed(true);
+
+    private LongCodecs() {
+    }
+
+    public static LongCodec varint() {
+        return VARINT;
+    }
+
+    public static LongCodec bitPacking() {
+        return BIT_PACKING;
+    }
+
+    public static LongCodec frameOfReference() {
+        return FRAME_OF_REFERENCE;
+    }
+
+    public static LongCodec delta(LongCodec codec) {
+        return new Delta(Objects.requireNonNull(codec, "codec"));
+    }
+
+    private static int checkedBytes(long bytes) {
+        if (bytes > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("Block too large: " + bytes + " bytes");
+        return (int) bytes;
+    }
+
+    private static final class Varint implements LongCodec {
+
+        @Override
+        public String name() {
+            return "varint";
+        }
+
+        @Override
+        public int maxEncodedBytes(int length) {
+            return checkedBytes(10L * length);
+        }
+
+        @Override
+        public int encode(long[] values, int offset, int length, byte[] out, int outOffset) {
+            Objects.checkFromIndexSize(offset, length, values.length);
+            int pos = outOffset;
+            for (int i = offset, end = offset + length; i < end; i++) {
+                long v = (values[i] << 1) ^ (values[i] >> 63); // zigzag: 0, -1, 1, -2, ... become 0, 1, 2, 3, ...
+                while ((v & ~0x7FL) != 0) {
+                    out[pos++] = (byte) (v | 0x80);
+                    v >>>= 7;
+                }
+                out[pos++] = (byte) v;
+            }
+            return pos;
+        }
+
+        @Override
+        public int decode(byte[] in, int inOffset, long[] values, int offset, int length) {
+            Objects.checkFromIndexSize(offset, length, values.length);
+            int pos = inOffset;
+            for (int i = offset, end = offset + length; i < end; i++) {
+                int b = in[pos++];
+                long v = b & 0x7F;
+                for (int shift = 7; b < 0; shift += 7) {
+                    b = in[pos++];
+                    v |= (long) (b & 0x7F) << shift;
+                }
+                values[i] = (v >>> 1) ^ -(v & 1);
+            }
+            return pos;
+        }
+
+        @Override
+        public String toString() {
+            return name();
+        }
+    }
+
+    // Bit-packing of value - base: base 0 for bitPacking(), the minimum of the block for frameOfReference().
+    // Block: [base, 8 bytes, frame of reference only] [width, 1 byte] [packed values]
+    private static final class Packed implements LongCodec {
+
+        private final boolean frameOfReference;
+
+        Packed(boolean frameOfReference) {
+            this.frameOfReference = frameOfReference;
+        }
+
+        @Override
+        public String name() {
+            return frameOfReference ? "frameOfReference" : "bitPacking";
+        }
+
+        @Override
+        public int maxEncodedBytes(int length) {
+            return checkedBytes((frameOfReference ? Long.BYTES : 0) + 1 + BitPacking.packedLongBytes(length, Long.SIZE));
+        }
+
+        @Override
+        public int encode(long[] values, int offset, int length, byte[] out, int outOffset) {
+            Objects.checkFromIndexSize(offset, length, values.length);
+            int pos = outOffset;
+            long base = 0;
+            if (frameOfReference) {
+                base = length == 0 ? 0 : Long.MAX_VALUE;
+                for (int i = offset, end = offset + length; i < end; i++) base = Math.min(base, values[i]);
+                BitPacking.putLong(out, pos, base);
+                pos += Long.BYTES;
+            }
+            int width = BitPacking.width(values, offset, length, base);
+            out[pos++] = (byte) width;
+            return BitPacking.pack(values, offset, length, base, width, out, pos);
+        }
+
+        @Override
+        public int decode(byte[] in, int inOffset, long[] values, int offset, int length) {
+            Objects.checkFromIndexSize(offset, length, values.length);
+            int pos = inOffset;
+            long base = 0;
+            if (frameOfReference) {
+                base = BitPacking.getLong(in, pos);
+                pos += Long.BYTES;
+            }
+            int width = in[pos++];
+            return BitPacking.unpack(in, pos, values, offset, length, base, width);
+        }
+
+        @Override
+        public String toString() {
+            return name();
+        }
+    }
+
+    // The first value as is, then the difference of each value to the one before it, encoded with another codec.
+    // The differences wrap, so any longs work. Keeping the first value out of the differences keeps
+    // a large first value from widening the bit-packing of the whole block.
+    // Encoding allocates a long[] for the differences; decoding adds them up in place.
+    private static final class Delta implements LongCodec {
+
+        private final LongCodec codec;
+
+        Delta(LongCodec codec) {
+            this.codec = codec;
+        }
+
+        @Override
+        public String name() {
+            return "delta+" + codec.name();
+        }
+
+        @Override
+        public int maxEncodedBytes(int length) {
+            return checkedBytes((long) Long.BYTES + codec.maxEncodedBytes(Math.max(0, length - 1)));
+        }
+
+        @Override
+        public int encode(long[] values, int offset, int length, byte[] out, int outOffset) {
+            Objects.checkFromIndexSize(offset, length, values.length);
+            if (length == 0) return outOffset;
+            BitPacking.putLong(out, outOffset, values[offset]);
+            long[] deltas = new long[length - 1];
+            for (int i = 0; i < deltas.length; i++) deltas[i] = values[offset + i + 1] - values[offset + i];
+            return codec.encode(deltas, 0, deltas.length, out, outOffset + Long.BYTES);
+        }
+
+        @Override
+        public int decode(byte[] in, int inOffset, long[] values, int offset, int length) {
+            Objects.checkFromIndexSize(offset, length, values.length);
+            if (length == 0) return inOffset;
+            values[offset] = BitPacking.getLong(in, inOffset);
+            int pos = codec.decode(in, inOffset + Long.BYTES, values, offset + 1, length - 1);
+            for (int i = offset + 1, end = offset + length; i < end; i++) values[i] += values[i - 1];
+            return pos;
+        }
+
+        @Override
+        public String toString() {
+            return name();
+        }
+    }
+}
@@ -0,0 +1,407 @@
+package com.pbe.collections;
+
+import com.pbe.function.CharConsumer;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/** Double-ended queue of char values, stored in a circular char[] whose capacity is a power of two.
+ An ArrayDeque<Character> holds a reference per element, and every char above 127 is boxed into a new Character
+ (Character.valueOf only caches 0..127), so a token buffer or bracket stack of non-ASCII text allocates per char.
+ Here a char costs two bytes and nothing is allocated once the array is large enough.
+ Usable as a queue (addLast/removeFirst), a stack (push/pop) and a text buffer (text(), get(index)).
+ An empty deque has no first or last char, so removeFirst/getFirst and friends throw NoSuchElementException;
+ check isEmpty() first. Use asDeque() when an API asks for a Deque<Character>.
+ */
+public class CharArrayDeque {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private char[] elements;
+    private int head; // index of the first char
+    private int size;
+
+    public CharArrayDeque() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public CharArrayDeque(int initialCapacity) {
+        if (initialCapacity < 0) throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        if (initialCapacity > MAX_CAPACITY) throw new IllegalArgumentException("Capacity too large: " + initialCapacity);
+        elements = new char[Math.max(2, Integer.highestOneBit(Math.max(1, initialCapacity) - 1) << 1)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void addFirst(char c) {
+        if (size == elements.length) grow();
+        head = (head - 1) & (elements.length - 1);
+        elements[head] = c;
+        size++;
+    }
+
+    public void addLast(char c) {
+        if (size == elements.length) grow();
+        elements[(head + size) & (elements.length - 1)] = c;
+        size++;
+    }
+
+    public void addAll(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) addLast(text.charAt(i));
+    }
+
+    public char removeFirst() {
+        if (size == 0) throw new NoSuchElementException("Deque is empty");
+        char c = elements[head];
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        return c;
+    }
+
+    public char removeLast() {
+        if (size == 0) throw new NoSuchElementException("Deque is empty");
+        size--;
+        return elements[(head + size) & (elements.length - 1)];
+    }
+
+    public char getFirst() {
+        if (size == 0) throw new NoSuchElementException("Deque is empty");
+        return elements[head];
+    }
+
+    public char getLast() {
+        if (size == 0) throw new NoSuchElementException("Deque is empty");
+        return elements[(head + size - 1) & (elements.length - 1)];
+    }
+
+    // Stack operations at the front, as in java.util.Deque
+    public void push(char c) {
+        addFirst(c);
+    }
+
+    public char pop() {
+        return removeFirst();
+    }
+
+    // The char at index, counted from the first char
+    public char get(int index) {
+        checkIndex(index);
+        return elements[(head + index) & (elements.length - 1)];
+    }
+
+    // Removes the char at index and returns it, closing the gap from the nearer end
+    public char removeAt(int index) {
+        checkIndex(index);
+        int mask = elements.length - 1;
+        char old = elements[(head + index) & mask];
+        if (index < size / 2) {
+            for (int i = index; i > 0; i--) elements[(head + i) & mask] = elements[(head + i - 1) & mask];
+            head = (head + 1) & mask;
+        } else {
+            for (int i = index; i < size - 1; i++) elements[(head + i) & mask] = elements[(head + i + 1) & mask];
+        }
+        size--;
+        return old;
+    }
+
+    public int indexOf(char c) {
+        for (int i = 0; i < size; i++) {
+            if (elements[(head + i) & (elements.length - 1)] == c) return i;
+        }
+        return -1;
+    }
+
+    public int lastIndexOf(char c) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (elements[(head + i) & (elements.length - 1)] == c) return i;
+        }
+        return -1;
+    }
+
+    public boolean contains(char c) {
+        return indexOf(c) >= 0;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    public void forEach(CharConsumer action) {
+        for (int i = 0; i < size; i++) action.accept(elements[(head + i) & (elements.length - 1)]);
+    }
+
+    public char[] toCharArray() {
+        char[] result = new char[size];
+        int firstPart = Math.min(size, elements.length - head);
+        System.arraycopy(elements, head, result, 0, firstPart);
+        System.arraycopy(elements, 0, result, firstPart, size - firstPart);
+        return result;
+    }
+
+    // The chars from first to last as a String, for instance a finished token
+    public String text() {
+        int firstPart = Math.min(size, elements.length - head);
+        if (firstPart == size) return new String(elements, head, size);
+        return new String(toCharArray());
+    }
+
+    // Deque<Character> view for interop with the Collections Framework, backed by this deque.
+    // Chars are boxed on the way out and unboxed on the way in; null is rejected like ArrayDeque does.
+    public Deque<Character> asDeque() {
+        return new BoxedView();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CharArrayDeque)) return false;
+        CharArrayDeque other = (CharArrayDeque) o;
+        if (size != other.size) return false;
+        for (int i = 0; i < size; i++) {
+            if (get(i) != other.get(i)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (int i = 0; i < size; i++) {
+            result = 31 * result + Character.hashCode(get(i));
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(get(i));
+        }
+        return sb.append(']').toString();
+    }
+
+    // Doubles the array and unwraps the chars to start at index 0
+    private void grow() {
+        if (elements.length == MAX_CAPACITY) throw new IllegalStateException("Deque too large: " + size + " chars");
+        elements = Arrays.copyOf(toCharArray(), elements.length << 1);
+        head = 0;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+
+    private final class BoxedView extends AbstractCollection<Character> implements Deque<Character> {
+
+        private int modCount; // structural changes made through the view, for its iterators
+
+        @Override
+        public void addFirst(Character c) {
+            CharArrayDeque.this.addFirst(c);
+            modCount++;
+        }
+
+        @Override
+        public void addLast(Character c) {
+            CharArrayDeque.this.addLast(c);
+            modCount++;
+        }
+
+        @Override
+        public boolean offerFirst(Character c) {
+            addFirst(c);
+            return true;
+        }
+
+        @Override
+        public boolean offerLast(Character c) {
+            addLast(c);
+            return true;
+        }
+
+        @Override
+        public Character removeFirst() {
+            char c = CharArrayDeque.this.removeFirst();
+            modCount++;
+            return c;
+        }
+
+        @Override
+        public Character removeLast() {
+            char c = CharArrayDeque.this.removeLast();
+            modCount++;
+            return c;
+        }
+
+        @Override
+        public Character pollFirst() {
+            return size == 0 ? null : removeFirst();
+        }
+
+        @Override
+        public Character pollLast() {
+            return size == 0 ? null : removeLast();
+        }
+
+        @Override
+        public Character getFirst() {
+            return CharArrayDeque.this.getFirst();
+        }
+
+        @Override
+        public Character getLast() {
+            return CharArrayDeque.this.getLast();
+        }
+
+        @Override
+        public Character peekFirst() {
+            return size == 0 ? null : CharArrayDeque.this.getFirst();
+        }
+
+        @Override
+        public Character peekLast() {
+            return size == 0 ? null : CharArrayDeque.this.getLast();
+        }
+
+        @Override
+        public boolean removeFirstOccurrence(Object o) {
+            if (!(o instanceof Character)) return false;
+            int index = indexOf((Character) o);
+            if (index < 0) return false;
+            removeAt(index);
+            modCount++;
+            return true;
+        }
+
+        @Override
+        public boolean removeLastOccurrence(Object o) {
+            if (!(o instanceof Character)) return false;
+            int index = lastIndexOf((Character) o);
+            if (index < 0) return false;
+            removeAt(index);
+            modCount++;
+            return true;
+        }
+
+        @Override
+        public boolean add(Character c) {
+            addLast(c);
+            return true;
+        }
+
+        @Override
+        public boolean offer(Character c) {
+            return offerLast(c);
+        }
+
+        @Override
+        public Character remove() {
+            return removeFirst();
+        }
+
+        @Override
+        public Character poll() {
+            return pollFirst();
+        }
+
+        @Override
+        public Character element() {
+            return getFirst();
+        }
+
+        @Override
+        public Character peek() {
+            return peekFirst();
+        }
+
+        @Override
+        public void push(Character c) {
+            addFirst(c);
+        }
+
+        @Override
+        public Character pop() {
+            return removeFirst();
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return removeFirstOccurrence(o);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Character && indexOf((Character) o) >= 0;
+        }
+
+        @Override
+        public void clear() {
+            CharArrayDeque.this.clear();
+            modCount++;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<Character> iterator() {
+            return new ViewIterator(false);
+        }
+
+        @Override
+        public Iterator<Character> descendingIterator() {
+            return new ViewIterator(true);
+        }
+
+        private final class ViewIterator implements Iterator<Character> {
+
+            private final boolean descending;
+            private int remaining = size;
+            private int last = -1; // index of the char returned by the last next(), -1 if it cannot be removed
+            private int expectedModCount = modCount;
+
+            ViewIterator(boolean descending) {
+                this.descending = descending;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public Character next() {
+                if (expectedModCount != modCount) throw new ConcurrentModificationException();
+                if (remaining == 0) throw new NoSuchElementException();
+                remaining--;
+                last = descending ? remaining : size - 1 - remaining;
+                return get(last);
+            }
+
+            @Override
+            public void remove() {
+                if (last < 0) throw new IllegalStateException();
+                if (expectedModCount != modCount) throw new ConcurrentModificationException();
+                removeAt(last);
+                last = -1;
+                expectedModCount = ++modCount;
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.pbe.collections;
+
+import com.pbe.function.CharConsumer;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/** Set of chars as one bit per possible char value: 65536 bits in a long[1024], 8 KB whatever the contents.
+ contains(c) is a shift, a load and a mask, with no hashing and no probing, which makes it
+ the fastest membership test for character classes in a tokenizer (delimiters, identifier chars).
+ Unlike CompactBitSet the size is fixed by the char range, so nothing grows and every char is a valid index.
+ */
+public class CharBitSet {
+
+    private static final int WORDS = (Character.MAX_VALUE + 1) >>> 6;
+
+    private final long[] words = new long[WORDS];
+    private int size;
+
+    public static CharBitSet of(CharSequence chars) {
+        CharBitSet set = new CharBitSet();
+        for (int i = 0; i < chars.length(); i++) set.add(chars.charAt(i));
+        return set;
+    }
+
+    // All chars from (inclusive) to to (inclusive), as in a character class [a-z]
+    public static CharBitSet range(char from, char to) {
+        CharBitSet set = new CharBitSet();
+        set.addRange(from, to);
+        return set;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(char c) {
+        return (words[c >>> 6] & 1L << c) != 0;
+    }
+
+    // Returns true if the char was not in the set yet
+    public boolean add(char c) {
+        long word = words[c >>> 6];
+        long updated = word | 1L << c;
+        if (updated == word) return false;
+        words[c >>> 6] = updated;
+        size++;
+        return true;
+    }
+
+    // Adds the chars from (inclusive) to to (inclusive)
+    public void addRange(char from, char to) {
+        if (to < from) throw new IllegalArgumentException("Empty range: " + (int) from + " > " + (int) to);
+        for (int c = from; c <= to; c++) add((char) c);
+    }
+
+    // Returns true if the char was in the set
+    public boolean remove(char c) {
+        long word = words[c >>> 6];
+        long updated = word & ~(1L << c);
+        if (updated == word) return false;
+        words[c >>> 6] = updated;
+        size--;
+        return true;
+    }
+
+    public void addAll(CharBitSet other) {
+        size = 0;
+        for (int i = 0; i < WORDS; i++) size += Long.bitCount(words[i] |= other.words[i]);
+    }
+
+    public void retainAll(CharBitSet other) {
+        size = 0;
+        for (int i = 0; i < WORDS; i++) size += Long.bitCount(words[i] &= other.words[i]);
+    }
+
+    public void removeAll(CharBitSet other) {
+        size = 0;
+        for (int i = 0; i < WORDS; i++) size += Long.bitCount(words[i] &= ~other.words[i]);
+    }
+
+    public void clear() {
+        Arrays.fill(words, 0);
+        size = 0;
+    }
+
+    // Calls action for every char in the set, in increasing order
+    public void forEach(CharConsumer action) {
+        for (int w = 0; w < WORDS; w++) {
+            long word = words[w];
+            while (word != 0) {
+                action.accept((char) (w * 64 + Long.numberOfTrailingZeros(word)));
+                word &= word - 1;
+            }
+        }
+    }
+
+    public char[] toCharArray() {
+        char[] result = new char[size];
+        int i = 0;
+        for (int c = nextChar(0); c >= 0; c = nextChar(c + 1)) result[i++] = (char) c;
+        return result;
+    }
+
+    // Set<Character> view for interop with the Collections Framework, backed by this set.
+    // contains/add/remove unbox their argument; the iterator boxes and supports remove().
+    public Set<Character> asSet() {
+        return new BoxedView();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        return o instanceof CharBitSet && Arrays.equals(words, ((CharBitSet) o).words);
+    }
+
+    // Sum of the char values, the same as Set<Character>.hashCode() of the same chars
+    @Override
+    public int hashCode() {
+        int h = 0;
+        for (int c = nextChar(0); c >= 0; c = nextChar(c + 1)) h += c;
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        forEach(c -> sb.append(sb.length() > 1 ? ", " : "").append(c));
+        return sb.append(']').toString();
+    }
+
+    // Index of the first char in the set at or after from, or -1 if there is none
+    private int nextChar(int from) {
+        if (from >= Character.MAX_VALUE + 1) return -1;
+        int w = from >>> 6;
+        long word = words[w] & -1L << from;
+        while (word == 0) {
+            if (++w == WORDS) return -1;
+            word = words[w];
+        }
+        return w * 64 + Long.numberOfTrailingZeros(word);
+    }
+
+    private final class BoxedView extends AbstractSet<Character> {
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Character && CharBitSet.this.contains((Character) o);
+        }
+
+        @Override
+        public boolean add(Character c) {
+            return CharBitSet.this.add(c);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return o instanceof Character && CharBitSet.this.remove((Character) o);
+        }
+
+        @Override
+        public void clear() {
+            CharBitSet.this.clear();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<Character> iterator() {
+            return new Iterator<>() {
+                private int next = nextChar(0);
+                private int last = -1;
+
+                @Override
+                public boolean hasNext() {
+                    return next >= 0;
+                }
+
+                @Override
+                public Character next() {
+                    if (next < 0) throw new NoSuchElementException();
+                    last = next;
+                    next = nextChar(last + 1);
+                    return (char) last;
+                }
+
+                @Override
+                public void remove() {
+                    if (last < 0) throw new IllegalStateException();
+                    CharBitSet.this.remove((char) last);
+                    last = -1;
+                }
+            };
+        }
+    }
+}
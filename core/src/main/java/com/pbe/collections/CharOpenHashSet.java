@@ -0,0 +1,262 @@
+package com.pbe.collections;
+
+import com.pbe.function.CharConsumer;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/** Hash set of char values, without Character objects.
+ A HashSet<Character> is a HashMap underneath: a node per element plus the Character itself above 127, and every
+ contains(c) on a char boxes its argument. This set keeps the chars in a char[] with open addressing and linear
+ probing, laid out like IntIntHashMap: the char 0 marks a free slot and is tracked by a flag of its own,
+ and removal shifts later entries back instead of leaving tombstones.
+ For sets that cover much of the char range, or when membership tests dominate, CharBitSet is smaller and faster;
+ this set pays off for a handful of chars scattered over the range, such as the delimiters of a tokenizer.
+ */
+public class CharOpenHashSet {
+
+    public static final int DEFAULT_EXPECTED_SIZE = 16;
+    public static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+    private final float loadFactor;
+
+    private char[] keys;
+    private int mask;
+    private int maxFill;
+    private boolean hasZero;
+    private int size;
+
+    public CharOpenHashSet() {
+        this(DEFAULT_EXPECTED_SIZE, DEFAULT_LOAD_FACTOR);
+    }
+
+    public CharOpenHashSet(int expectedSize) {
+        this(expectedSize, DEFAULT_LOAD_FACTOR);
+    }
+
+    public CharOpenHashSet(int expectedSize, float loadFactor) {
+        if (expectedSize < 0) throw new IllegalArgumentException("Expected size must be non-negative: " + expectedSize);
+        if (!(loadFactor > 0 && loadFactor < 1)) throw new IllegalArgumentException("Load factor must be in (0, 1): " + loadFactor);
+        this.loadFactor = loadFactor;
+        allocate(HashSupport.tableSize(Math.min(expectedSize, Character.MAX_VALUE + 1), loadFactor));
+    }
+
+    public static CharOpenHashSet of(CharSequence chars) {
+        CharOpenHashSet set = new CharOpenHashSet(chars.length());
+        for (int i = 0; i < chars.length(); i++) set.add(chars.charAt(i));
+        return set;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(char c) {
+        if (c == 0) return hasZero;
+        int pos = HashSupport.mix(c) & mask;
+        char k;
+        while ((k = keys[pos]) != 0) {
+            if (k == c) return true;
+            pos = (pos + 1) & mask;
+        }
+        return false;
+    }
+
+    // Returns true if the char was not in the set yet
+    public boolean add(char c) {
+        if (c == 0) {
+            if (hasZero) return false;
+            hasZero = true;
+            size++;
+            return true;
+        }
+        int pos = HashSupport.mix(c) & mask;
+        char k;
+        while ((k = keys[pos]) != 0) {
+            if (k == c) return false;
+            pos = (pos + 1) & mask;
+        }
+        keys[pos] = c;
+        if (++size > maxFill) rehash(keys.length << 1);
+        return true;
+    }
+
+    // Returns true if the char was in the set
+    public boolean remove(char c) {
+        if (c == 0) {
+            if (!hasZero) return false;
+            hasZero = false;
+            size--;
+            return true;
+        }
+        int pos = HashSupport.mix(c) & mask;
+        char k;
+        while ((k = keys[pos]) != 0) {
+            if (k == c) {
+                size--;
+                shiftKeys(pos);
+                return true;
+            }
+            pos = (pos + 1) & mask;
+        }
+        return false;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, (char) 0);
+        hasZero = false;
+        size = 0;
+    }
+
+    // Calls action for every char in the set, in no particular order
+    public void forEach(CharConsumer action) {
+        if (hasZero) action.accept((char) 0);
+        for (char k : keys) {
+            if (k != 0) action.accept(k);
+        }
+    }
+
+    public char[] toCharArray() {
+        char[] result = new char[size];
+        int i = 0;
+        if (hasZero) result[i++] = 0;
+        for (char k : keys) {
+            if (k != 0) result[i++] = k;
+        }
+        return result;
+    }
+
+    // Set<Character> view for interop with the Collections Framework, backed by this set.
+    // contains/add/remove unbox their argument; the iterator boxes, and does not support remove().
+    public Set<Character> asSet() {
+        return new BoxedView();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CharOpenHashSet)) return false;
+        CharOpenHashSet other = (CharOpenHashSet) o;
+        if (size != other.size || hasZero != other.hasZero) return false;
+        for (char k : keys) {
+            if (k != 0 && !other.contains(k)) return false;
+        }
+        return true;
+    }
+
+    // Sum of the char values, the same as Set<Character>.hashCode() of the same chars
+    @Override
+    public int hashCode() {
+        int h = 0;
+        for (char k : keys) h += k;
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        forEach(c -> sb.append(sb.length() > 1 ? ", " : "").append(c));
+        return sb.append(']').toString();
+    }
+
+    // Backward-shift deletion as in IntIntHashMap
+    private void shiftKeys(int pos) {
+        int last;
+        char k;
+        for (;;) {
+            pos = ((last = pos) + 1) & mask;
+            for (;;) {
+                if ((k = keys[pos]) == 0) {
+                    keys[last] = 0;
+                    return;
+                }
+                int slot = HashSupport.mix(k) & mask;
+                if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) break;
+                pos = (pos + 1) & mask;
+            }
+            keys[last] = k;
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new char[capacity];
+        mask = capacity - 1;
+        maxFill = HashSupport.maxFill(capacity, loadFactor);
+    }
+
+    private void rehash(int newCapacity) {
+        char[] oldKeys = keys;
+        allocate(newCapacity);
+        for (char k : oldKeys) {
+            if (k == 0) continue;
+            int pos = HashSupport.mix(k) & mask;
+            while (keys[pos] != 0) pos = (pos + 1) & mask;
+            keys[pos] = k;
+        }
+    }
+
+    private final class BoxedView extends AbstractSet<Character> {
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Character && CharOpenHashSet.this.contains((Character) o);
+        }
+
+        @Override
+        public boolean add(Character c) {
+            return CharOpenHashSet.this.add(c);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return o instanceof Character && CharOpenHashSet.this.remove((Character) o);
+        }
+
+        @Override
+        public void clear() {
+            CharOpenHashSet.this.clear();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        // Slot -1 stands for the char 0; the keys array must not be replaced while iterating
+        @Override
+        public Iterator<Character> iterator() {
+            return new Iterator<>() {
+                private final char[] table = keys;
+                private int slot = hasZero ? -1 : advance(-1);
+
+                @Override
+                public boolean hasNext() {
+                    return slot < table.length;
+                }
+
+                @Override
+                public Character next() {
+                    if (table != keys) throw new ConcurrentModificationException();
+                    if (slot >= table.length) throw new NoSuchElementException();
+                    char c = slot < 0 ? 0 : table[slot];
+                    slot = advance(slot);
+                    return c;
+                }
+
+                private int advance(int from) {
+                    int i = from + 1;
+                    while (i < table.length && table[i] == 0) i++;
+                    return i;
+                }
+            };
+        }
+    }
+}
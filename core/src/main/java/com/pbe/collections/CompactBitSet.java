@@ -0,0 +1,254 @@
+package com.pbe.collections;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.IntConsumer;
+
+/** Growable set of non-negative int indexes, one bit each, stored in a long[].
+ A List<Boolean> of flags holds a reference per flag (4 or 8 bytes; the Boolean objects themselves are the two
+ shared constants), a Map<Integer, Boolean> adds a node and often an Integer per entry. Here a flag costs one bit,
+ and the bulk operations work on 64 flags per step.
+ Much like java.util.BitSet, without its wordsInUse bookkeeping and Serializable baggage, plus a List<Boolean> view.
+ */
+public class CompactBitSet {
+
+    private static final long[] EMPTY = {};
+
+    private long[] words;
+
+    public CompactBitSet() {
+        words = EMPTY;
+    }
+
+    // Sized for bits 0 .. nbits - 1 without growing
+    public CompactBitSet(int nbits) {
+        if (nbits < 0) throw new IllegalArgumentException("Negative number of bits: " + nbits);
+        words = nbits == 0 ? EMPTY : new long[wordIndex(nbits - 1) + 1];
+    }
+
+    public boolean get(int index) {
+        checkIndex(index);
+        int w = wordIndex(index);
+        return w < words.length && (words[w] & 1L << index) != 0;
+    }
+
+    public void set(int index) {
+        checkIndex(index);
+        int w = wordIndex(index);
+        if (w >= words.length) grow(w + 1);
+        words[w] |= 1L << index; // shifts use the low 6 bits of index only
+    }
+
+    public void set(int index, boolean value) {
+        if (value) set(index);
+        else clear(index);
+    }
+
+    // Sets bits from (inclusive) to to (exclusive)
+    public void set(int from, int to) {
+        checkRange(from, to);
+        if (from == to) return;
+        int first = wordIndex(from);
+        int last = wordIndex(to - 1);
+        if (last >= words.length) grow(last + 1);
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (first == last) {
+            words[first] |= firstMask & lastMask;
+            return;
+        }
+        words[first] |= firstMask;
+        Arrays.fill(words, first + 1, last, -1L);
+        words[last] |= lastMask;
+    }
+
+    public void clear(int index) {
+        checkIndex(index);
+        int w = wordIndex(index);
+        if (w < words.length) words[w] &= ~(1L << index);
+    }
+
+    public void flip(int index) {
+        checkIndex(index);
+        int w = wordIndex(index);
+        if (w >= words.length) grow(w + 1);
+        words[w] ^= 1L << index;
+    }
+
+    public void clear() {
+        Arrays.fill(words, 0);
+    }
+
+    // Index of the highest set bit plus one, 0 when no bit is set
+    public int length() {
+        for (int w = words.length - 1; w >= 0; w--) {
+            if (words[w] != 0) return w * 64 + 64 - Long.numberOfLeadingZeros(words[w]);
+        }
+        return 0;
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) return false;
+        }
+        return true;
+    }
+
+    // Number of set bits; Long.bitCount compiles to a single POPCNT instruction
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) count += Long.bitCount(word);
+        return count;
+    }
+
+    // Index of the first set bit at or after from, or -1 if there is none
+    public int nextSetBit(int from) {
+        checkIndex(from);
+        int w = wordIndex(from);
+        if (w >= words.length) return -1;
+        long word = words[w] & -1L << from;
+        while (word == 0) {
+            if (++w == words.length) return -1;
+            word = words[w];
+        }
+        return w * 64 + Long.numberOfTrailingZeros(word);
+    }
+
+    // Index of the first clear bit at or after from; bits beyond the words are all clear
+    public int nextClearBit(int from) {
+        checkIndex(from);
+        int w = wordIndex(from);
+        if (w >= words.length) return from;
+        long word = ~words[w] & -1L << from;
+        while (word == 0) {
+            if (++w == words.length) return w * 64;
+            word = ~words[w];
+        }
+        return w * 64 + Long.numberOfTrailingZeros(word);
+    }
+
+    // Calls action with the index of every set bit, in increasing order
+    public void forEach(IntConsumer action) {
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            while (word != 0) {
+                action.accept(w * 64 + Long.numberOfTrailingZeros(word));
+                word &= word - 1; // clears the lowest set bit
+            }
+        }
+    }
+
+    public void and(CompactBitSet other) {
+        int common = Math.min(words.length, other.words.length);
+        for (int i = 0; i < common; i++) words[i] &= other.words[i];
+        Arrays.fill(words, common, words.length, 0);
+    }
+
+    public void or(CompactBitSet other) {
+        if (other.words.length > words.length) grow(other.words.length);
+        for (int i = 0; i < other.words.length; i++) words[i] |= other.words[i];
+    }
+
+    public void xor(CompactBitSet other) {
+        if (other.words.length > words.length) grow(other.words.length);
+        for (int i = 0; i < other.words.length; i++) words[i] ^= other.words[i];
+    }
+
+    // Clears every bit that is set in other
+    public void andNot(CompactBitSet other) {
+        int common = Math.min(words.length, other.words.length);
+        for (int i = 0; i < common; i++) words[i] &= ~other.words[i];
+    }
+
+    public CompactBitSet copy() {
+        CompactBitSet copy = new CompactBitSet();
+        copy.words = words.clone();
+        return copy;
+    }
+
+    // Fixed-size List<Boolean> view of bits 0 .. size - 1 for interop with the Collections Framework, backed by this set.
+    // get() returns the shared Boolean.TRUE/FALSE, so the view allocates nothing, but each call goes through a Boolean.
+    public List<Boolean> asList(int size) {
+        if (size < 0) throw new IllegalArgumentException("Negative size: " + size);
+        return new BoxedView(size);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CompactBitSet)) return false;
+        long[] a = words;
+        long[] b = ((CompactBitSet) o).words;
+        int common = Math.min(a.length, b.length);
+        if (!Arrays.equals(a, 0, common, b, 0, common)) return false;
+        for (int i = common; i < a.length; i++) {
+            if (a[i] != 0) return false;
+        }
+        for (int i = common; i < b.length; i++) {
+            if (b[i] != 0) return false;
+        }
+        return true;
+    }
+
+    // Same formula as java.util.BitSet; trailing zero words do not count, so that equal sets have equal hash codes
+    @Override
+    public int hashCode() {
+        long h = 1234;
+        for (int i = (length() + 63) >>> 6; --i >= 0; ) h ^= words[i] * (i + 1);
+        return (int) (h >> 32 ^ h);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        forEach(i -> sb.append(sb.length() > 1 ? ", " : "").append(i));
+        return sb.append('}').toString();
+    }
+
+    private void grow(int minWords) {
+        words = Arrays.copyOf(words, Math.max(minWords, words.length + (words.length >> 1)));
+    }
+
+    private static int wordIndex(int index) {
+        return index >>> 6;
+    }
+
+    private static void checkIndex(int index) {
+        if (index < 0) throw new IndexOutOfBoundsException("Negative index: " + index);
+    }
+
+    private static void checkRange(int from, int to) {
+        if (from < 0 || to < from) throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") is invalid");
+    }
+
+    private final class BoxedView extends AbstractList<Boolean> implements RandomAccess {
+
+        private final int size;
+
+        BoxedView(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public Boolean get(int index) {
+            Objects.checkIndex(index, size);
+            return CompactBitSet.this.get(index);
+        }
+
+        @Override
+        public Boolean set(int index, Boolean element) {
+            Objects.checkIndex(index, size);
+            boolean old = CompactBitSet.this.get(index);
+            CompactBitSet.this.set(index, element);
+            return old;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
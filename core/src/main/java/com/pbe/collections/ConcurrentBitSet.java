@@ -0,0 +1,94 @@
+package com.pbe.collections;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/** Fixed-size bit set that threads can update concurrently without locks, stored in an AtomicLongArray.
+ set and clear read the word holding the bit and compare-and-set it with the bit changed, retrying when another
+ thread changed the word in between. They report whether this call changed the bit, so that exactly one of several
+ threads setting the same bit sees true; that makes the set usable to claim work items.
+ Reads are volatile reads of single words: cardinality and nextSetBit see every update that completed before
+ they started, and may or may not see updates running at the same time.
+ The size is fixed because an AtomicLongArray cannot grow in place; use CompactBitSet when one thread owns the set.
+ */
+public class ConcurrentBitSet {
+
+    private final AtomicLongArray words;
+    private final int size;
+
+    public ConcurrentBitSet(int size) {
+        if (size < 0) throw new IllegalArgumentException("Negative size: " + size);
+        this.words = new AtomicLongArray((size + 63) >>> 6);
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean get(int index) {
+        checkIndex(index);
+        return (words.get(index >>> 6) & 1L << index) != 0;
+    }
+
+    // Sets the bit and returns true if it was clear, false if it was already set
+    public boolean set(int index) {
+        checkIndex(index);
+        int w = index >>> 6;
+        long mask = 1L << index;
+        long old = words.get(w);
+        while ((old & mask) == 0) {
+            if (words.compareAndSet(w, old, old | mask)) return true;
+            old = words.get(w);
+        }
+        return false;
+    }
+
+    // Clears the bit and returns true if it was set, false if it was already clear
+    public boolean clear(int index) {
+        checkIndex(index);
+        int w = index >>> 6;
+        long mask = 1L << index;
+        long old = words.get(w);
+        while ((old & mask) != 0) {
+            if (words.compareAndSet(w, old, old & ~mask)) return true;
+            old = words.get(w);
+        }
+        return false;
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (int w = 0; w < words.length(); w++) count += Long.bitCount(words.get(w));
+        return count;
+    }
+
+    // Index of the first set bit at or after from, or -1 if there is none
+    public int nextSetBit(int from) {
+        if (from < 0) throw new IndexOutOfBoundsException("Negative index: " + from);
+        if (from >= size) return -1;
+        int w = from >>> 6;
+        long word = words.get(w) & -1L << from;
+        while (word == 0) {
+            if (++w == words.length()) return -1;
+            word = words.get(w);
+        }
+        return w * 64 + Long.numberOfTrailingZeros(word);
+    }
+
+    // A copy of the current bits; words changed during the copy may be from before or after the change
+    public CompactBitSet snapshot() {
+        CompactBitSet copy = new CompactBitSet(size);
+        for (int w = 0; w < words.length(); w++) {
+            long word = words.get(w);
+            while (word != 0) {
+                copy.set(w * 64 + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return copy;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+}
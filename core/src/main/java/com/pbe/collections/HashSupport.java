@@ -0,0 +1,29 @@
+package com.pbe.collections;
+
+/** Hashing and sizing shared by the open-addressing maps in this package.
+ */
+final class HashSupport {
+
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private HashSupport() {
+    }
+
+    // Spreads the bits of a key so that sequential keys do not form long probe runs
+    static int mix(int key) {
+        int h = key * 0x9E3779B9; // golden ratio constant
+        return h ^ (h >>> 16);
+    }
+
+    // Smallest power of two that holds expectedSize entries without exceeding the load factor
+    static int tableSize(int expectedSize, float loadFactor) {
+        long needed = Math.max(2, (long) Math.ceil(expectedSize / (double) loadFactor));
+        if (needed > MAX_CAPACITY) throw new IllegalArgumentException("Expected size too large: " + expectedSize);
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+    // Number of entries at which a table of the given capacity is grown, always leaving one slot free
+    static int maxFill(int capacity, float loadFactor) {
+        return Math.min((int) Math.ceil(capacity * (double) loadFactor), capacity - 1);
+    }
+}
@@ -0,0 +1,241 @@
+package com.pbe.collections;
+
+import java.util.Arrays;
+
+/** Hash map from int keys to int values, without Integer keys or values.
+ A HashMap<Integer, Integer> boxes every key and value outside -128..127 and adds a node object per entry.
+ This map keeps keys and values in two parallel int[] arrays instead:
+ - open addressing with linear probing, capacity always a power of two
+ - configurable load factor
+ - removal by backward-shift, so no tombstones pile up
+ Key 0 marks a free slot, so an entry with key 0 is kept in one extra slot at the end of the arrays.
+ Absent keys read as the no-entry value, 0 unless configured otherwise.
+ */
+public class IntIntHashMap {
+
+    public static final int DEFAULT_EXPECTED_SIZE = 16;
+    public static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+    private final float loadFactor;
+    private final int noEntryValue;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int capacity; // number of regular slots, the slot at index capacity holds key 0
+    private int maxFill;
+    private boolean hasZeroKey;
+    private int size;
+
+    public IntIntHashMap() {
+        this(DEFAULT_EXPECTED_SIZE, DEFAULT_LOAD_FACTOR, 0);
+    }
+
+    public IntIntHashMap(int expectedSize) {
+        this(expectedSize, DEFAULT_LOAD_FACTOR, 0);
+    }
+
+    public IntIntHashMap(int expectedSize, float loadFactor) {
+        this(expectedSize, loadFactor, 0);
+    }
+
+    public IntIntHashMap(int expectedSize, float loadFactor, int noEntryValue) {
+        if (expectedSize < 0) throw new IllegalArgumentException("Expected size must be non-negative: " + expectedSize);
+        if (!(loadFactor > 0 && loadFactor < 1)) throw new IllegalArgumentException("Load factor must be in (0, 1): " + loadFactor);
+        this.loadFactor = loadFactor;
+        this.noEntryValue = noEntryValue;
+        allocate(HashSupport.tableSize(expectedSize, loadFactor));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int noEntryValue() {
+        return noEntryValue;
+    }
+
+    public boolean containsKey(int key) {
+        if (key == 0) return hasZeroKey;
+        return find(key) >= 0;
+    }
+
+    public int get(int key) {
+        return getOrDefault(key, noEntryValue);
+    }
+
+    public int getOrDefault(int key, int defaultValue) {
+        if (key == 0) return hasZeroKey ? values[capacity] : defaultValue;
+        int pos = find(key);
+        return pos >= 0 ? values[pos] : defaultValue;
+    }
+
+    // Returns the previous value, or the no-entry value if the key was absent
+    public int put(int key, int value) {
+        if (key == 0) {
+            int old = hasZeroKey ? values[capacity] : noEntryValue;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            values[capacity] = value;
+            return old;
+        }
+        int pos = HashSupport.mix(key) & mask;
+        int k;
+        while ((k = keys[pos]) != 0) {
+            if (k == key) {
+                int old = values[pos];
+                values[pos] = value;
+                return old;
+            }
+            pos = (pos + 1) & mask;
+        }
+        keys[pos] = key;
+        values[pos] = value;
+        if (++size > maxFill) rehash(capacity << 1);
+        return noEntryValue;
+    }
+
+    // Adds delta to the value of key, starting from the no-entry value when absent; returns the new value.
+    // The boxing-free counterpart of map.merge(key, delta, Integer::sum).
+    public int addTo(int key, int delta) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+                values[capacity] = noEntryValue;
+            }
+            return values[capacity] += delta;
+        }
+        int pos = HashSupport.mix(key) & mask;
+        int k;
+        while ((k = keys[pos]) != 0) {
+            if (k == key) return values[pos] += delta;
+            pos = (pos + 1) & mask;
+        }
+        keys[pos] = key;
+        int result = values[pos] = noEntryValue + delta;
+        if (++size > maxFill) rehash(capacity << 1);
+        return result;
+    }
+
+    // Returns the removed value, or the no-entry value if the key was absent
+    public int remove(int key) {
+        if (key == 0) {
+            if (!hasZeroKey) return noEntryValue;
+            hasZeroKey = false;
+            size--;
+            return values[capacity];
+        }
+        int pos = find(key);
+        if (pos < 0) return noEntryValue;
+        int old = values[pos];
+        size--;
+        shiftKeys(pos);
+        return old;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        hasZeroKey = false;
+        size = 0;
+    }
+
+    // Cursor over the entries, no Map.Entry objects and no boxing:
+    //   for (IntIntHashMap.Cursor c = map.cursor(); c.advance(); ) { c.key(); c.value(); }
+    // The map must not be modified structurally while a cursor is in use.
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    private int find(int key) {
+        int pos = HashSupport.mix(key) & mask;
+        int k;
+        while ((k = keys[pos]) != 0) {
+            if (k == key) return pos;
+            pos = (pos + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Backward-shift deletion: moves later entries of the same probe run into the freed slot
+    private void shiftKeys(int pos) {
+        int last;
+        int k;
+        for (;;) {
+            pos = ((last = pos) + 1) & mask;
+            for (;;) {
+                if ((k = keys[pos]) == 0) {
+                    keys[last] = 0;
+                    return;
+                }
+                int slot = HashSupport.mix(k) & mask;
+                // The entry at pos may move to last only if its home slot is not cyclically within (last, pos]
+                if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) break;
+                pos = (pos + 1) & mask;
+            }
+            keys[last] = k;
+            values[last] = values[pos];
+        }
+    }
+
+    private void allocate(int newCapacity) {
+        capacity = newCapacity;
+        mask = newCapacity - 1;
+        maxFill = HashSupport.maxFill(newCapacity, loadFactor);
+        keys = new int[newCapacity + 1];
+        values = new int[newCapacity + 1];
+    }
+
+    private void rehash(int newCapacity) {
+        if (newCapacity > HashSupport.MAX_CAPACITY) throw new IllegalStateException("Map too large: " + size + " entries");
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        int oldCapacity = capacity;
+        allocate(newCapacity);
+        for (int i = 0; i < oldCapacity; i++) {
+            int k = oldKeys[i];
+            if (k == 0) continue;
+            int pos = HashSupport.mix(k) & mask;
+            while (keys[pos] != 0) pos = (pos + 1) & mask;
+            keys[pos] = k;
+            values[pos] = oldValues[i];
+        }
+        values[capacity] = oldValues[oldCapacity]; // the entry for key 0, if any
+    }
+
+    public final class Cursor {
+
+        private int index = -1;
+
+        private Cursor() {
+        }
+
+        // Moves to the next entry; returns false when there are no more entries
+        public boolean advance() {
+            while (++index < capacity) {
+                if (keys[index] != 0) return true;
+            }
+            if (index == capacity && hasZeroKey) return true;
+            index = capacity + 1;
+            return false;
+        }
+
+        public int key() {
+            return keys[index];
+        }
+
+        public int value() {
+            return values[index];
+        }
+
+        public void setValue(int value) {
+            values[index] = value;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.pbe.collections;
+
+import java.util.Arrays;
+
+/** Hash map from int keys to object values, without Integer keys.
+ Same layout as IntIntHashMap: open addressing with linear probing, power-of-two capacity,
+ configurable load factor and backward-shift removal. Key 0 is kept in one extra slot at the end.
+ Null values are not allowed, so get() returning null always means the key is absent.
+ */
+public class IntObjectHashMap<V> {
+
+    public static final int DEFAULT_EXPECTED_SIZE = 16;
+    public static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+    private final float loadFactor;
+
+    private int[] keys;
+    private Object[] values;
+    private int mask;
+    private int capacity; // number of regular slots, the slot at index capacity holds key 0
+    private int maxFill;
+    private boolean hasZeroKey;
+    private int size;
+
+    public IntObjectHashMap() {
+        this(DEFAULT_EXPECTED_SIZE, DEFAULT_LOAD_FACTOR);
+    }
+
+    public IntObjectHashMap(int expectedSize) {
+        this(expectedSize, DEFAULT_LOAD_FACTOR);
+    }
+
+    public IntObjectHashMap(int expectedSize, float loadFactor) {
+        if (expectedSize < 0) throw new IllegalArgumentException("Expected size must be non-negative: " + expectedSize);
+        if (!(loadFactor > 0 && loadFactor < 1)) throw new IllegalArgumentException("Load factor must be in (0, 1): " + loadFactor);
+        this.loadFactor = loadFactor;
+        allocate(HashSupport.tableSize(expectedSize, loadFactor));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int key) {
+        if (key == 0) return hasZeroKey;
+        return find(key) >= 0;
+    }
+
+    public V get(int key) {
+        return getOrDefault(key, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(int key, V defaultValue) {
+        if (key == 0) return hasZeroKey ? (V) values[capacity] : defaultValue;
+        int pos = find(key);
+        return pos >= 0 ? (V) values[pos] : defaultValue;
+    }
+
+    // Returns the previous value, or null if the key was absent
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) throw new NullPointerException("Null values are not supported");
+        if (key == 0) {
+            V old = (V) values[capacity];
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            values[capacity] = value;
+            return old;
+        }
+        int pos = HashSupport.mix(key) & mask;
+        int k;
+        while ((k = keys[pos]) != 0) {
+            if (k == key) {
+                V old = (V) values[pos];
+                values[pos] = value;
+                return old;
+            }
+            pos = (pos + 1) & mask;
+        }
+        keys[pos] = key;
+        values[pos] = value;
+        if (++size > maxFill) rehash(capacity << 1);
+        return null;
+    }
+
+    // Returns the removed value, or null if the key was absent
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        if (key == 0) {
+            if (!hasZeroKey) return null;
+            V old = (V) values[capacity];
+            values[capacity] = null;
+            hasZeroKey = false;
+            size--;
+            return old;
+        }
+        int pos = find(key);
+        if (pos < 0) return null;
+        V old = (V) values[pos];
+        size--;
+        shiftKeys(pos);
+        return old;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null); // release the values for garbage collection
+        hasZeroKey = false;
+        size = 0;
+    }
+
+    // Cursor over the entries, no Map.Entry objects and no boxed keys:
+    //   for (IntObjectHashMap.Cursor<V> c = map.cursor(); c.advance(); ) { c.key(); c.value(); }
+    // The map must not be modified structurally while a cursor is in use.
+    public Cursor<V> cursor() {
+        return new Cursor<>(this);
+    }
+
+    private int find(int key) {
+        int pos = HashSupport.mix(key) & mask;
+        int k;
+        while ((k = keys[pos]) != 0) {
+            if (k == key) return pos;
+            pos = (pos + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Backward-shift deletion, see IntIntHashMap
+    private void shiftKeys(int pos) {
+        int last;
+        int k;
+        for (;;) {
+            pos = ((last = pos) + 1) & mask;
+            for (;;) {
+                if ((k = keys[pos]) == 0) {
+                    keys[last] = 0;
+                    values[last] = null;
+                    return;
+                }
+                int slot = HashSupport.mix(k) & mask;
+                if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) break;
+                pos = (pos + 1) & mask;
+            }
+            keys[last] = k;
+            values[last] = values[pos];
+        }
+    }
+
+    private void allocate(int newCapacity) {
+        capacity = newCapacity;
+        mask = newCapacity - 1;
+        maxFill = HashSupport.maxFill(newCapacity, loadFactor);
+        keys = new int[newCapacity + 1];
+        values = new Object[newCapacity + 1];
+    }
+
+    private void rehash(int newCapacity) {
+        if (newCapacity > HashSupport.MAX_CAPACITY) throw new IllegalStateException("Map too large: " + size + " entries");
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        int oldCapacity = capacity;
+        allocate(newCapacity);
+        for (int i = 0; i < oldCapacity; i++) {
+            int k = oldKeys[i];
+            if (k == 0) continue;
+            int pos = HashSupport.mix(k) & mask;
+            while (keys[pos] != 0) pos = (pos + 1) & mask;
+            keys[pos] = k;
+            values[pos] = oldValues[i];
+        }
+        values[capacity] = oldValues[oldCapacity]; // the entry for key 0, if any
+    }
+
+    public static final class Cursor<V> {
+
+        private final IntObjectHashMap<V> map;
+        private int index = -1;
+
+        private Cursor(IntObjectHashMap<V> map) {
+            this.map = map;
+        }
+
+        // Moves to the next entry; returns false when there are no more entries
+        public boolean advance() {
+            while (++index < map.capacity) {
+                if (map.keys[index] != 0) return true;
+            }
+            if (index == map.capacity && map.hasZeroKey) return true;
+            index = map.capacity + 1;
+            return false;
+        }
+
+        public int key() {
+            return map.keys[index];
+        }
+
+        @SuppressWarnings("unchecked")
+        public V value() {
+            return (V) map.values[index];
+        }
+    }
+}
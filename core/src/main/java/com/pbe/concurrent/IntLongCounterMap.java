@@ -0,0 +1,263 @@
+package com.pbe.concurrent;
+
+import com.pbe.function.IntLongConsumer;
+
+import java.util.Arrays;
+
+/** Thread-safe counts per int key, such as events per ID counted from many threads, without Integer keys or values.
+ ConcurrentHashMap<Integer, Integer>.merge(key, 1, Integer::sum) boxes the key, boxes every new count above 127
+ and keeps a node per key. This map splits the keys over a power-of-two number of segments by the high bits of
+ their hash; each segment is an open-addressing table of int keys and long counts (laid out like IntIntHashMap)
+ guarded by its own lock. Threads counting keys in different segments never wait for each other, and
+ an update is a probe into two primitive arrays, with no allocation unless the segment has to grow.
+ Reads (get, sum, forEach) lock one segment at a time, so they see each segment at one moment but
+ not the whole map at one moment.
+ */
+public class IntLongCounterMap {
+
+    public static final int DEFAULT_SEGMENTS = 16;
+
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int MAX_SEGMENT_CAPACITY = 1 << 30;
+
+    private final Segment[] segments;
+    private final int segmentShift;
+
+    public IntLongCounterMap() {
+        this(DEFAULT_SEGMENTS, 16);
+    }
+
+    // segments is rounded up to a power of two; expectedSize is the number of keys expected in the whole map
+    public IntLongCounterMap(int segments, int expectedSize) {
+        if (segments < 1 || segments > 1 << 16) throw new IllegalArgumentException("Segments must be in 1..65536: " + segments);
+        if (expectedSize < 0) throw new IllegalArgumentException("Expected size must be non-negative: " + expectedSize);
+        int count = segments == 1 ? 1 : Integer.highestOneBit(segments - 1) << 1;
+        this.segments = new Segment[count];
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(count);
+        int perSegment = (int) Math.min(MAX_SEGMENT_CAPACITY / 2, (long) expectedSize / count + 1);
+        for (int i = 0; i < count; i++) this.segments[i] = new Segment(perSegment);
+    }
+
+    // Adds one to the count of key and returns the new count
+    public long increment(int key) {
+        return add(key, 1);
+    }
+
+    // Adds delta to the count of key, starting from 0 when absent; returns the new count
+    public long add(int key, long delta) {
+        int h = mix(key);
+        Segment segment = segmentFor(h);
+        synchronized (segment) {
+            return segment.add(key, h, delta);
+        }
+    }
+
+    // The count of key, 0 when it was never counted
+    public long get(int key) {
+        int h = mix(key);
+        Segment segment = segmentFor(h);
+        synchronized (segment) {
+            return segment.get(key, h);
+        }
+    }
+
+    // Removes key and returns its count, 0 when absent
+    public long remove(int key) {
+        int h = mix(key);
+        Segment segment = segmentFor(h);
+        synchronized (segment) {
+            return segment.remove(key, h);
+        }
+    }
+
+    // Number of keys with a count
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size;
+            }
+        }
+        return size;
+    }
+
+    // Sum of all counts
+    public long sum() {
+        long sum = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                sum += segment.sum();
+            }
+        }
+        return sum;
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    // Calls action for every key and count, one segment at a time. The action runs while that segment is locked,
+    // so it must not update this map.
+    public void forEach(IntLongConsumer action) {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.forEach(action);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        forEach((key, count) -> sb.append(sb.length() > 1 ? ", " : "").append(key).append('=').append(count));
+        return sb.append('}').toString();
+    }
+
+    // Spreads the bits of a key; the high bits pick the segment, the low bits the slot within it
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9; // golden ratio constant
+        return h ^ (h >>> 16);
+    }
+
+    private Segment segmentFor(int h) {
+        return segments.length == 1 ? segments[0] : segments[h >>> segmentShift];
+    }
+
+    // One open-addressing table with linear probing. Key 0 marks a free slot and lives in the extra slot at the end.
+    private static final class Segment {
+
+        private int[] keys;
+        private long[] counts;
+        private int mask;
+        private int capacity;
+        private int maxFill;
+        private boolean hasZeroKey;
+        int size;
+
+        Segment(int expectedSize) {
+            allocate(Math.max(2, Integer.highestOneBit((int) Math.ceil(expectedSize / LOAD_FACTOR)) << 1));
+        }
+
+        long add(int key, int h, long delta) {
+            if (key == 0) {
+                if (!hasZeroKey) {
+                    hasZeroKey = true;
+                    size++;
+                    counts[capacity] = 0;
+                }
+                return counts[capacity] += delta;
+            }
+            int pos = h & mask;
+            int k;
+            while ((k = keys[pos]) != 0) {
+                if (k == key) return counts[pos] += delta;
+                pos = (pos + 1) & mask;
+            }
+            keys[pos] = key;
+            counts[pos] = delta;
+            if (++size > maxFill) rehash(capacity << 1);
+            return delta;
+        }
+
+        long get(int key, int h) {
+            if (key == 0) return hasZeroKey ? counts[capacity] : 0;
+            int pos = find(key, h);
+            return pos >= 0 ? counts[pos] : 0;
+        }
+
+        long remove(int key, int h) {
+            if (key == 0) {
+                if (!hasZeroKey) return 0;
+                hasZeroKey = false;
+                size--;
+                return counts[capacity];
+            }
+            int pos = find(key, h);
+            if (pos < 0) return 0;
+            long old = counts[pos];
+            size--;
+            shiftKeys(pos);
+            return old;
+        }
+
+        long sum() {
+            long sum = hasZeroKey ? counts[capacity] : 0;
+            for (int i = 0; i < capacity; i++) {
+                if (keys[i] != 0) sum += counts[i];
+            }
+            return sum;
+        }
+
+        void clear() {
+            Arrays.fill(keys, 0);
+            hasZeroKey = false;
+            size = 0;
+        }
+
+        void forEach(IntLongConsumer action) {
+            if (hasZeroKey) action.accept(0, counts[capacity]);
+            for (int i = 0; i < capacity; i++) {
+                if (keys[i] != 0) action.accept(keys[i], counts[i]);
+            }
+        }
+
+        private int find(int key, int h) {
+            int pos = h & mask;
+            int k;
+            while ((k = keys[pos]) != 0) {
+                if (k == key) return pos;
+                pos = (pos + 1) & mask;
+            }
+            return -1;
+        }
+
+        // Backward-shift deletion as in IntIntHashMap
+        private void shiftKeys(int pos) {
+            int last;
+            int k;
+            for (;;) {
+                pos = ((last = pos) + 1) & mask;
+                for (;;) {
+                    if ((k = keys[pos]) == 0) {
+                        keys[last] = 0;
+                        return;
+                    }
+                    int slot = mix(k) & mask;
+                    if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) break;
+                    pos = (pos + 1) & mask;
+                }
+                keys[last] = k;
+                counts[last] = counts[pos];
+            }
+        }
+
+        private void allocate(int newCapacity) {
+            capacity = newCapacity;
+            mask = newCapacity - 1;
+            maxFill = Math.min((int) Math.ceil(newCapacity * (double) LOAD_FACTOR), newCapacity - 1);
+            keys = new int[newCapacity + 1];
+            counts = new long[newCapacity + 1];
+        }
+
+        private void rehash(int newCapacity) {
+            if (newCapacity > MAX_SEGMENT_CAPACITY) throw new IllegalStateException("Segment too large: " + size + " keys");
+            int[] oldKeys = keys;
+            long[] oldCounts = counts;
+            int oldCapacity = capacity;
+            allocate(newCapacity);
+            for (int i = 0; i < oldCapacity; i++) {
+                int k = oldKeys[i];
+                if (k == 0) continue;
+                int pos = mix(k) & mask;
+                while (keys[pos] != 0) pos = (pos + 1) & mask;
+                keys[pos] = k;
+                counts[pos] = oldCounts[i];
+            }
+            counts[capacity] = oldCounts[oldCapacity]; // the count for key 0, if any
+        }
+    }
+}
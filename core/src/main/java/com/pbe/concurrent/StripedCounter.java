@@ -0,0 +1,112 @@
+package com.pbe.concurrent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/** Counter that many threads can increment at once, spreading the updates over cells like java.util.concurrent.atomic.LongAdder.
+ ++iObA on a shared Integer field is three steps (unbox, add, box a new Integer) and loses updates between threads;
+ an AtomicInteger is correct but every thread retries its compare-and-set on the same cache line.
+ Here an uncontended counter is a single AtomicLong. The first failed compare-and-set creates the cells, after which
+ each thread adds to a cell picked by its thread id, and moves on to another cell when that one is contended too.
+ The cells are padded to 128 bytes apart (two cache lines, because of adjacent-line prefetching), so threads
+ on different cells never share a line. sum() adds up the cells: exact when no thread is adding, otherwise
+ a value the counter had at some moment during the call.
+ */
+public class StripedCounter {
+
+    // Longs per cell in the cells array: 16 * 8 = 128 bytes
+    private static final int PAD = 16;
+    private static final int MAX_CELLS = 64;
+
+    private final AtomicLong base = new AtomicLong();
+    private final int cellCount;
+    private volatile AtomicLongArray cells; // null until the first contended update
+
+    public StripedCounter() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    // Up to the given number of cells, rounded up to a power of two; about one per core that updates the counter
+    public StripedCounter(int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        this.cellCount = Math.min(MAX_CELLS, Integer.highestOneBit(Math.max(2, parallelism) - 1) << 1);
+    }
+
+    public void increment() {
+        add(1);
+    }
+
+    public void decrement() {
+        add(-1);
+    }
+
+    public void add(long delta) {
+        AtomicLongArray cs = cells;
+        if (cs == null) {
+            long b = base.get();
+            if (base.compareAndSet(b, b + delta)) return;
+            cs = createCells();
+        }
+        int index = index(Thread.currentThread().getId());
+        for (;;) {
+            int slot = slot(index);
+            long v = cs.get(slot);
+            if (cs.compareAndSet(slot, v, v + delta)) return;
+            index = (index + 1) & (cellCount - 1); // contended: try the next cell
+        }
+    }
+
+    public long sum() {
+        long sum = base.get();
+        AtomicLongArray cs = cells;
+        if (cs != null) {
+            for (int i = 0; i < cellCount; i++) sum += cs.get(slot(i));
+        }
+        return sum;
+    }
+
+    // Sets the counter to zero; increments running at the same time may or may not be kept
+    public void reset() {
+        base.set(0);
+        AtomicLongArray cs = cells;
+        if (cs != null) {
+            for (int i = 0; i < cellCount; i++) cs.set(slot(i), 0);
+        }
+    }
+
+    // Like sum() followed by reset(), but an increment made in between is never lost: each cell is read and zeroed at once
+    public long sumThenReset() {
+        long sum = base.getAndSet(0);
+        AtomicLongArray cs = cells;
+        if (cs != null) {
+            for (int i = 0; i < cellCount; i++) sum += cs.getAndSet(slot(i), 0);
+        }
+        return sum;
+    }
+
+    // Whether the counter has been contended and now uses its cells
+    public boolean isStriped() {
+        return cells != null;
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(sum());
+    }
+
+    private synchronized AtomicLongArray createCells() {
+        AtomicLongArray cs = cells;
+        if (cs == null) cells = cs = new AtomicLongArray((cellCount + 1) * PAD);
+        return cs;
+    }
+
+    // Cell i sits at (i + 1) * PAD, which also keeps the first cell off the line holding the array header
+    private static int slot(int cell) {
+        return (cell + 1) * PAD;
+    }
+
+    private int index(long threadId) {
+        long h = threadId * 0x9E3779B97F4A7C15L; // golden ratio constant, spreads consecutive ids
+        return (int) (h >>> 32) & (cellCount - 1);
+    }
+}
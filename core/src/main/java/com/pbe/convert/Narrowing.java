@@ -0,0 +1,372 @@
+package com.pbe.convert;
+
+/** Bulk narrowing of int[], long[] and double[] into byte[], short[] and int[], with a choice of Overflow handling.
+ iObA.byteValue() silently turns 500 into -12. Checking every element instead, Math.toIntExact style,
+ puts a compare and branch in the loop, which keeps the JIT from vectorizing it. These conversions work in blocks:
+ 1. one pass over the block folds its values into a range summary without branching, which the JIT vectorizes
+ 2. when the summary shows that every value fits, which is the normal case, a plain cast loop narrows the block,
+    also vectorized; the block is still in the L1 cache for this second pass
+ 3. otherwise the block is converted element by element, according to the mode
+ The range summary of an integral source ORs together value - MIN_VALUE of the target type; the target range is
+ a power of two starting at zero after that shift, so every value fits when no higher bit got set.
+ A double source keeps its minimum and maximum instead.
+ Each method returns the number of source values that did not fit; in WRAP mode nothing is checked and it returns 0.
+ For double sources, a value fits when its truncation toward zero fits; NaN never fits.
+ In THROW mode the blocks before the failing one have already been written to the destination.
+ */
+public final class Narrowing {
+
+    private static final int BLOCK = 2048;
+
+    private Narrowing() {
+    }
+
+    public static int toBytes(int[] src, byte[] dst, Overflow mode) {
+        checkLengths(src.length, dst.length);
+        if (mode == Overflow.WRAP) {
+            for (int i = 0; i < src.length; i++) dst[i] = (byte) src[i];
+            return 0;
+        }
+        int outOfRange = 0;
+        for (int from = 0; from < src.length; from += BLOCK) {
+            int to = Math.min(src.length, from + BLOCK);
+            if (fits(src, from, to, Byte.MIN_VALUE, 8)) {
+                for (int i = from; i < to; i++) dst[i] = (byte) src[i];
+            } else {
+                outOfRange += toBytesChecked(src, dst, from, to, mode);
+            }
+        }
+        return outOfRange;
+    }
+
+    private static int toBytesChecked(int[] src, byte[] dst, int from, int to, Overflow mode) {
+        int outOfRange = 0;
+        for (int i = from; i < to; i++) {
+            int v = src[i];
+            if (v >= Byte.MIN_VALUE && v <= Byte.MAX_VALUE) {
+                dst[i] = (byte) v;
+            } else {
+                outOfRange++;
+                switch (mode) {
+                    case SATURATE:
+                        dst[i] = (byte) Math.max(Byte.MIN_VALUE, Math.min(Byte.MAX_VALUE, v));
+                        break;
+                    case THROW:
+                        throw new NarrowingException("int value " + v + " does not fit in byte", i);
+                    default:
+                        dst[i] = (byte) v;
+                }
+            }
+        }
+        return outOfRange;
+    }
+
+    public static int toShorts(int[] src, short[] dst, Overflow mode) {
+        checkLengths(src.length, dst.length);
+        if (mode == Overflow.WRAP) {
+            for (int i = 0; i < src.length; i++) dst[i] = (short) src[i];
+            return 0;
+        }
+        int outOfRange = 0;
+        for (int from = 0; from < src.length; from += BLOCK) {
+            int to = Math.min(src.length, from + BLOCK);
+            if (fits(src, from, to, Short.MIN_VALUE, 16)) {
+                for (int i = from; i < to; i++) dst[i] = (short) src[i];
+            } else {
+                outOfRange += toShortsChecked(src, dst, from, to, mode);
+            }
+        }
+        return outOfRange;
+    }
+
+    private static int toShortsChecked(int[] src, short[] dst, int from, int to, Overflow mode) {
+        int outOfRange = 0;
+        for (int i = from; i < to; i++) {
+            int v = src[i];
+            if (v >= Short.MIN_VALUE && v <= Short.MAX_VALUE) {
+                dst[i] = (short) v;
+            } else {
+                outOfRange++;
+                switch (mode) {
+                    case SATURATE:
+                        dst[i] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, v));
+                        break;
+                    case THROW:
+                        throw new NarrowingException("int value " + v + " does not fit in short", i);
+                    default:
+                        dst[i] = (short) v;
+                }
+            }
+        }
+        return outOfRange;
+    }
+
+    public static int toBytes(long[] src, byte[] dst, Overflow mode) {
+        checkLengths(src.length, dst.length);
+        if (mode == Overflow.WRAP) {
+            for (int i = 0; i < src.length; i++) dst[i] = (byte) src[i];
+            return 0;
+        }
+        int outOfRange = 0;
+        for (int from = 0; from < src.length; from += BLOCK) {
+            int to = Math.min(src.length, from + BLOCK);
+            if (fits(src, from, to, Byte.MIN_VALUE, 8)) {
+                for (int i = from; i < to; i++) dst[i] = (byte) src[i];
+            } else {
+                outOfRange += toBytesChecked(src, dst, from, to, mode);
+            }
+        }
+        return outOfRange;
+    }
+
+    private static int toBytesChecked(long[] src, byte[] dst, int from, int to, Overflow mode) {
+        int outOfRange = 0;
+        for (int i = from; i < to; i++) {
+            long v = src[i];
+            if (v >= Byte.MIN_VALUE && v <= Byte.MAX_VALUE) {
+                dst[i] = (byte) v;
+            } else {
+                outOfRange++;
+                switch (mode) {
+                    case SATURATE:
+                        dst[i] = (byte) Math.max(Byte.MIN_VALUE, Math.min(Byte.MAX_VALUE, v));
+                        break;
+                    case THROW:
+                        throw new NarrowingException("long value " + v + " does not fit in byte", i);
+                    default:
+                        dst[i] = (byte) v;
+                }
+            }
+        }
+        return outOfRange;
+    }
+
+    public static int toShorts(long[] src, short[] dst, Overflow mode) {
+        checkLengths(src.length, dst.length);
+        if (mode == Overflow.WRAP) {
+            for (int i = 0; i < src.length; i++) dst[i] = (short) src[i];
+            return 0;
+        }
+        int outOfRange = 0;
+        for (int from = 0; from < src.length; from += BLOCK) {
+            int to = Math.min(src.length, from + BLOCK);
+            if (fits(src, from, to, Short.MIN_VALUE, 16)) {
+                for (int i = from; i < to; i++) dst[i] = (short) src[i];
+            } else {
+                outOfRange += toShortsChecked(src, dst, from, to, mode);
+            }
+        }
+        return outOfRange;
+    }
+
+    private static int toShortsChecked(long[] src, short[] dst, int from, int to, Overflow mode) {
+        int outOfRange = 0;
+        for (int i = from; i < to; i++) {
+            long v = src[i];
+            if (v >= Short.MIN_VALUE && v <= Short.MAX_VALUE) {
+                dst[i] = (short) v;
+            } else {
+                outOfRange++;
+                switch (mode) {
+                    case SATURATE:
+                        dst[i] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, v));
+                        break;
+                    case THROW:
+                        throw new NarrowingException("long value " + v + " does not fit in short", i);
+                    default:
+                        dst[i] = (short) v;
+                }
+            }
+        }
+        return outOfRange;
+    }
+
+    public static int toInts(long[] src, int[] dst, Overflow mode) {
+        checkLengths(src.length, dst.length);
+        if (mode == Overflow.WRAP) {
+            for (int i = 0; i < src.length; i++) dst[i] = (int) src[i];
+            return 0;
+        }
+        int outOfRange = 0;
+        for (int from = 0; from < src.length; from += BLOCK) {
+            int to = Math.min(src.length, from + BLOCK);
+            if (fits(src, from, to, Integer.MIN_VALUE, 32)) {
+                for (int i = from; i < to; i++) dst[i] = (int) src[i];
+            } else {
+                outOfRange += toIntsChecked(src, dst, from, to, mode);
+            }
+        }
+        return outOfRange;
+    }
+
+    private static int toIntsChecked(long[] src, int[] dst, int from, int to, Overflow mode) {
+        int outOfRange = 0;
+        for (int i = from; i < to; i++) {
+            long v = src[i];
+            if (v >= Integer.MIN_VALUE && v <= Integer.MAX_VALUE) {
+                dst[i] = (int) v;
+            } else {
+                outOfRange++;
+                switch (mode) {
+                    case SATURATE:
+                        dst[i] = (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, v));
+                        break;
+                    case THROW:
+                        throw new NarrowingException("long value " + v + " does not fit in int", i);
+                    default:
+                        dst[i] = (int) v;
+                }
+            }
+        }
+        return outOfRange;
+    }
+
+    public static int toBytes(double[] src, byte[] dst, Overflow mode) {
+        checkLengths(src.length, dst.length);
+        if (mode == Overflow.WRAP) {
+            for (int i = 0; i < src.length; i++) dst[i] = (byte) src[i];
+            return 0;
+        }
+        int outOfRange = 0;
+        for (int from = 0; from < src.length; from += BLOCK) {
+            int to = Math.min(src.length, from + BLOCK);
+            if (fits(src, from, to, Byte.MIN_VALUE - 1.0, Byte.MAX_VALUE + 1.0)) {
+                for (int i = from; i < to; i++) dst[i] = (byte) src[i];
+            } else {
+                outOfRange += toBytesChecked(src, dst, from, to, mode);
+            }
+        }
+        return outOfRange;
+    }
+
+    private static int toBytesChecked(double[] src, byte[] dst, int from, int to, Overflow mode) {
+        int outOfRange = 0;
+        for (int i = from; i < to; i++) {
+            double v = src[i];
+            if (v > Byte.MIN_VALUE - 1.0 && v < Byte.MAX_VALUE + 1.0) {
+                dst[i] = (byte) v;
+            } else {
+                outOfRange++;
+                switch (mode) {
+                    case SATURATE:
+                        dst[i] = (byte) Math.max(Byte.MIN_VALUE, Math.min(Byte.MAX_VALUE, v));
+                        break;
+                    case THROW:
+                        throw new NarrowingException("double value " + v + " does not fit in byte", i);
+                    default:
+                        dst[i] = (byte) v;
+                }
+            }
+        }
+        return outOfRange;
+    }
+
+    public static int toShorts(double[] src, short[] dst, Overflow mode) {
+        checkLengths(src.length, dst.length);
+        if (mode == Overflow.WRAP) {
+            for (int i = 0; i < src.length; i++) dst[i] = (short) src[i];
+            return 0;
+        }
+        int outOfRange = 0;
+        for (int from = 0; from < src.length; from += BLOCK) {
+            int to = Math.min(src.length, from + BLOCK);
+            if (fits(src, from, to, Short.MIN_VALUE - 1.0, Short.MAX_VALUE + 1.0)) {
+                for (int i = from; i < to; i++) dst[i] = (short) src[i];
+            } else {
+                outOfRange += toShortsChecked(src, dst, from, to, mode);
+            }
+        }
+        return outOfRange;
+    }
+
+    private static int toShortsChecked(double[] src, short[] dst, int from, int to, Overflow mode) {
+        int outOfRange = 0;
+        for (int i = from; i < to; i++) {
+            double v = src[i];
+            if (v > Short.MIN_VALUE - 1.0 && v < Short.MAX_VALUE + 1.0) {
+                dst[i] = (short) v;
+            } else {
+                outOfRange++;
+                switch (mode) {
+                    case SATURATE:
+                        dst[i] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, v));
+                        break;
+                    case THROW:
+                        throw new NarrowingException("double value " + v + " does not fit in short", i);
+                    default:
+                        dst[i] = (short) v;
+                }
+            }
+        }
+        return outOfRange;
+    }
+
+    public static int toInts(double[] src, int[] dst, Overflow mode) {
+        checkLengths(src.length, dst.length);
+        if (mode == Overflow.WRAP) {
+            for (int i = 0; i < src.length; i++) dst[i] = (int) src[i];
+            return 0;
+        }
+        int outOfRange = 0;
+        for (int from = 0; from < src.length; from += BLOCK) {
+            int to = Math.min(src.length, from + BLOCK);
+            if (fits(src, from, to, Integer.MIN_VALUE - 1.0, Integer.MAX_VALUE + 1.0)) {
+                for (int i = from; i < to; i++) dst[i] = (int) src[i];
+            } else {
+                outOfRange += toIntsChecked(src, dst, from, to, mode);
+            }
+        }
+        return outOfRange;
+    }
+
+    private static int toIntsChecked(double[] src, int[] dst, int from, int to, Overflow mode) {
+        int outOfRange = 0;
+        for (int i = from; i < to; i++) {
+            double v = src[i];
+            if (v > Integer.MIN_VALUE - 1.0 && v < Integer.MAX_VALUE + 1.0) {
+                dst[i] = (int) v;
+            } else {
+                outOfRange++;
+                switch (mode) {
+                    case SATURATE:
+                        // the cast itself saturates, and maps NaN to 0
+                        dst[i] = (int) v;
+                        break;
+                    case THROW:
+                        throw new NarrowingException("double value " + v + " does not fit in int", i);
+                    default:
+                        dst[i] = (int) v;
+                }
+            }
+        }
+        return outOfRange;
+    }
+
+    // True when every value of src[from, to) lies within min .. min + 2^bits - 1
+    private static boolean fits(int[] src, int from, int to, int min, int bits) {
+        int shifted = 0;
+        for (int i = from; i < to; i++) shifted |= src[i] - min;
+        return shifted >>> bits == 0;
+    }
+
+    private static boolean fits(long[] src, int from, int to, long min, int bits) {
+        long shifted = 0;
+        for (int i = from; i < to; i++) shifted |= src[i] - min;
+        return shifted >>> bits == 0;
+    }
+
+    // True when every value of src[from, to) lies strictly between low and high; a NaN makes min and max NaN
+    private static boolean fits(double[] src, int from, int to, double low, double high) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            min = Math.min(min, src[i]);
+            max = Math.max(max, src[i]);
+        }
+        return min > low && max < high;
+    }
+
+    private static void checkLengths(int source, int destination) {
+        if (destination < source) throw new IllegalArgumentException("Destination too short: " + destination + " < " + source);
+    }
+}
@@ -0,0 +1,20 @@
+package com.pbe.convert;
+
+/** Thrown by Narrowing in THROW mode, for the first source element that does not fit the target type.
+ An ArithmeticException, like the one Math.toIntExact throws for a single value.
+ */
+public class NarrowingException extends ArithmeticException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int index;
+
+    public NarrowingException(String message, int index) {
+        super(message + " at index " + index);
+        this.index = index;
+    }
+
+    public int index() {
+        return index;
+    }
+}
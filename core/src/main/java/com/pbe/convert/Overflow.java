@@ -0,0 +1,14 @@
+package com.pbe.convert;
+
+/** What a narrowing conversion does with a value that does not fit the target type.
+ */
+public enum Overflow {
+    // Java's cast: keep the low bits, as iObA.byteValue() turns 500 into -12. Doubles first saturate at the int range.
+    WRAP,
+    // Clamp to the nearest value of the target type; NaN becomes 0
+    SATURATE,
+    // Throw a NarrowingException naming the first value that does not fit
+    THROW,
+    // Convert as WRAP does, and count the values that did not fit
+    REPORT_COUNT
+}
@@ -0,0 +1,205 @@
+package com.pbe.dispatch;
+
+import com.pbe.collections.IntObjectHashMap;
+
+import java.util.SplittableRandom;
+
+/** Routes int keys, or Integer keys, to handlers through a table built once up front.
+ switch(iObA) unboxes its Integer, and so throws a NullPointerException for a null key.
+ A HashMap<Integer, Runnable> handles null, but boxes every key outside -128..127 on lookup and chases a node per hit.
+ This dispatcher takes the key as an int and picks one of two tables when built:
+ - dense: the keys span a small range, so the handler sits at index key - min, like the JVM's tableswitch
+ - hashed: sparse keys are placed by (key * multiplier) >>> shift, with a multiplier searched for at build time
+   so that no two keys share a slot (a perfect hash); when none is found in time, collisions are resolved
+   by linear probing
+ A null Integer key, and any key without a handler, goes to the default handler.
+ */
+public final class IntDispatcher {
+
+    private static final int MAX_DENSE_SPAN = 1 << 16;
+    private static final int MULTIPLIER_ATTEMPTS = 64;
+
+    private final Runnable defaultHandler;
+    private final int size;
+
+    // dense mode
+    private final boolean dense;
+    private final int min;
+
+    // both modes: handlers[slot], and for hashed mode the key owning each slot; a null handler is a free slot
+    private final Runnable[] handlers;
+    private final int[] keys;
+    private final int multiplier;
+    private final int shift;
+    private final int maxProbe;
+
+    private IntDispatcher(Builder builder) {
+        this.defaultHandler = builder.defaultHandler;
+        this.size = builder.handlers.size();
+        int lowest = Integer.MAX_VALUE;
+        int highest = Integer.MIN_VALUE;
+        IntObjectHashMap.Cursor<Runnable> cursor = builder.handlers.cursor();
+        while (cursor.advance()) {
+            lowest = Math.min(lowest, cursor.key());
+            highest = Math.max(highest, cursor.key());
+        }
+        long span = size == 0 ? 0 : (long) highest - lowest + 1;
+        this.dense = span <= Math.max(16, 4L * size) && span <= MAX_DENSE_SPAN;
+        if (dense) {
+            this.min = lowest;
+            this.handlers = new Runnable[(int) span];
+            this.keys = null;
+            this.multiplier = 0;
+            this.shift = 0;
+            this.maxProbe = 0;
+            cursor = builder.handlers.cursor();
+            while (cursor.advance()) handlers[cursor.key() - min] = cursor.value();
+            for (int i = 0; i < handlers.length; i++) {
+                if (handlers[i] == null) handlers[i] = defaultHandler; // holes behave like the default case
+            }
+        } else {
+            this.min = 0;
+            int[] sourceKeys = new int[size];
+            Runnable[] sourceHandlers = new Runnable[size];
+            int n = 0;
+            cursor = builder.handlers.cursor();
+            while (cursor.advance()) {
+                sourceKeys[n] = cursor.key();
+                sourceHandlers[n++] = cursor.value();
+            }
+            // Try table sizes of 2, 4 and 8 times the number of keys, then settle for the fewest probes
+            int bits = 32 - Integer.numberOfLeadingZeros(Math.max(1, size - 1)) + 1;
+            SplittableRandom random = new SplittableRandom(size);
+            int bestMultiplier = 0;
+            int bestBits = bits;
+            int bestProbe = Integer.MAX_VALUE;
+            search:
+            for (int b = bits; b < bits + 3; b++) {
+                for (int attempt = 0; attempt < MULTIPLIER_ATTEMPTS; attempt++) {
+                    int m = random.nextInt() | 1;
+                    int probe = longestProbe(sourceKeys, m, b);
+                    if (probe < bestProbe) {
+                        bestMultiplier = m;
+                        bestBits = b;
+                        bestProbe = probe;
+                        if (probe == 0) break search;
+                    }
+                }
+            }
+            this.multiplier = bestMultiplier;
+            this.shift = 32 - bestBits;
+            this.maxProbe = bestProbe;
+            this.handlers = new Runnable[1 << bestBits];
+            this.keys = new int[1 << bestBits];
+            int mask = handlers.length - 1;
+            for (int i = 0; i < size; i++) {
+                int slot = slot(sourceKeys[i]);
+                while (handlers[slot] != null) slot = (slot + 1) & mask;
+                keys[slot] = sourceKeys[i];
+                handlers[slot] = sourceHandlers[i];
+            }
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public void dispatch(int key) {
+        handlerFor(key).run();
+    }
+
+    // Null is routed to the default handler instead of being unboxed
+    public void dispatch(Integer key) {
+        if (key == null) defaultHandler.run();
+        else handlerFor(key.intValue()).run();
+    }
+
+    public Runnable handlerFor(int key) {
+        if (dense) {
+            int index = key - min;
+            return index >= 0 && index < handlers.length ? handlers[index] : defaultHandler;
+        }
+        int slot = slot(key);
+        Runnable handler = handlers[slot];
+        if (handler != null && keys[slot] == key) return handler;
+        // Only reached for absent keys, or for keys displaced when no perfect multiplier was found
+        int mask = handlers.length - 1;
+        for (int probe = 1; probe <= maxProbe && handler != null; probe++) {
+            slot = (slot + 1) & mask;
+            handler = handlers[slot];
+            if (handler != null && keys[slot] == key) return handler;
+        }
+        return defaultHandler;
+    }
+
+    // Number of keys with their own handler
+    public int size() {
+        return size;
+    }
+
+    public boolean isDense() {
+        return dense;
+    }
+
+    // True when every key is found in its first slot: dense tables, and hashed tables without collisions
+    public boolean isPerfect() {
+        return maxProbe == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "IntDispatcher[" + size + " keys, " + (dense ? "dense" : isPerfect() ? "perfect hash" : "hash, up to " + maxProbe + " probes")
+                + ", " + handlers.length + " slots]";
+    }
+
+    private int slot(int key) {
+        return (key * multiplier) >>> shift;
+    }
+
+    // Longest run of extra probes any key needs when placed with the given multiplier in a table of 2^bits slots
+    private static int longestProbe(int[] keys, int multiplier, int bits) {
+        int shift = 32 - bits;
+        int mask = (1 << bits) - 1;
+        boolean[] used = new boolean[1 << bits];
+        int longest = 0;
+        for (int key : keys) {
+            int slot = (key * multiplier) >>> shift;
+            int probe = 0;
+            while (used[slot]) {
+                slot = (slot + 1) & mask;
+                probe++;
+            }
+            used[slot] = true;
+            longest = Math.max(longest, probe);
+        }
+        return longest;
+    }
+
+    public static final class Builder {
+
+        private final IntObjectHashMap<Runnable> handlers = new IntObjectHashMap<>();
+        private Runnable defaultHandler = () -> { };
+
+        private Builder() {
+        }
+
+        public Builder on(int key, Runnable handler) {
+            if (handler == null) throw new IllegalArgumentException("Handler for key " + key + " is null");
+            if (handlers.containsKey(key)) throw new IllegalArgumentException("Duplicate key: " + key);
+            handlers.put(key, handler);
+            return this;
+        }
+
+        // Handler for null keys and keys without a handler of their own; does nothing unless set
+        public Builder otherwise(Runnable handler) {
+            if (handler == null) throw new IllegalArgumentException("Default handler is null");
+            defaultHandler = handler;
+            return this;
+        }
+
+        public IntDispatcher build() {
+            return new IntDispatcher(this);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.pbe.expr;
+
+/** Syntax tree of a parsed expression, before types and variable slots are resolved.
+ Produced by Parser, turned into an evaluable tree by ExpressionCompiler.
+ */
+public abstract class Ast {
+
+    private final int position;
+
+    Ast(int position) {
+        this.position = position;
+    }
+
+    // Position of the node in the source, for error messages
+    public int position() {
+        return position;
+    }
+
+    public static final class Literal extends Ast {
+
+        private final Type type;
+        private final long longValue;
+        private final double doubleValue;
+
+        Literal(int position, Type type, long longValue, double doubleValue) {
+            super(position);
+            this.type = type;
+            this.longValue = longValue;
+            this.doubleValue = doubleValue;
+        }
+
+        public Type type() {
+            return type;
+        }
+
+        // Value of an INT or LONG literal
+        public long longValue() {
+            return longValue;
+        }
+
+        // Value of a DOUBLE literal
+        public double doubleValue() {
+            return doubleValue;
+        }
+    }
+
+    public static final class Variable extends Ast {
+
+        private final String name;
+
+        Variable(int position, String name) {
+            super(position);
+            this.name = name;
+        }
+
+        public String name() {
+            return name;
+        }
+    }
+
+    public static final class Negate extends Ast {
+
+        private final Ast operand;
+
+        Negate(int position, Ast operand) {
+            super(position);
+            this.operand = operand;
+        }
+
+        public Ast operand() {
+            return operand;
+        }
+    }
+
+    public static final class Binary extends Ast {
+
+        private final char operator; // one of + - * / %
+        private final Ast left;
+        private final Ast right;
+
+        Binary(int position, char operator, Ast left, Ast right) {
+            super(position);
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        public char operator() {
+            return operator;
+        }
+
+        public Ast left() {
+            return left;
+        }
+
+        public Ast right() {
+            return right;
+        }
+    }
+}
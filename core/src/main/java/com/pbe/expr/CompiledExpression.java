@@ -0,0 +1,38 @@
+package com.pbe.expr;
+
+/** An expression compiled against a set of Variables, ready to be evaluated any number of times.
+ Evaluation walks a tree of primitive nodes and allocates nothing, unlike the same expression on wrappers,
+ where iObB = iObA + (iObA / 3) unboxes at every read and re-boxes the outcome.
+ An expression can be read as its own type or any wider one: an INT expression as int, long or double.
+ */
+public final class CompiledExpression {
+
+    private final String source;
+    private final Node root;
+
+    CompiledExpression(String source, Node root) {
+        this.source = source;
+        this.root = root;
+    }
+
+    public Type type() {
+        return root.type();
+    }
+
+    public int evalInt(Frame frame) {
+        return root.evalInt(frame);
+    }
+
+    public long evalLong(Frame frame) {
+        return root.evalLong(frame);
+    }
+
+    public double evalDouble(Frame frame) {
+        return root.evalDouble(frame);
+    }
+
+    @Override
+    public String toString() {
+        return source + " : " + type();
+    }
+}
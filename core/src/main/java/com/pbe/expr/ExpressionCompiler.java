@@ -0,0 +1,37 @@
+package com.pbe.expr;
+
+/** Compiles expressions into trees of primitive nodes, resolving variable types and slots once.
+ Example, the expression from Main:
+ Variables variables = new Variables();
+ int iObA = variables.intVar("iObA");
+ CompiledExpression expression = ExpressionCompiler.compile("iObA + (iObA / 3)", variables);
+ Frame frame = variables.newFrame().setInt(iObA, 11);
+ int iObB = expression.evalInt(frame); // 14
+ */
+public final class ExpressionCompiler {
+
+    private ExpressionCompiler() {
+    }
+
+    public static CompiledExpression compile(String source, Variables variables) {
+        return new CompiledExpression(source, compile(Parser.parse(source), variables));
+    }
+
+    private static Node compile(Ast ast, Variables variables) {
+        if (ast instanceof Ast.Literal) {
+            Ast.Literal literal = (Ast.Literal) ast;
+            return Node.constant(literal.type(), literal.longValue(), literal.doubleValue());
+        }
+        if (ast instanceof Ast.Variable) {
+            String name = ((Ast.Variable) ast).name();
+            Variables.Declaration declaration = variables.lookup(name);
+            if (declaration == null) throw new ExpressionException("Unknown variable '" + name + "'", ast.position());
+            return Node.variable(declaration.type, declaration.slot);
+        }
+        if (ast instanceof Ast.Negate) {
+            return Node.negate(compile(((Ast.Negate) ast).operand(), variables));
+        }
+        Ast.Binary binary = (Ast.Binary) ast;
+        return Node.binary(binary.operator(), compile(binary.left(), variables), compile(binary.right(), variables));
+    }
+}
@@ -0,0 +1,19 @@
+package com.pbe.expr;
+
+/** Thrown when an expression cannot be parsed or compiled, with the position in the source where it went wrong.
+ */
+public class ExpressionException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int position;
+
+    public ExpressionException(String message, int position) {
+        super(message + " at position " + position);
+        this.position = position;
+    }
+
+    public int position() {
+        return position;
+    }
+}
@@ -0,0 +1,44 @@
+package com.pbe.expr;
+
+/** Values of the variables for one evaluation, kept in primitive arrays indexed by slot.
+ A frame is reused across evaluations: set the variables, evaluate, set them again. Nothing is boxed.
+ */
+public final class Frame {
+
+    final int[] ints;
+    final long[] longs;
+    final double[] doubles;
+
+    Frame(int intCount, int longCount, int doubleCount) {
+        ints = new int[intCount];
+        longs = new long[longCount];
+        doubles = new double[doubleCount];
+    }
+
+    public Frame setInt(int slot, int value) {
+        ints[slot] = value;
+        return this;
+    }
+
+    public Frame setLong(int slot, long value) {
+        longs[slot] = value;
+        return this;
+    }
+
+    public Frame setDouble(int slot, double value) {
+        doubles[slot] = value;
+        return this;
+    }
+
+    public int getInt(int slot) {
+        return ints[slot];
+    }
+
+    public long getLong(int slot) {
+        return longs[slot];
+    }
+
+    public double getDouble(int slot) {
+        return doubles[slot];
+    }
+}
@@ -0,0 +1,484 @@
+package com.pbe.expr;
+
+/** Nodes of a compiled expression tree, one class per operator and type so no node switches on either.
+ Every node evaluates into a primitive; an int node read as long or double widens like Java does,
+ which is how binary numeric promotion works without explicit conversion nodes.
+ */
+abstract class Node {
+
+    abstract Type type();
+
+    int evalInt(Frame frame) {
+        throw new IllegalStateException("Cannot evaluate a " + type() + " expression as int");
+    }
+
+    long evalLong(Frame frame) {
+        throw new IllegalStateException("Cannot evaluate a " + type() + " expression as long");
+    }
+
+    abstract double evalDouble(Frame frame);
+
+    static Node constant(Type type, long longValue, double doubleValue) {
+        switch (type) {
+            case INT:
+                return new IntConst((int) longValue);
+            case LONG:
+                return new LongConst(longValue);
+            default:
+                return new DoubleConst(doubleValue);
+        }
+    }
+
+    static Node variable(Type type, int slot) {
+        switch (type) {
+            case INT:
+                return new IntVar(slot);
+            case LONG:
+                return new LongVar(slot);
+            default:
+                return new DoubleVar(slot);
+        }
+    }
+
+    static Node negate(Node operand) {
+        switch (operand.type()) {
+            case INT:
+                return new IntNeg(operand);
+            case LONG:
+                return new LongNeg(operand);
+            default:
+                return new DoubleNeg(operand);
+        }
+    }
+
+    // Binary operator on the promoted type of both operands
+    static Node binary(char operator, Node left, Node right) {
+        Type type = Type.promote(left.type(), right.type());
+        switch (operator) {
+            case '+':
+                return type == Type.INT ? new IntAdd(left, right) : type == Type.LONG ? new LongAdd(left, right) : new DoubleAdd(left, right);
+            case '-':
+                return type == Type.INT ? new IntSub(left, right) : type == Type.LONG ? new LongSub(left, right) : new DoubleSub(left, right);
+            case '*':
+                return type == Type.INT ? new IntMul(left, right) : type == Type.LONG ? new LongMul(left, right) : new DoubleMul(left, right);
+            case '/':
+                return type == Type.INT ? new IntDiv(left, right) : type == Type.LONG ? new LongDiv(left, right) : new DoubleDiv(left, right);
+            case '%':
+                return type == Type.INT ? new IntRem(left, right) : type == Type.LONG ? new LongRem(left, right) : new DoubleRem(left, right);
+            default:
+                throw new IllegalArgumentException("Unknown operator: " + operator);
+        }
+    }
+
+    abstract static class IntNode extends Node {
+
+        @Override
+        final Type type() {
+            return Type.INT;
+        }
+
+        @Override
+        abstract int evalInt(Frame frame);
+
+        @Override
+        final long evalLong(Frame frame) {
+            return evalInt(frame);
+        }
+
+        @Override
+        final double evalDouble(Frame frame) {
+            return evalInt(frame);
+        }
+    }
+
+    static final class IntConst extends IntNode {
+
+        private final int value;
+
+        IntConst(int value) {
+            this.value = value;
+        }
+
+        @Override
+        int evalInt(Frame frame) {
+            return value;
+        }
+    }
+
+    static final class IntVar extends IntNode {
+
+        private final int slot;
+
+        IntVar(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        int evalInt(Frame frame) {
+            return frame.ints[slot];
+        }
+    }
+
+    static final class IntNeg extends IntNode {
+
+        private final Node operand;
+
+        IntNeg(Node operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        int evalInt(Frame frame) {
+            return -operand.evalInt(frame);
+        }
+    }
+
+    static final class IntAdd extends IntNode {
+
+        private final Node left;
+        private final Node right;
+
+        IntAdd(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        int evalInt(Frame frame) {
+            return left.evalInt(frame) + right.evalInt(frame);
+        }
+    }
+
+    static final class IntSub extends IntNode {
+
+        private final Node left;
+        private final Node right;
+
+        IntSub(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        int evalInt(Frame frame) {
+            return left.evalInt(frame) - right.evalInt(frame);
+        }
+    }
+
+    static final class IntMul extends IntNode {
+
+        private final Node left;
+        private final Node right;
+
+        IntMul(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        int evalInt(Frame frame) {
+            return left.evalInt(frame) * right.evalInt(frame);
+        }
+    }
+
+    static final class IntDiv extends IntNode {
+
+        private final Node left;
+        private final Node right;
+
+        IntDiv(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        int evalInt(Frame frame) {
+            return left.evalInt(frame) / right.evalInt(frame);
+        }
+    }
+
+    static final class IntRem extends IntNode {
+
+        private final Node left;
+        private final Node right;
+
+        IntRem(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        int evalInt(Frame frame) {
+            return left.evalInt(frame) % right.evalInt(frame);
+        }
+    }
+
+    abstract static class LongNode extends Node {
+
+        @Override
+        final Type type() {
+            return Type.LONG;
+        }
+
+        @Override
+        abstract long evalLong(Frame frame);
+
+        @Override
+        final double evalDouble(Frame frame) {
+            return evalLong(frame);
+        }
+    }
+
+    static final class LongConst extends LongNode {
+
+        private final long value;
+
+        LongConst(long value) {
+            this.value = value;
+        }
+
+        @Override
+        long evalLong(Frame frame) {
+            return value;
+        }
+    }
+
+    static final class LongVar extends LongNode {
+
+        private final int slot;
+
+        LongVar(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        long evalLong(Frame frame) {
+            return frame.longs[slot];
+        }
+    }
+
+    static final class LongNeg extends LongNode {
+
+        private final Node operand;
+
+        LongNeg(Node operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        long evalLong(Frame frame) {
+            return -operand.evalLong(frame);
+        }
+    }
+
+    static final class LongAdd extends LongNode {
+
+        private final Node left;
+        private final Node right;
+
+        LongAdd(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        long evalLong(Frame frame) {
+            return left.evalLong(frame) + right.evalLong(frame);
+        }
+    }
+
+    static final class LongSub extends LongNode {
+
+        private final Node left;
+        private final Node right;
+
+        LongSub(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        long evalLong(Frame frame) {
+            return left.evalLong(frame) - right.evalLong(frame);
+        }
+    }
+
+    static final class LongMul extends LongNode {
+
+        private final Node left;
+        private final Node right;
+
+        LongMul(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        long evalLong(Frame frame) {
+            return left.evalLong(frame) * right.evalLong(frame);
+        }
+    }
+
+    static final class LongDiv extends LongNode {
+
+        private final Node left;
+        private final Node right;
+
+        LongDiv(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        long evalLong(Frame frame) {
+            return left.evalLong(frame) / right.evalLong(frame);
+        }
+    }
+
+    static final class LongRem extends LongNode {
+
+        private final Node left;
+        private final Node right;
+
+        LongRem(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        long evalLong(Frame frame) {
+            return left.evalLong(frame) % right.evalLong(frame);
+        }
+    }
+
+    abstract static class DoubleNode extends Node {
+
+        @Override
+        final Type type() {
+            return Type.DOUBLE;
+        }
+    }
+
+    static final class DoubleConst extends DoubleNode {
+
+        private final double value;
+
+        DoubleConst(double value) {
+            this.value = value;
+        }
+
+        @Override
+        double evalDouble(Frame frame) {
+            return value;
+        }
+    }
+
+    static final class DoubleVar extends DoubleNode {
+
+        private final int slot;
+
+        DoubleVar(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        double evalDouble(Frame frame) {
+            return frame.doubles[slot];
+        }
+    }
+
+    static final class DoubleNeg extends DoubleNode {
+
+        private final Node operand;
+
+        DoubleNeg(Node operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        double evalDouble(Frame frame) {
+            return -operand.evalDouble(frame);
+        }
+    }
+
+    static final class DoubleAdd extends DoubleNode {
+
+        private final Node left;
+        private final Node right;
+
+        DoubleAdd(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        double evalDouble(Frame frame) {
+            return left.evalDouble(frame) + right.evalDouble(frame);
+        }
+    }
+
+    static final class DoubleSub extends DoubleNode {
+
+        private final Node left;
+        private final Node right;
+
+        DoubleSub(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        double evalDouble(Frame frame) {
+            return left.evalDouble(frame) - right.evalDouble(frame);
+        }
+    }
+
+    static final class DoubleMul extends DoubleNode {
+
+        private final Node left;
+        private final Node right;
+
+        DoubleMul(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        double evalDouble(Frame frame) {
+            return left.evalDouble(frame) * right.evalDouble(frame);
+        }
+    }
+
+    static final class DoubleDiv extends DoubleNode {
+
+        private final Node left;
+        private final Node right;
+
+        DoubleDiv(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        double evalDouble(Frame frame) {
+            return left.evalDouble(frame) / right.evalDouble(frame);
+        }
+    }
+
+    static final class DoubleRem extends DoubleNode {
+
+        private final Node left;
+        private final Node right;
+
+        DoubleRem(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        double evalDouble(Frame frame) {
+            return left.evalDouble(frame) % right.evalDouble(frame);
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.pbe.expr;
+
+/** Recursive descent parser for arithmetic expressions in Java syntax, such as iObA + (iObA / 3).
+ Supports + - * / %, unary minus and plus, parentheses, variables, and int, long (100L) and double (97.97) literals.
+ Grammar:
+ expression := term (('+' | '-') term)*
+ term       := unary (('*' | '/' | '%') unary)*
+ unary      := ('-' | '+') unary | primary
+ primary    := number | identifier | '(' expression ')'
+ */
+public final class Parser {
+
+    private final String source;
+    private int pos;
+
+    private Parser(String source) {
+        this.source = source;
+    }
+
+    public static Ast parse(String source) {
+        Parser parser = new Parser(source);
+        Ast ast = parser.expression();
+        parser.skipWhitespace();
+        if (parser.pos < source.length()) throw new ExpressionException("Unexpected '" + source.charAt(parser.pos) + "'", parser.pos);
+        return ast;
+    }
+
+    private Ast expression() {
+        Ast left = term();
+        for (;;) {
+            skipWhitespace();
+            int at = pos;
+            if (accept('+')) left = new Ast.Binary(at, '+', left, term());
+            else if (accept('-')) left = new Ast.Binary(at, '-', left, term());
+            else return left;
+        }
+    }
+
+    private Ast term() {
+        Ast left = unary();
+        for (;;) {
+            skipWhitespace();
+            int at = pos;
+            if (accept('*')) left = new Ast.Binary(at, '*', left, unary());
+            else if (accept('/')) left = new Ast.Binary(at, '/', left, unary());
+            else if (accept('%')) left = new Ast.Binary(at, '%', left, unary());
+            else return left;
+        }
+    }
+
+    private Ast unary() {
+        skipWhitespace();
+        int at = pos;
+        if (accept('-')) return new Ast.Negate(at, unary());
+        if (accept('+')) return unary();
+        return primary();
+    }
+
+    private Ast primary() {
+        skipWhitespace();
+        if (pos >= source.length()) throw new ExpressionException("Unexpected end of expression", pos);
+        char c = source.charAt(pos);
+        if (accept('(')) {
+            Ast inner = expression();
+            skipWhitespace();
+            if (!accept(')')) throw new ExpressionException("Expected ')'", pos);
+            return inner;
+        }
+        if (Character.isDigit(c) || c == '.') return number();
+        if (Character.isJavaIdentifierStart(c)) {
+            int start = pos;
+            while (pos < source.length() && Character.isJavaIdentifierPart(source.charAt(pos))) pos++;
+            return new Ast.Variable(start, source.substring(start, pos));
+        }
+        throw new ExpressionException("Unexpected '" + c + "'", pos);
+    }
+
+    private Ast number() {
+        int start = pos;
+        boolean decimal = false;
+        while (pos < source.length() && Character.isDigit(source.charAt(pos))) pos++;
+        if (pos < source.length() && source.charAt(pos) == '.') {
+            decimal = true;
+            pos++;
+            while (pos < source.length() && Character.isDigit(source.charAt(pos))) pos++;
+        }
+        if (pos < source.length() && (source.charAt(pos) == 'e' || source.charAt(pos) == 'E')) {
+            decimal = true;
+            pos++;
+            if (pos < source.length() && (source.charAt(pos) == '+' || source.charAt(pos) == '-')) pos++;
+            while (pos < source.length() && Character.isDigit(source.charAt(pos))) pos++;
+        }
+        String text = source.substring(start, pos);
+        try {
+            if (accept('d') || accept('D')) return new Ast.Literal(start, Type.DOUBLE, 0, Double.parseDouble(text));
+            if (decimal) return new Ast.Literal(start, Type.DOUBLE, 0, Double.parseDouble(text));
+            if (accept('L') || accept('l')) return new Ast.Literal(start, Type.LONG, Long.parseLong(text), 0);
+            long value = Long.parseLong(text);
+            if (value > Integer.MAX_VALUE) throw new ExpressionException("Integer number too large: " + text, start);
+            return new Ast.Literal(start, Type.INT, value, 0);
+        } catch (NumberFormatException e) {
+            throw new ExpressionException("Malformed number '" + text + "'", start);
+        }
+    }
+
+    private boolean accept(char c) {
+        if (pos < source.length() && source.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespace() {
+        while (pos < source.length() && Character.isWhitespace(source.charAt(pos))) pos++;
+    }
+}
@@ -0,0 +1,13 @@
+package com.pbe.expr;
+
+/** Numeric types an expression or variable can have, with Java's binary numeric promotion.
+ */
+public enum Type {
+
+    INT, LONG, DOUBLE;
+
+    // The type both operands of a binary operator are converted to: double wins over long, long over int
+    public static Type promote(Type left, Type right) {
+        return left.ordinal() >= right.ordinal() ? left : right;
+    }
+}
@@ -0,0 +1,52 @@
+package com.pbe.expr;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/** Declares the typed variables expressions may refer to, and assigns each a slot in a Frame.
+ Slots are numbered per type, so an int, a long and a double variable can all have slot 0.
+ Declare all variables before creating frames: a frame only has room for the variables declared so far.
+ */
+public final class Variables {
+
+    private final Map<String, Declaration> declarations = new HashMap<>();
+    private final int[] counts = new int[Type.values().length];
+
+    public int intVar(String name) {
+        return declare(name, Type.INT);
+    }
+
+    public int longVar(String name) {
+        return declare(name, Type.LONG);
+    }
+
+    public int doubleVar(String name) {
+        return declare(name, Type.DOUBLE);
+    }
+
+    public Frame newFrame() {
+        return new Frame(counts[Type.INT.ordinal()], counts[Type.LONG.ordinal()], counts[Type.DOUBLE.ordinal()]);
+    }
+
+    Declaration lookup(String name) {
+        return declarations.get(name);
+    }
+
+    private int declare(String name, Type type) {
+        if (declarations.containsKey(name)) throw new IllegalArgumentException("Variable already declared: " + name);
+        int slot = counts[type.ordinal()]++;
+        declarations.put(name, new Declaration(type, slot));
+        return slot;
+    }
+
+    static final class Declaration {
+
+        final Type type;
+        final int slot;
+
+        Declaration(Type type, int slot) {
+            this.type = type;
+            this.slot = slot;
+        }
+    }
+}
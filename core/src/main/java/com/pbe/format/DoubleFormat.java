@@ -0,0 +1,201 @@
+package com.pbe.format;
+
+import java.math.BigInteger;
+
+/** Writes a double as the shortest decimal that parses back to the same double, in the layout of Double.toString:
+ plain notation from 0.001 up to 10^7 ("100.0", "0.25"), computerized scientific notation outside ("1.0E-5").
+ On JDK 17, Double.toString sometimes prints more digits than needed, 1.0E23 comes out as "9.999999999999999E22";
+ the digits here are always the shortest, and of the shortest the one closest to the double.
+ The algorithm is Schubfach (R. Giulietti, "The Schubfach way to render doubles"), the one Double.toString uses
+ from JDK 19 on:
+ 1. the double is c * 2^q; its rounding interval is the range of reals that round to it
+ 2. c * 2^q and the interval bounds are scaled by a 126-bit approximation of 10^-k, chosen so that the scaled
+    value has 17 or 18 digits before the point
+ 3. among the integers in the scaled interval the one with the fewest digits is picked, which is the shortest decimal
+ The 126-bit powers of ten are computed once, with BigInteger, when the class is loaded.
+ */
+final class DoubleFormat {
+
+    // Maximum number of bytes written, for "-2.2250738585072014E-308"
+    static final int MAX_LENGTH = 24;
+
+    private static final int P = 53;
+    private static final int Q_MIN = -1074;
+    private static final long C_MIN = 1L << (P - 1);
+    private static final int BQ_MASK = 0x7FF;
+    private static final long T_MASK = (1L << (P - 1)) - 1;
+    private static final long C_TINY = 3; // subnormals below this get one more digit of precision, see toDecimal
+    private static final int K_MIN = -324; // range of the decimal exponent k
+    private static final int K_MAX = 292;
+    private static final long MASK_63 = (1L << 63) - 1;
+
+    // g(j) = floor(10^j / 2^r) + 1 with r such that 2^125 <= g < 2^126, for j = -K_MAX..-K_MIN,
+    // split in the high and low 63 bits
+    private static final long[] G1 = new long[K_MAX - K_MIN + 1];
+    private static final long[] G0 = new long[K_MAX - K_MIN + 1];
+
+    private static final byte[] NAN = {'N', 'a', 'N'};
+    private static final byte[] INFINITY = {'I', 'n', 'f', 'i', 'n', 'i', 't', 'y'};
+    private static final byte[] ZERO = {'0', '.', '0'};
+
+    static {
+        for (int j = -K_MAX; j <= -K_MIN; j++) {
+            int r = flog2pow10(j) - 125;
+            BigInteger numerator = BigInteger.TEN.pow(Math.max(j, 0)).shiftLeft(Math.max(-r, 0));
+            BigInteger denominator = BigInteger.TEN.pow(Math.max(-j, 0)).shiftLeft(Math.max(r, 0));
+            BigInteger g = numerator.divide(denominator).add(BigInteger.ONE);
+            G1[j + K_MAX] = g.shiftRight(63).longValue();
+            G0[j + K_MAX] = g.longValue() & MASK_63;
+        }
+    }
+
+    private DoubleFormat() {
+    }
+
+    // Writes v to buffer at pos and returns the position after it; the buffer needs MAX_LENGTH bytes of room
+    static int write(double v, byte[] buffer, int pos) {
+        long bits = Double.doubleToRawLongBits(v);
+        long t = bits & T_MASK;
+        int bq = (int) (bits >>> (P - 1)) & BQ_MASK;
+        if (bq == BQ_MASK) {
+            if (t != 0) return copy(NAN, buffer, pos);
+            if (bits < 0) buffer[pos++] = '-';
+            return copy(INFINITY, buffer, pos);
+        }
+        if (bits < 0) buffer[pos++] = '-';
+        if (bq != 0) {
+            int mq = -Q_MIN + 1 - bq;
+            long c = C_MIN | t;
+            // Integers below 2^53 need no scaling at all
+            if (0 < mq && mq < P) {
+                long f = c >> mq;
+                if (f << mq == c) return digits(f, 0, buffer, pos);
+            }
+            return toDecimal(-mq, c, 0, buffer, pos);
+        }
+        if (t != 0) {
+            // Tiny subnormals have fewer than 2 significant digits; a larger c keeps the computation exact
+            return t < C_TINY ? toDecimal(Q_MIN, 10 * t, -1, buffer, pos) : toDecimal(Q_MIN, t, 0, buffer, pos);
+        }
+        return copy(ZERO, buffer, pos);
+    }
+
+    private static int toDecimal(int q, long c, int dk, byte[] buffer, int pos) {
+        int out = (int) c & 0x1; // an odd c has an open rounding interval: its bounds round to the neighbours
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != C_MIN || q == Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            // At a power of two the interval below is half as wide as the one above
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 2;
+        long g1 = G1[-k + K_MAX];
+        long g0 = G0[-k + K_MAX];
+        long vb = roundOdd(g1, g0, cb << h);
+        long vbl = roundOdd(g1, g0, cbl << h);
+        long vbr = roundOdd(g1, g0, cbr << h);
+
+        long s = vb >> 2;
+        if (s >= 100) {
+            // First try one digit less: s rounded down and up to a multiple of 10
+            long sp10 = 10 * Math.multiplyHigh(s, 115_292_150_460_684_698L << 4);
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) return digits(upin ? sp10 : tp10, k, buffer, pos);
+        }
+        long t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) return digits(uin ? s : t, k + dk, buffer, pos);
+        // Both s and s + 1 are in the interval: take the closer one, the even one on a tie
+        long cmp = vb - (s + t << 1);
+        return digits(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk, buffer, pos);
+    }
+
+    // The 126-bit product g * cp / 2^127, rounded to odd so that the comparisons above stay exact
+    private static long roundOdd(long g1, long g0, long cp) {
+        long x1 = Math.multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = Math.multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    // floor(e * log10(2))
+    private static int flog10pow2(int e) {
+        return (int) (e * 661_971_961_083L >> 41);
+    }
+
+    // floor(e * log10(2) + log10(3/4))
+    private static int flog10threeQuartersPow2(int e) {
+        return (int) (e * 661_971_961_083L + -274_743_187_321L >> 41);
+    }
+
+    // floor(e * log2(10))
+    private static int flog2pow10(int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+
+    // Writes f * 10^e, f > 0, with trailing zeros of f dropped, in the layout of Double.toString
+    private static int digits(long f, int e, byte[] buffer, int pos) {
+        while (f % 10 == 0) {
+            f /= 10;
+            e++;
+        }
+        int n = 1;
+        for (long p = 10; n < 19 && p <= f; p *= 10) n++;
+        // Write the n digits at pos, then move them into place for the chosen layout
+        for (int i = pos + n - 1; i >= pos; i--) {
+            buffer[i] = (byte) ('0' + f % 10);
+            f /= 10;
+        }
+        int point = n + e; // the value is 0.d1d2..dn * 10^point
+        if (point > 0 && point <= 7) {
+            if (point >= n) {
+                for (int i = pos + n; i < pos + point; i++) buffer[i] = '0';
+                buffer[pos + point] = '.';
+                buffer[pos + point + 1] = '0';
+                return pos + point + 2;
+            }
+            System.arraycopy(buffer, pos + point, buffer, pos + point + 1, n - point);
+            buffer[pos + point] = '.';
+            return pos + n + 1;
+        }
+        if (point > -3 && point <= 0) {
+            int zeros = 2 - point; // "0." and -point zeros
+            System.arraycopy(buffer, pos, buffer, pos + zeros, n);
+            buffer[pos] = '0';
+            buffer[pos + 1] = '.';
+            for (int i = pos + 2; i < pos + zeros; i++) buffer[i] = '0';
+            return pos + zeros + n;
+        }
+        // d1.d2..dnE(point - 1), with at least one digit after the point
+        if (n > 1) System.arraycopy(buffer, pos + 1, buffer, pos + 2, n - 1);
+        else buffer[pos + 2] = '0';
+        buffer[pos + 1] = '.';
+        pos += Math.max(n, 2) + 1;
+        buffer[pos++] = 'E';
+        int exponent = point - 1;
+        if (exponent < 0) {
+            buffer[pos++] = '-';
+            exponent = -exponent;
+        }
+        if (exponent >= 100) buffer[pos++] = (byte) ('0' + exponent / 100);
+        if (exponent >= 10) buffer[pos++] = (byte) ('0' + exponent / 10 % 10);
+        buffer[pos++] = (byte) ('0' + exponent % 10);
+        return pos;
+    }
+
+    private static int copy(byte[] text, byte[] buffer, int pos) {
+        System.arraycopy(text, 0, buffer, pos, text.length);
+        return pos + text.length;
+    }
+}
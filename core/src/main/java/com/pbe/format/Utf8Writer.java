@@ -0,0 +1,191 @@
+package com.pbe.format;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/** Writes text and numbers as UTF-8 into one reusable byte buffer, which is flushed to a channel when full.
+ System.out.println("iOb value = " + iOb) unboxes iOb, creates a StringBuilder, a String for the number,
+ a String for the line and a byte[] for its encoding. Here the digits of an int, long or double are written straight
+ into the buffer, so once the writer exists nothing is allocated per call:
+ - int and long: two digits per step from a table, like Integer.toString does
+ - double: the shortest decimal that reads back as the same double, laid out as Double.toString does
+ - char, boolean and CharSequence: encoded to UTF-8 on the fly
+ For a FileChannel (new FileOutputStream(FileDescriptor.out).getChannel() is standard output), flush() hands the
+ buffer to the channel directly. Not thread-safe.
+ */
+public final class Utf8Writer implements Closeable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private static final byte[] DIGIT_PAIRS = new byte[200];
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+    private static final byte[] INT_MIN = "-2147483648".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] LONG_MIN = "-9223372036854775808".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_NUMBER_LENGTH = Math.max(20, DoubleFormat.MAX_LENGTH);
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGIT_PAIRS[2 * i] = (byte) ('0' + i / 10);
+            DIGIT_PAIRS[2 * i + 1] = (byte) ('0' + i % 10);
+        }
+    }
+
+    private final WritableByteChannel channel;
+    private final byte[] buffer;
+    private final ByteBuffer view; // wraps buffer, for the channel writes
+    private int pos;
+
+    public Utf8Writer(WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    public Utf8Writer(WritableByteChannel channel, int bufferSize) {
+        if (bufferSize < MAX_NUMBER_LENGTH) throw new IllegalArgumentException("Buffer size must be at least " + MAX_NUMBER_LENGTH + ": " + bufferSize);
+        this.channel = channel;
+        this.buffer = new byte[bufferSize];
+        this.view = ByteBuffer.wrap(buffer);
+    }
+
+    public Utf8Writer append(int value) throws IOException {
+        if (value == Integer.MIN_VALUE) return appendBytes(INT_MIN);
+        ensure(11);
+        int length = value < 0 ? stringSize(-value) + 1 : stringSize(value);
+        int end = pos + length;
+        int i = end;
+        int v = Math.abs(value);
+        while (v >= 100) {
+            int pair = v % 100;
+            v /= 100;
+            buffer[--i] = DIGIT_PAIRS[2 * pair + 1];
+            buffer[--i] = DIGIT_PAIRS[2 * pair];
+        }
+        if (v >= 10) {
+            buffer[--i] = DIGIT_PAIRS[2 * v + 1];
+            buffer[--i] = DIGIT_PAIRS[2 * v];
+        } else {
+            buffer[--i] = (byte) ('0' + v);
+        }
+        if (value < 0) buffer[--i] = '-';
+        pos = end;
+        return this;
+    }
+
+    public Utf8Writer append(long value) throws IOException {
+        if (value == (int) value) return append((int) value);
+        if (value == Long.MIN_VALUE) return appendBytes(LONG_MIN);
+        ensure(20);
+        long v = Math.abs(value);
+        int length = value < 0 ? stringSize(v) + 1 : stringSize(v);
+        int end = pos + length;
+        int i = end;
+        while (v >= 100) {
+            int pair = (int) (v % 100);
+            v /= 100;
+            buffer[--i] = DIGIT_PAIRS[2 * pair + 1];
+            buffer[--i] = DIGIT_PAIRS[2 * pair];
+        }
+        // one or two digits left
+        buffer[--i] = DIGIT_PAIRS[2 * (int) v + 1];
+        if (v >= 10) buffer[--i] = DIGIT_PAIRS[2 * (int) v];
+        if (value < 0) buffer[--i] = '-';
+        pos = end;
+        return this;
+    }
+
+    public Utf8Writer append(double value) throws IOException {
+        ensure(DoubleFormat.MAX_LENGTH);
+        pos = DoubleFormat.write(value, buffer, pos);
+        return this;
+    }
+
+    public Utf8Writer append(boolean value) throws IOException {
+        return appendBytes(value ? TRUE : FALSE);
+    }
+
+    // A lone surrogate has no UTF-8 encoding and is written as '?', as String.getBytes does
+    public Utf8Writer append(char c) throws IOException {
+        ensure(3);
+        if (c < 0x80) {
+            buffer[pos++] = (byte) c;
+        } else if (c < 0x800) {
+            buffer[pos++] = (byte) (0xC0 | c >> 6);
+            buffer[pos++] = (byte) (0x80 | c & 0x3F);
+        } else if (Character.isSurrogate(c)) {
+            buffer[pos++] = '?';
+        } else {
+            buffer[pos++] = (byte) (0xE0 | c >> 12);
+            buffer[pos++] = (byte) (0x80 | c >> 6 & 0x3F);
+            buffer[pos++] = (byte) (0x80 | c & 0x3F);
+        }
+        return this;
+    }
+
+    public Utf8Writer append(CharSequence text) throws IOException {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                if (pos == buffer.length) flush();
+                buffer[pos++] = (byte) c;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                ensure(4);
+                buffer[pos++] = (byte) (0xF0 | codePoint >> 18);
+                buffer[pos++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                buffer[pos++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                buffer[pos++] = (byte) (0x80 | codePoint & 0x3F);
+            } else {
+                append(c);
+            }
+        }
+        return this;
+    }
+
+    public Utf8Writer newLine() throws IOException {
+        if (pos == buffer.length) flush();
+        buffer[pos++] = '\n';
+        return this;
+    }
+
+    // Writes the buffered bytes to the channel
+    public void flush() throws IOException {
+        view.clear().limit(pos);
+        while (view.hasRemaining()) channel.write(view);
+        pos = 0;
+    }
+
+    // Flushes and closes the channel
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    private Utf8Writer appendBytes(byte[] bytes) throws IOException {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, pos, bytes.length);
+        pos += bytes.length;
+        return this;
+    }
+
+    private void ensure(int room) throws IOException {
+        if (buffer.length - pos < room) flush();
+    }
+
+    // Number of digits of a non-negative int
+    private static int stringSize(int v) {
+        int size = 1;
+        for (int p = 10; size < 10 && v >= p; p *= 10) size++;
+        return size;
+    }
+
+    private static int stringSize(long v) {
+        int size = 1;
+        for (long p = 10; size < 19 && v >= p; p *= 10) size++;
+        return size;
+    }
+}
@@ -0,0 +1,9 @@
+package com.pbe.function;
+
+/** Operation on two boolean operands producing a boolean result; the boolean specialization of BinaryOperator<Boolean>.
+ */
+@FunctionalInterface
+public interface BooleanBinaryOperator {
+
+    boolean applyAsBoolean(boolean left, boolean right);
+}
@@ -0,0 +1,9 @@
+package com.pbe.function;
+
+/** Operation that accepts a single boolean argument and returns no result; the boolean specialization of Consumer<Boolean>.
+ */
+@FunctionalInterface
+public interface BooleanConsumer {
+
+    void accept(boolean value);
+}
@@ -0,0 +1,9 @@
+package com.pbe.function;
+
+/** Operation on a single boolean operand producing a boolean result; the boolean specialization of UnaryOperator<Boolean>.
+ */
+@FunctionalInterface
+public interface BooleanUnaryOperator {
+
+    boolean applyAsBoolean(boolean operand);
+}
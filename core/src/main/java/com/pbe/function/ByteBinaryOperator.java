@@ -0,0 +1,9 @@
+package com.pbe.function;
+
+/** Operation on two byte operands producing a byte result; the byte specialization of BinaryOperator<Byte>.
+ */
+@FunctionalInterface
+public interface ByteBinaryOperator {
+
+    byte applyAsByte(byte left, byte right);
+}
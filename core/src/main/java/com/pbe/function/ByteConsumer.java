@@ -0,0 +1,16 @@
+package com.pbe.function;
+
+/** Operation that accepts a single byte argument and returns no result; the byte specialization of Consumer<Byte>.
+ */
+@FunctionalInterface
+public interface ByteConsumer {
+
+    void accept(byte value);
+
+    default ByteConsumer andThen(ByteConsumer after) {
+        return value -> {
+            accept(value);
+            after.accept(value);
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package com.pbe.function;
+
+/** Predicate of one byte argument; the byte specialization of Predicate<Byte>.
+ */
+@FunctionalInterface
+public interface BytePredicate {
+
+    boolean test(byte value);
+
+    default BytePredicate negate() {
+        return value -> !test(value);
+    }
+
+    default BytePredicate and(BytePredicate other) {
+        return value -> test(value) && other.test(value);
+    }
+
+    default BytePredicate or(BytePredicate other) {
+        return value -> test(value) || other.test(value);
+    }
+}
@@ -0,0 +1,9 @@
+package com.pbe.function;
+
+/** Supplier of byte results; the byte specialization of Supplier<Byte>.
+ */
+@FunctionalInterface
+public interface ByteSupplier {
+
+    byte getAsByte();
+}
@@ -0,0 +1,9 @@
+package com.pbe.function;
+
+/** Function from a byte argument to an int result.
+ */
+@FunctionalInterface
+public interface ByteToIntFunction {
+
+    int applyAsInt(byte value);
+}
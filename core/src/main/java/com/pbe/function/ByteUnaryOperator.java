@@ -0,0 +1,13 @@
+package com.pbe.function;
+
+/** Operation on a single byte operand producing a byte result; the byte specialization of UnaryOperator<Byte>.
+ */
+@FunctionalInterface
+public interface ByteUnaryOperator {
+
+    byte applyAsByte(byte operand);
+
+    default ByteUnaryOperator andThen(ByteUnaryOperator after) {
+        return operand -> after.applyAsByte(applyAsByte(operand));
+    }
+}
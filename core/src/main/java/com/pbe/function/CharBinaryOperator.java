@@ -0,0 +1,9 @@
+package com.pbe.function;
+
+/** Operation on two char operands producing a char result; the char specialization of BinaryOperator<Character>.
+ */
+@FunctionalInterface
+public interface CharBinaryOperator {
+
+    char applyAsChar(char left, char right);
+}
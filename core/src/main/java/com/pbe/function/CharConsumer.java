@@ -0,0 +1,16 @@
+package com.pbe.function;
+
+/** Operation that accepts a single char argument and returns no result; the char specialization of Consumer<Character>.
+ */
+@FunctionalInterface
+public interface CharConsumer {
+
+    void accept(char value);
+
+    default CharConsumer andThen(CharConsumer after) {
+        return value -> {
+            accept(value);
+            after.accept(value);
+        };
+    }
+}
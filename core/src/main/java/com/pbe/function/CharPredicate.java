@@ -0,0 +1,21 @@
+package com.pbe.function;
+
+/** Predicate of one char argument; the char specialization of Predicate<Character>.
+ */
+@FunctionalInterface
+public interface CharPredicate {
+
+    boolean test(char value);
+
+    default CharPredicate negate() {
+        return value -> !test(value);
+    }
+
+    default CharPredicate and(CharPredicate other) {
+        return value -> test(value) && other.test(value);
+    }
+
+    default CharPredicate or(CharPredicate other) {
+        return value -> test(value) || other.test(value);
+    }
+}
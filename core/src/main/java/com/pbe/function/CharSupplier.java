@@ -0,0 +1,9 @@
+package com.pbe.function;
+
+/** Supplier of char results; the char specialization of Supplier<Character>.
+ */
+@FunctionalInterface
+public interface CharSupplier {
+
+    char getAsChar();
+}
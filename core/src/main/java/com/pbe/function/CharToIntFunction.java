@@ -0,0 +1,9 @@
+package com.pbe.function;
+
+/** Function from a char argument to an int result.
+ */
+@FunctionalInterface
+public interface CharToIntFunction {
+
+    int applyAsInt(char value);
+}
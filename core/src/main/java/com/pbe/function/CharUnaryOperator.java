@@ -0,0 +1,13 @@
+package com.pbe.function;
+
+/** Operation on a single char operand producing a char result; the char specialization of UnaryOperator<Character>.
+ */
+@FunctionalInterface
+public interface CharUnaryOperator {
+
+    char applyAsChar(char operand);
+
+    default CharUnaryOperator andThen(CharUnaryOperator after) {
+        return operand -> after.applyAsChar(applyAsChar(operand));
+    }
+}
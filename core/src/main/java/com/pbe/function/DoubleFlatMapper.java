@@ -0,0 +1,12 @@
+package com.pbe.function;
+
+import java.util.function.DoubleConsumer;
+
+/** Maps one double value to zero or more double values by passing each to downstream, as DoubleStream.mapMulti does;
+ unlike DoubleStream.flatMap it needs no stream or array per value.
+ */
+@FunctionalInterface
+public interface DoubleFlatMapper {
+
+    void flatMap(double value, DoubleConsumer downstream);
+}
@@ -0,0 +1,9 @@
+package com.pbe.function;
+
+/** Function from a double argument to a float result.
+ */
+@FunctionalInterface
+public interface DoubleToFloatFunction {
+
+    float applyAsFloat(double value);
+}
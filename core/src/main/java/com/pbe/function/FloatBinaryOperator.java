@@ -0,0 +1,9 @@
+package com.pbe.function;
+
+/** Operation on two float operands producing a float result; the float specialization of BinaryOperator<Float>.
+ */
+@FunctionalInterface
+public interface FloatBinaryOperator {
+
+    float applyAsFloat(float left, float right);
+}
@@ -0,0 +1,16 @@
+package com.pbe.function;
+
+/** Operation that accepts a single float argument and returns no result; the float specialization of Consumer<Float>.
+ */
+@FunctionalInterface
+public interface FloatConsumer {
+
+    void accept(float value);
+
+    default FloatConsumer andThen(FloatConsumer after) {
+        return value -> {
+            accept(value);
+            after.accept(value);
+        };
+    }
+}
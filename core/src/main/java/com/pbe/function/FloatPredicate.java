@@ -0,0 +1,21 @@
+package com.pbe.function;
+
+/** Predicate of one float argument; the float specialization of Predicate<Float>.
+ */
+@FunctionalInterface
+public interface FloatPredicate {
+
+    boolean test(float value);
+
+    default FloatPredicate negate() {
+        return value -> !test(value);
+    }
+
+    default FloatPredicate and(FloatPredicate other) {
+        return value -> test(value) && other.test(value);
+    }
+
+    default FloatPredicate or(FloatPredicate other) {
+        return value -> test(value) || other.test(value);
+    }
+}
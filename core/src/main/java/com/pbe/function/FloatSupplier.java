@@ -0,0 +1,9 @@
+package com.pbe.function;
+
+/** Supplier of float results; the float specialization of Supplier<Float>.
+ */
+@FunctionalInterface
+public interface FloatSupplier {
+
+    float getAsFloat();
+}
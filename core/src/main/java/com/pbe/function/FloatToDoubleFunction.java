@@ -0,0 +1,9 @@
+package com.pbe.function;
+
+/** Function from a float argument to a double result.
+ */
+@FunctionalInterface
+public interface FloatToDoubleFunction {
+
+    double applyAsDouble(float value);
+}
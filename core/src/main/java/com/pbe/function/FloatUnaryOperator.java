@@ -0,0 +1,13 @@
+package com.pbe.function;
+
+/** Operation on a single float operand producing a float result; the float specialization of UnaryOperator<Float>.
+ */
+@FunctionalInterface
+public interface FloatUnaryOperator {
+
+    float applyAsFloat(float operand);
+
+    default FloatUnaryOperator andThen(FloatUnaryOperator after) {
+        return operand -> after.applyAsFloat(applyAsFloat(operand));
+    }
+}
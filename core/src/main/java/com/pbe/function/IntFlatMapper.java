@@ -0,0 +1,12 @@
+package com.pbe.function;
+
+import java.util.function.IntConsumer;
+
+/** Maps one int value to zero or more int values by passing each to downstream, as IntStream.mapMulti does;
+ unlike IntStream.flatMap it needs no stream or array per value.
+ */
+@FunctionalInterface
+public interface IntFlatMapper {
+
+    void flatMap(int value, IntConsumer downstream);
+}
@@ -0,0 +1,9 @@
+package com.pbe.function;
+
+/** Operation that accepts an int and a long argument and returns no result; the specialization of BiConsumer<Integer, Long>.
+ */
+@FunctionalInterface
+public interface IntLongConsumer {
+
+    void accept(int key, long value);
+}
@@ -0,0 +1,9 @@
+package com.pbe.function;
+
+/** Function from an int argument to a byte result.
+ */
+@FunctionalInterface
+public interface IntToByteFunction {
+
+    byte applyAsByte(int value);
+}
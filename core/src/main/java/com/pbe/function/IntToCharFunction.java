@@ -0,0 +1,9 @@
+package com.pbe.function;
+
+/** Function from an int argument to a char result.
+ */
+@FunctionalInterface
+public interface IntToCharFunction {
+
+    char applyAsChar(int value);
+}
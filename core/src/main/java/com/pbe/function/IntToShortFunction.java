@@ -0,0 +1,9 @@
+package com.pbe.function;
+
+/** Function from an int argument to a short result.
+ */
+@FunctionalInterface
+public interface IntToShortFunction {
+
+    short applyAsShort(int value);
+}
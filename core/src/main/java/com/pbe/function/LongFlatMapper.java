@@ -0,0 +1,12 @@
+package com.pbe.function;
+
+import java.util.function.LongConsumer;
+
+/** Maps one long value to zero or more long values by passing each to downstream, as LongStream.mapMulti does;
+ unlike LongStream.flatMap it needs no stream or array per value.
+ */
+@FunctionalInterface
+public interface LongFlatMapper {
+
+    void flatMap(long value, LongConsumer downstream);
+}
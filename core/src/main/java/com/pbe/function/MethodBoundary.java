@@ -0,0 +1,74 @@
+package com.pbe.function;
+
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongUnaryOperator;
+
+/** Boxing-free counterparts of the method parameter/return example in Main.
+ Main.autoboxme(Integer x) boxes its argument on every call and unboxes it on return.
+ The methods below take and return primitives end-to-end, both for direct calls and for calls through
+ a functional interface, where Function<Integer, Integer> would box on the way in and on the way out.
+ The JDK covers int, long and double (IntUnaryOperator, IntBinaryOperator, LongToDoubleFunction, ...);
+ this package fills the gaps for byte, short, char, float and boolean.
+ */
+public final class MethodBoundary {
+
+    private MethodBoundary() {
+    }
+
+    // autoboxme() without the boxing: an int in, an int out
+    public static int passThrough(int x) {
+        return x;
+    }
+
+    public static long passThrough(long x) {
+        return x;
+    }
+
+    public static double passThrough(double x) {
+        return x;
+    }
+
+    public static char passThrough(char x) {
+        return x;
+    }
+
+    // One name per type, like the JDK's applyAsInt/applyAsLong: overloads differing only in the functional
+    // interface would make a call with a lambda, MethodBoundary.applyAsInt(x -> x + 1, 5), ambiguous
+    public static int applyAsInt(IntUnaryOperator function, int x) {
+        return function.applyAsInt(x);
+    }
+
+    public static int applyAsInt(IntBinaryOperator function, int x, int y) {
+        return function.applyAsInt(x, y);
+    }
+
+    public static long applyAsLong(LongUnaryOperator function, long x) {
+        return function.applyAsLong(x);
+    }
+
+    public static double applyAsDouble(DoubleUnaryOperator function, double x) {
+        return function.applyAsDouble(x);
+    }
+
+    public static byte applyAsByte(ByteUnaryOperator function, byte x) {
+        return function.applyAsByte(x);
+    }
+
+    public static short applyAsShort(ShortUnaryOperator function, short x) {
+        return function.applyAsShort(x);
+    }
+
+    public static char applyAsChar(CharUnaryOperator function, char x) {
+        return function.applyAsChar(x);
+    }
+
+    public static float applyAsFloat(FloatUnaryOperator function, float x) {
+        return function.applyAsFloat(x);
+    }
+
+    public static boolean applyAsBoolean(BooleanUnaryOperator function, boolean x) {
+        return function.applyAsBoolean(x);
+    }
+}
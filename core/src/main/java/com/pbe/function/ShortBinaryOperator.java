@@ -0,0 +1,9 @@
+package com.pbe.function;
+
+/** Operation on two short operands producing a short result; the short specialization of BinaryOperator<Short>.
+ */
+@FunctionalInterface
+public interface ShortBinaryOperator {
+
+    short applyAsShort(short left, short right);
+}
@@ -0,0 +1,16 @@
+package com.pbe.function;
+
+/** Operation that accepts a single short argument and returns no result; the short specialization of Consumer<Short>.
+ */
+@FunctionalInterface
+public interface ShortConsumer {
+
+    void accept(short value);
+
+    default ShortConsumer andThen(ShortConsumer after) {
+        return value -> {
+            accept(value);
+            after.accept(value);
+        };
+    }
+}
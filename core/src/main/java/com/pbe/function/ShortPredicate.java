@@ -0,0 +1,21 @@
+package com.pbe.function;
+
+/** Predicate of one short argument; the short specialization of Predicate<Short>.
+ */
+@FunctionalInterface
+public interface ShortPredicate {
+
+    boolean test(short value);
+
+    default ShortPredicate negate() {
+        return value -> !test(value);
+    }
+
+    default ShortPredicate and(ShortPredicate other) {
+        return value -> test(value) && other.test(value);
+    }
+
+    default ShortPredicate or(ShortPredicate other) {
+        return value -> test(value) || other.test(value);
+    }
+}
@@ -0,0 +1,9 @@
+package com.pbe.function;
+
+/** Supplier of short results; the short specialization of Supplier<Short>.
+ */
+@FunctionalInterface
+public interface ShortSupplier {
+
+    short getAsShort();
+}
@@ -0,0 +1,9 @@
+package com.pbe.function;
+
+/** Function from a short argument to an int result.
+ */
+@FunctionalInterface
+public interface ShortToIntFunction {
+
+    int applyAsInt(short value);
+}
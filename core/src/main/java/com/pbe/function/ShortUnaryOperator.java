@@ -0,0 +1,13 @@
+package com.pbe.function;
+
+/** Operation on a single short operand producing a short result; the short specialization of UnaryOperator<Short>.
+ */
+@FunctionalInterface
+public interface ShortUnaryOperator {
+
+    short applyAsShort(short operand);
+
+    default ShortUnaryOperator andThen(ShortUnaryOperator after) {
+        return operand -> after.applyAsShort(applyAsShort(operand));
+    }
+}
@@ -0,0 +1,78 @@
+package com.pbe.metrics;
+
+import jdk.jfr.EventType;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/** Marks a region of code whose wrapper allocations should be visible in production, as a JDK Flight Recorder event.
+ try (BoxingRegion region = BoxingRegion.enter("expressions")) {
+     iObB = iObA + (iObA / 3);
+ }
+ Each region records its name, its duration and the bytes the thread allocated in it, read from the thread
+ allocation counter at enter and close. The counter sees every allocation, not only wrappers, so the box count
+ (bytes / 16, the size of an Integer or Float with compressed oops) is exact only for regions that allocate nothing else.
+ When no recording has the event enabled, enter() returns a shared no-op region: one volatile read, no allocation,
+ no counter reads. Start a recording with: java -XX:StartFlightRecording:filename=boxing.jfr ...
+ A region belongs to the thread that entered it and must be closed on that thread.
+ */
+public final class BoxingRegion implements AutoCloseable {
+
+    // Shallow size of an Integer, Float or Character with compressed oops: 12-byte header, value, padding to 16
+    static final int BOX_BYTES = 16;
+
+    private static final EventType TYPE = EventType.getEventType(BoxingRegionEvent.class);
+    private static final BoxingRegion DISABLED = new BoxingRegion(null, 0);
+
+    private final BoxingRegionEvent event;
+    private final long allocatedAtStart;
+
+    private BoxingRegion(BoxingRegionEvent event, long allocatedAtStart) {
+        this.event = event;
+        this.allocatedAtStart = allocatedAtStart;
+    }
+
+    public static BoxingRegion enter(String name) {
+        if (!TYPE.isEnabled()) return DISABLED;
+        BoxingRegionEvent event = new BoxingRegionEvent();
+        event.region = name;
+        BoxingRegion region = new BoxingRegion(event, allocatedBytes()); // the counter is read after both objects exist
+        event.begin();
+        return region;
+    }
+
+    // Whether a recording currently has the event enabled
+    public static boolean isEnabled() {
+        return TYPE.isEnabled();
+    }
+
+    @Override
+    public void close() {
+        if (event == null) return;
+        long allocated = allocatedBytes() - allocatedAtStart;
+        event.end();
+        if (!event.shouldCommit()) return;
+        event.allocated = allocated;
+        event.boxes = allocated / BOX_BYTES;
+        event.commit();
+    }
+
+    // Bytes allocated by the current thread so far, 0 when the JVM does not count them
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = Counter.THREADS;
+        return threads == null ? 0 : threads.getCurrentThreadAllocatedBytes();
+    }
+
+    // Loaded on the first enabled region only, so that a disabled region never starts the management classes
+    private static final class Counter {
+
+        static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+
+        private static com.sun.management.ThreadMXBean allocationCounter() {
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            if (!(threads instanceof com.sun.management.ThreadMXBean)) return null;
+            com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) threads;
+            return counter.isThreadAllocatedMemorySupported() && counter.isThreadAllocatedMemoryEnabled() ? counter : null;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.pbe.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** JDK Flight Recorder event for one pass through a BoxingRegion; the duration is the event's own start and end time.
+ Shows up in JDK Mission Control under Autoboxing, or with: jfr print --events com.pbe.BoxingRegion recording.jfr
+ */
+@Name(BoxingRegionEvent.NAME)
+@Label("Boxing Region")
+@Category("Autoboxing")
+@Description("Code region that may box primitives, with the bytes the thread allocated in it")
+@StackTrace(false)
+public final class BoxingRegionEvent extends Event {
+
+    public static final String NAME = "com.pbe.BoxingRegion";
+
+    @Label("Region")
+    String region;
+
+    @Label("Allocated")
+    @Description("Bytes allocated by the thread in the region, from the thread allocation counter")
+    @DataAmount
+    long allocated;
+
+    @Label("Boxes")
+    @Description("Allocated bytes divided by the size of an Integer: the number of wrappers if the region allocated nothing else")
+    long boxes;
+}
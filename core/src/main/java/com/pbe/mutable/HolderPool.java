@@ -0,0 +1,173 @@
+package com.pbe.mutable;
+
+import java.util.Arrays;
+
+/** Per-thread pool of mutable holders, handed out within a scope and taken back when the scope closes:
+ try (HolderPool.Scope scope = HolderPool.open()) {
+     MutableInt min = scope.mutableInt(Integer.MAX_VALUE);
+     MutableInt max = scope.mutableInt(Integer.MIN_VALUE);
+     minMax(values, min, max);
+     return max.get() - min.get();
+ }
+ Out-parameters and accumulators of a method called in a hot loop are then allocated on the first calls only.
+ Scopes nest; holders taken in a scope may be used until that scope closes, and not after: the next scope
+ hands the same objects out again. Scopes must be closed in reverse order of opening, on the thread that opened them,
+ which try-with-resources does. Each Scope knows its nesting level, so closing a scope twice or out of order, or
+ taking a holder from a scope that is closed or has another scope open inside it, throws IllegalStateException
+ right away instead of corrupting the pool. The Scope objects are reused per level, so a Scope kept after close()
+ counts as the one opened next at its level.
+
+ Safe with virtual threads: the pool lives in a ThreadLocal, so every thread, platform or virtual, has its own,
+ and a virtual thread that moves to another carrier thread inside a scope keeps its pool. Nothing is cached per
+ carrier thread, and there is no locking that could pin one. Each pool is small and goes away with its thread,
+ and when the outermost scope closes it drops holders beyond MAX_RETAINED per type, so a burst of deep use
+ does not stay around. With many short-lived threads each pays for its own first holders; pooling pays off for
+ threads that run many scopes.
+ */
+public final class HolderPool {
+
+    // Holders kept per type once the outermost scope has closed
+    public static final int MAX_RETAINED = 64;
+
+    private static final ThreadLocal<HolderPool> POOLS = ThreadLocal.withInitial(HolderPool::new);
+
+    private final Thread owner = Thread.currentThread();
+    private Scope[] scopes = new Scope[8]; // the Scope of each nesting level, created on first use
+
+    private MutableInt[] ints = new MutableInt[8];
+    private MutableLong[] longs = new MutableLong[8];
+    private MutableDouble[] doubles = new MutableDouble[8];
+    private MutableBoolean[] booleans = new MutableBoolean[8];
+    private MutableChar[] chars = new MutableChar[8];
+    private int intTop;
+    private int longTop;
+    private int doubleTop;
+    private int booleanTop;
+    private int charTop;
+
+    // Tops of the five stacks at the start of each open scope, five ints per nesting level
+    private int[] marks = new int[5 * 8];
+    private int depth;
+
+    private HolderPool() {
+    }
+
+    // Opens a scope on the pool of the current thread; scopes at the same nesting level share one Scope object
+    public static Scope open() {
+        return POOLS.get().enter();
+    }
+
+    // Drops the pool of the current thread, for a thread that will not open scopes again
+    public static void release() {
+        HolderPool pool = POOLS.get();
+        if (pool.depth != 0) throw new IllegalStateException("Cannot release the pool inside an open scope");
+        POOLS.remove();
+    }
+
+    private Scope enter() {
+        int m = 5 * depth;
+        if (m == marks.length) marks = Arrays.copyOf(marks, marks.length * 2);
+        marks[m] = intTop;
+        marks[m + 1] = longTop;
+        marks[m + 2] = doubleTop;
+        marks[m + 3] = booleanTop;
+        marks[m + 4] = charTop;
+        if (depth == scopes.length) scopes = Arrays.copyOf(scopes, scopes.length * 2);
+        Scope scope = scopes[depth];
+        if (scope == null) scopes[depth] = scope = new Scope(depth);
+        depth++;
+        return scope;
+    }
+
+    private void exit(Scope scope) {
+        checkInnermost(scope);
+        int m = 5 * --depth;
+        intTop = marks[m];
+        longTop = marks[m + 1];
+        doubleTop = marks[m + 2];
+        booleanTop = marks[m + 3];
+        charTop = marks[m + 4];
+        if (depth == 0) trim();
+    }
+
+    private void trim() {
+        if (ints.length > MAX_RETAINED) ints = Arrays.copyOf(ints, MAX_RETAINED);
+        if (longs.length > MAX_RETAINED) longs = Arrays.copyOf(longs, MAX_RETAINED);
+        if (doubles.length > MAX_RETAINED) doubles = Arrays.copyOf(doubles, MAX_RETAINED);
+        if (booleans.length > MAX_RETAINED) booleans = Arrays.copyOf(booleans, MAX_RETAINED);
+        if (chars.length > MAX_RETAINED) chars = Arrays.copyOf(chars, MAX_RETAINED);
+    }
+
+    // Only the innermost open scope may hand out holders or close
+    private void checkInnermost(Scope scope) {
+        if (Thread.currentThread() != owner) throw new IllegalStateException("Scope used on another thread than the one that opened it");
+        if (depth <= scope.level) throw new IllegalStateException("Scope already closed");
+        if (depth > scope.level + 1) throw new IllegalStateException("Scope used while a scope opened inside it is still open");
+    }
+
+    /** An open scope of the current thread's pool. Closing it returns the holders taken since it was opened.
+     */
+    public final class Scope implements AutoCloseable {
+
+        private final int level;
+
+        private Scope(int level) {
+            this.level = level;
+        }
+
+        public MutableInt mutableInt(int value) {
+            checkInnermost(this);
+            if (intTop == ints.length) ints = Arrays.copyOf(ints, ints.length * 2);
+            MutableInt holder = ints[intTop];
+            if (holder == null) ints[intTop] = holder = new MutableInt();
+            intTop++;
+            holder.set(value);
+            return holder;
+        }
+
+        public MutableLong mutableLong(long value) {
+            checkInnermost(this);
+            if (longTop == longs.length) longs = Arrays.copyOf(longs, longs.length * 2);
+            MutableLong holder = longs[longTop];
+            if (holder == null) longs[longTop] = holder = new MutableLong();
+            longTop++;
+            holder.set(value);
+            return holder;
+        }
+
+        public MutableDouble mutableDouble(double value) {
+            checkInnermost(this);
+            if (doubleTop == doubles.length) doubles = Arrays.copyOf(doubles, doubles.length * 2);
+            MutableDouble holder = doubles[doubleTop];
+            if (holder == null) doubles[doubleTop] = holder = new MutableDouble();
+            doubleTop++;
+            holder.set(value);
+            return holder;
+        }
+
+        public MutableBoolean mutableBoolean(boolean value) {
+            checkInnermost(this);
+            if (booleanTop == booleans.length) booleans = Arrays.copyOf(booleans, booleans.length * 2);
+            MutableBoolean holder = booleans[booleanTop];
+            if (holder == null) booleans[booleanTop] = holder = new MutableBoolean();
+            booleanTop++;
+            holder.set(value);
+            return holder;
+        }
+
+        public MutableChar mutableChar(char value) {
+            checkInnermost(this);
+            if (charTop == chars.length) chars = Arrays.copyOf(chars, chars.length * 2);
+            MutableChar holder = chars[charTop];
+            if (holder == null) chars[charTop] = holder = new MutableChar();
+            charTop++;
+            holder.set(value);
+            return holder;
+        }
+
+        @Override
+        public void close() {
+            exit(this);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.pbe.mutable;
+
+/** Mutable boolean holder, for a flag that a called method sets, such as "found" or "changed". See MutableInt.
+ */
+public final class MutableBoolean implements Comparable<MutableBoolean> {
+
+    private boolean value;
+
+    public MutableBoolean() {
+    }
+
+    public MutableBoolean(boolean value) {
+        this.value = value;
+    }
+
+    public boolean get() {
+        return value;
+    }
+
+    public void set(boolean value) {
+        this.value = value;
+    }
+
+    public void setTrue() {
+        value = true;
+    }
+
+    public void setFalse() {
+        value = false;
+    }
+
+    // Sets the value and returns the previous one
+    public boolean getAndSet(boolean value) {
+        boolean old = this.value;
+        this.value = value;
+        return old;
+    }
+
+    @Override
+    public int compareTo(MutableBoolean other) {
+        return Boolean.compare(value, other.value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof MutableBoolean && ((MutableBoolean) o).value == value;
+    }
+
+    @Override
+    public int hashCode() {
+        return Boolean.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        return Boolean.toString(value);
+    }
+}
@@ -0,0 +1,44 @@
+package com.pbe.mutable;
+
+/** Mutable char holder, for passing a char by reference. Character.valueOf only caches 0..127, so returning
+ a new Character for every other char allocates. See MutableInt.
+ */
+public final class MutableChar implements Comparable<MutableChar> {
+
+    private char value;
+
+    public MutableChar() {
+    }
+
+    public MutableChar(char value) {
+        this.value = value;
+    }
+
+    public char get() {
+        return value;
+    }
+
+    public void set(char value) {
+        this.value = value;
+    }
+
+    @Override
+    public int compareTo(MutableChar other) {
+        return Character.compare(value, other.value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof MutableChar && ((MutableChar) o).value == value;
+    }
+
+    @Override
+    public int hashCode() {
+        return Character.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(value);
+    }
+}
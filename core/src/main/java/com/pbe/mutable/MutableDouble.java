@@ -0,0 +1,81 @@
+package com.pbe.mutable;
+
+/** Mutable double holder, for passing a double by reference or accumulating into it,
+ where dObA = dObA + iObA creates a new Double. See MutableInt.
+ equals compares with Double.compare semantics, as Double.equals does: NaN equals NaN, 0.0 differs from -0.0.
+ */
+public final class MutableDouble extends Number implements Comparable<MutableDouble> {
+
+    private static final long serialVersionUID = 1L;
+
+    private double value;
+
+    public MutableDouble() {
+    }
+
+    public MutableDouble(double value) {
+        this.value = value;
+    }
+
+    public double get() {
+        return value;
+    }
+
+    public void set(double value) {
+        this.value = value;
+    }
+
+    public void add(double delta) {
+        value += delta;
+    }
+
+    public double addAndGet(double delta) {
+        return value += delta;
+    }
+
+    public double getAndAdd(double delta) {
+        double old = value;
+        value += delta;
+        return old;
+    }
+
+    @Override
+    public int intValue() {
+        return (int) value;
+    }
+
+    @Override
+    public long longValue() {
+        return (long) value;
+    }
+
+    @Override
+    public float floatValue() {
+        return (float) value;
+    }
+
+    @Override
+    public double doubleValue() {
+        return value;
+    }
+
+    @Override
+    public int compareTo(MutableDouble other) {
+        return Double.compare(value, other.value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof MutableDouble && Double.compare(((MutableDouble) o).value, value) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Double.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        return Double.toString(value);
+    }
+}
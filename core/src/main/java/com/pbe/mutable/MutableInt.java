@@ -0,0 +1,100 @@
+package com.pbe.mutable;
+
+/** Mutable int holder, for passing an int by reference or accumulating into it.
+ The header of Main lists passing a primitive "by reference to a method" as a reason for type wrappers, but an Integer
+ is immutable: a method cannot change it, only return a new one, and every new value outside -128..127 is an allocation.
+ A MutableInt is allocated once and updated in place.
+ equals and hashCode follow the current value, as for Integer; a holder whose value changes while it is a key in a
+ hash-based collection is lost there, so do not use holders as keys.
+ */
+public final class MutableInt extends Number implements Comparable<MutableInt> {
+
+    private static final long serialVersionUID = 1L;
+
+    private int value;
+
+    public MutableInt() {
+    }
+
+    public MutableInt(int value) {
+        this.value = value;
+    }
+
+    public int get() {
+        return value;
+    }
+
+    public void set(int value) {
+        this.value = value;
+    }
+
+    public void increment() {
+        value++;
+    }
+
+    public void decrement() {
+        value--;
+    }
+
+    public void add(int delta) {
+        value += delta;
+    }
+
+    public int incrementAndGet() {
+        return ++value;
+    }
+
+    public int getAndIncrement() {
+        return value++;
+    }
+
+    public int addAndGet(int delta) {
+        return value += delta;
+    }
+
+    public int getAndAdd(int delta) {
+        int old = value;
+        value += delta;
+        return old;
+    }
+
+    @Override
+    public int intValue() {
+        return value;
+    }
+
+    @Override
+    public long longValue() {
+        return value;
+    }
+
+    @Override
+    public float floatValue() {
+        return value;
+    }
+
+    @Override
+    public double doubleValue() {
+        return value;
+    }
+
+    @Override
+    public int compareTo(MutableInt other) {
+        return Integer.compare(value, other.value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof MutableInt && ((MutableInt) o).value == value;
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        return Integer.toString(value);
+    }
+}
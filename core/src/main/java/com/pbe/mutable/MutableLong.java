@@ -0,0 +1,98 @@
+package com.pbe.mutable;
+
+/** Mutable long holder, for passing a long by reference or accumulating into it.
+ A Long is immutable, so a method cannot update one, only return a new one; a MutableLong is allocated once and
+ updated in place. See MutableInt.
+ equals and hashCode follow the current value, as for Long; do not use holders as keys in hash-based collections.
+ */
+public final class MutableLong extends Number implements Comparable<MutableLong> {
+
+    private static final long serialVersionUID = 1L;
+
+    private long value;
+
+    public MutableLong() {
+    }
+
+    public MutableLong(long value) {
+        this.value = value;
+    }
+
+    public long get() {
+        return value;
+    }
+
+    public void set(long value) {
+        this.value = value;
+    }
+
+    public void increment() {
+        value++;
+    }
+
+    public void decrement() {
+        value--;
+    }
+
+    public void add(long delta) {
+        value += delta;
+    }
+
+    public long incrementAndGet() {
+        return ++value;
+    }
+
+    public long getAndIncrement() {
+        return value++;
+    }
+
+    public long addAndGet(long delta) {
+        return value += delta;
+    }
+
+    public long getAndAdd(long delta) {
+        long old = value;
+        value += delta;
+        return old;
+    }
+
+    @Override
+    public int intValue() {
+        return (int) value;
+    }
+
+    @Override
+    public long longValue() {
+        return value;
+    }
+
+    @Override
+    public float floatValue() {
+        return value;
+    }
+
+    @Override
+    public double doubleValue() {
+        return value;
+    }
+
+    @Override
+    public int compareTo(MutableLong other) {
+        return Long.compare(value, other.value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof MutableLong && ((MutableLong) o).value == value;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(value);
+    }
+}
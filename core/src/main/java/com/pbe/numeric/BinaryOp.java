@@ -0,0 +1,7 @@
+package com.pbe.numeric;
+
+/** Arithmetic operators the promotion engine applies element by element.
+ */
+public enum BinaryOp {
+    ADD, SUBTRACT, MULTIPLY, DIVIDE, REMAINDER
+}
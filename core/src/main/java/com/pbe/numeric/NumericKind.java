@@ -0,0 +1,17 @@
+package com.pbe.numeric;
+
+/** The seven numeric primitive types, ordered so binary numeric promotion can be computed from them.
+ */
+public enum NumericKind {
+
+    BYTE, SHORT, CHAR, INT, LONG, FLOAT, DOUBLE;
+
+    // Binary numeric promotion (JLS 5.6.2): double if either is double, else float, else long, else int.
+    // byte, short and char never survive: byte + byte is an int, just like Integer + Integer in Main is unboxed to int.
+    public static NumericKind promote(NumericKind left, NumericKind right) {
+        if (left == DOUBLE || right == DOUBLE) return DOUBLE;
+        if (left == FLOAT || right == FLOAT) return FLOAT;
+        if (left == LONG || right == LONG) return LONG;
+        return INT;
+    }
+}
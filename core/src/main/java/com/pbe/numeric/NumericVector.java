@@ -0,0 +1,182 @@
+package com.pbe.numeric;
+
+/** A column of numeric values of one primitive type, backed by a primitive array (not copied).
+ The widening conversions follow Java: byte and short are sign-extended, char is zero-extended,
+ int and long converted to float or double are rounded to nearest.
+ */
+public final class NumericVector {
+
+    private final NumericKind kind;
+    private final Object array;
+    private final int length;
+
+    private NumericVector(NumericKind kind, Object array, int length) {
+        this.kind = kind;
+        this.array = array;
+        this.length = length;
+    }
+
+    public static NumericVector of(byte[] values) {
+        return new NumericVector(NumericKind.BYTE, values, values.length);
+    }
+
+    public static NumericVector of(short[] values) {
+        return new NumericVector(NumericKind.SHORT, values, values.length);
+    }
+
+    public static NumericVector of(char[] values) {
+        return new NumericVector(NumericKind.CHAR, values, values.length);
+    }
+
+    public static NumericVector of(int[] values) {
+        return new NumericVector(NumericKind.INT, values, values.length);
+    }
+
+    public static NumericVector of(long[] values) {
+        return new NumericVector(NumericKind.LONG, values, values.length);
+    }
+
+    public static NumericVector of(float[] values) {
+        return new NumericVector(NumericKind.FLOAT, values, values.length);
+    }
+
+    public static NumericVector of(double[] values) {
+        return new NumericVector(NumericKind.DOUBLE, values, values.length);
+    }
+
+    public NumericKind kind() {
+        return kind;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    // The backing array, for a vector of kind BYTE
+    public byte[] bytes() {
+        checkKind(NumericKind.BYTE);
+        return (byte[]) array;
+    }
+
+    public short[] shorts() {
+        checkKind(NumericKind.SHORT);
+        return (short[]) array;
+    }
+
+    public char[] chars() {
+        checkKind(NumericKind.CHAR);
+        return (char[]) array;
+    }
+
+    public int[] ints() {
+        checkKind(NumericKind.INT);
+        return (int[]) array;
+    }
+
+    public long[] longs() {
+        checkKind(NumericKind.LONG);
+        return (long[]) array;
+    }
+
+    public float[] floats() {
+        checkKind(NumericKind.FLOAT);
+        return (float[]) array;
+    }
+
+    public double[] doubles() {
+        checkKind(NumericKind.DOUBLE);
+        return (double[]) array;
+    }
+
+    // The values widened to int; only valid for BYTE, SHORT, CHAR and INT vectors. INT returns the backing array.
+    public int[] toIntArray() {
+        switch (kind) {
+            case BYTE: {
+                byte[] src = (byte[]) array;
+                int[] dst = new int[length];
+                for (int i = 0; i < length; i++) dst[i] = src[i];
+                return dst;
+            }
+            case SHORT: {
+                short[] src = (short[]) array;
+                int[] dst = new int[length];
+                for (int i = 0; i < length; i++) dst[i] = src[i];
+                return dst;
+            }
+            case CHAR: {
+                char[] src = (char[]) array;
+                int[] dst = new int[length];
+                for (int i = 0; i < length; i++) dst[i] = src[i];
+                return dst;
+            }
+            case INT:
+                return (int[]) array;
+            default:
+                throw new IllegalStateException("Cannot widen " + kind + " to INT");
+        }
+    }
+
+    // The values widened to long; not valid for FLOAT and DOUBLE vectors. LONG returns the backing array.
+    public long[] toLongArray() {
+        if (kind == NumericKind.LONG) return (long[]) array;
+        if (kind == NumericKind.FLOAT || kind == NumericKind.DOUBLE) throw new IllegalStateException("Cannot widen " + kind + " to LONG");
+        int[] src = toIntArray();
+        long[] dst = new long[length];
+        for (int i = 0; i < length; i++) dst[i] = src[i];
+        return dst;
+    }
+
+    // The values widened to float; not valid for DOUBLE vectors. FLOAT returns the backing array.
+    public float[] toFloatArray() {
+        float[] dst;
+        switch (kind) {
+            case FLOAT:
+                return (float[]) array;
+            case DOUBLE:
+                throw new IllegalStateException("Cannot widen DOUBLE to FLOAT");
+            case LONG: {
+                long[] src = (long[]) array;
+                dst = new float[length];
+                for (int i = 0; i < length; i++) dst[i] = src[i];
+                return dst;
+            }
+            default: {
+                int[] src = toIntArray();
+                dst = new float[length];
+                for (int i = 0; i < length; i++) dst[i] = src[i];
+                return dst;
+            }
+        }
+    }
+
+    // The values widened to double. DOUBLE returns the backing array.
+    public double[] toDoubleArray() {
+        double[] dst;
+        switch (kind) {
+            case DOUBLE:
+                return (double[]) array;
+            case FLOAT: {
+                float[] src = (float[]) array;
+                dst = new double[length];
+                for (int i = 0; i < length; i++) dst[i] = src[i];
+                return dst;
+            }
+            case LONG: {
+                long[] src = (long[]) array;
+                dst = new double[length];
+                for (int i = 0; i < length; i++) dst[i] = src[i];
+                return dst;
+            }
+            default: {
+                int[] src = toIntArray();
+                dst = new double[length];
+                for (int i = 0; i < length; i++) dst[i] = src[i];
+                return dst;
+            }
+        }
+    }
+
+    private void checkKind(NumericKind expected) {
+        if (kind != expected) throw new IllegalStateException("Vector is " + kind + ", not " + expected);
+    }
+}
@@ -0,0 +1,121 @@
+package com.pbe.numeric;
+
+/** Applies an arithmetic operator to two numeric columns of any primitive types, with Java's promotion rules.
+ Main's dObA = dObA + iObA unboxes both values, widens the int to double and re-boxes the outcome.
+ Done on columns of wrappers, that is an unbox, widen and box per element. This engine instead:
+ 1. determines the promoted type once per column pair, e.g. INT + DOUBLE is DOUBLE
+ 2. widens each operand column in one bulk pass (no copy when it already has the promoted type)
+ 3. runs a tight loop over primitive arrays, producing a primitive result column
+ The results are bit-identical to the boxed path: the same conversions and the same arithmetic, minus the wrappers.
+ Integer division by zero throws ArithmeticException, as it does in Java.
+ */
+public final class Promotion {
+
+    private Promotion() {
+    }
+
+    public static NumericVector apply(BinaryOp op, NumericVector left, NumericVector right) {
+        if (left.length() != right.length()) {
+            throw new IllegalArgumentException("Length mismatch: " + left.length() + " vs " + right.length());
+        }
+        switch (NumericKind.promote(left.kind(), right.kind())) {
+            case INT:
+                return NumericVector.of(apply(op, left.toIntArray(), right.toIntArray()));
+            case LONG:
+                return NumericVector.of(apply(op, left.toLongArray(), right.toLongArray()));
+            case FLOAT:
+                return NumericVector.of(apply(op, left.toFloatArray(), right.toFloatArray()));
+            default:
+                return NumericVector.of(apply(op, left.toDoubleArray(), right.toDoubleArray()));
+        }
+    }
+
+    // One loop per operator, so the loop body has no branch and the JIT can vectorize it
+    static int[] apply(BinaryOp op, int[] a, int[] b) {
+        int n = a.length;
+        int[] r = new int[n];
+        switch (op) {
+            case ADD:
+                for (int i = 0; i < n; i++) r[i] = a[i] + b[i];
+                break;
+            case SUBTRACT:
+                for (int i = 0; i < n; i++) r[i] = a[i] - b[i];
+                break;
+            case MULTIPLY:
+                for (int i = 0; i < n; i++) r[i] = a[i] * b[i];
+                break;
+            case DIVIDE:
+                for (int i = 0; i < n; i++) r[i] = a[i] / b[i];
+                break;
+            default:
+                for (int i = 0; i < n; i++) r[i] = a[i] % b[i];
+        }
+        return r;
+    }
+
+    static long[] apply(BinaryOp op, long[] a, long[] b) {
+        int n = a.length;
+        long[] r = new long[n];
+        switch (op) {
+            case ADD:
+                for (int i = 0; i < n; i++) r[i] = a[i] + b[i];
+                break;
+            case SUBTRACT:
+                for (int i = 0; i < n; i++) r[i] = a[i] - b[i];
+                break;
+            case MULTIPLY:
+                for (int i = 0; i < n; i++) r[i] = a[i] * b[i];
+                break;
+            case DIVIDE:
+                for (int i = 0; i < n; i++) r[i] = a[i] / b[i];
+                break;
+            default:
+                for (int i = 0; i < n; i++) r[i] = a[i] % b[i];
+        }
+        return r;
+    }
+
+    static float[] apply(BinaryOp op, float[] a, float[] b) {
+        int n = a.length;
+        float[] r = new float[n];
+        switch (op) {
+            case ADD:
+                for (int i = 0; i < n; i++) r[i] = a[i] + b[i];
+                break;
+            case SUBTRACT:
+                for (int i = 0; i < n; i++) r[i] = a[i] - b[i];
+                break;
+            case MULTIPLY:
+                for (int i = 0; i < n; i++) r[i] = a[i] * b[i];
+                break;
+            case DIVIDE:
+                for (int i = 0; i < n; i++) r[i] = a[i] / b[i];
+                break;
+            default:
+                for (int i = 0; i < n; i++) r[i] = a[i] % b[i];
+        }
+        return r;
+    }
+
+    static double[] apply(BinaryOp op, double[] a, double[] b) {
+        int n = a.length;
+        double[] r = new double[n];
+        switch (op) {
+            case ADD:
+                for (int i = 0; i < n; i++) r[i] = a[i] + b[i];
+                break;
+            case SUBTRACT:
+                for (int i = 0; i < n; i++) r[i] = a[i] - b[i];
+                break;
+            case MULTIPLY:
+                for (int i = 0; i < n; i++) r[i] = a[i] * b[i];
+                break;
+            case DIVIDE:
+                for (int i = 0; i < n; i++) r[i] = a[i] / b[i];
+                break;
+            default:
+                for (int i = 0; i < n; i++) r[i] = a[i] % b[i];
+        }
+        return r;
+    }
+}
@@ -0,0 +1,219 @@
+package com.pbe.stream;
+
+import java.util.Spliterator;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/** Spliterators over a range of a primitive array, or a range of ints, that split in half down to MIN_SPLIT values.
+ java.util.Spliterators splits down to single values; here a parallel pipeline stops at chunks worth a task anyway,
+ and forEachRemaining is a plain indexed loop over the array.
+ */
+final class ArraySpliterators {
+
+    // No split leaves fewer values than this on either side
+    static final int MIN_SPLIT = 256;
+
+    private static final int CHARACTERISTICS = Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.IMMUTABLE;
+
+    private ArraySpliterators() {
+    }
+
+    static void checkRange(int length, int from, int to) {
+        if (from < 0 || from > to || to > length) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for length " + length);
+        }
+    }
+
+    // Index of the split point of [from, to), or -1 when the range is too small to split
+    private static int splitPoint(int from, int to) {
+        return to - from < 2 * MIN_SPLIT ? -1 : (from + to) >>> 1;
+    }
+
+    static final class OfInts implements Spliterator.OfInt {
+
+        private final int[] values;
+        private int from;
+        private final int to;
+
+        OfInts(int[] values, int from, int to) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public OfInt trySplit() {
+            int mid = splitPoint(from, to);
+            if (mid < 0) return null;
+            OfInts prefix = new OfInts(values, from, mid);
+            from = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (from >= to) return false;
+            action.accept(values[from++]);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            int[] a = values;
+            int end = to;
+            for (int i = from; i < end; i++) action.accept(a[i]);
+            from = end;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+    }
+
+    static final class OfLongs implements Spliterator.OfLong {
+
+        private final long[] values;
+        private int from;
+        private final int to;
+
+        OfLongs(long[] values, int from, int to) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public OfLong trySplit() {
+            int mid = splitPoint(from, to);
+            if (mid < 0) return null;
+            OfLongs prefix = new OfLongs(values, from, mid);
+            from = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (from >= to) return false;
+            action.accept(values[from++]);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            long[] a = values;
+            int end = to;
+            for (int i = from; i < end; i++) action.accept(a[i]);
+            from = end;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+    }
+
+    static final class OfDoubles implements Spliterator.OfDouble {
+
+        private final double[] values;
+        private int from;
+        private final int to;
+
+        OfDoubles(double[] values, int from, int to) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public OfDouble trySplit() {
+            int mid = splitPoint(from, to);
+            if (mid < 0) return null;
+            OfDoubles prefix = new OfDoubles(values, from, mid);
+            from = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            if (from >= to) return false;
+            action.accept(values[from++]);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(DoubleConsumer action) {
+            double[] a = values;
+            int end = to;
+            for (int i = from; i < end; i++) action.accept(a[i]);
+            from = end;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+    }
+
+    // The ints from (inclusive) to to (exclusive), computed rather than read from an array
+    static final class OfRange implements Spliterator.OfInt {
+
+        private int from;
+        private final int to;
+
+        OfRange(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public OfInt trySplit() {
+            long remaining = (long) to - from;
+            if (remaining < 2 * MIN_SPLIT) return null;
+            int mid = (int) (from + remaining / 2);
+            OfRange prefix = new OfRange(from, mid);
+            from = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (from >= to) return false;
+            action.accept(from++);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            int end = to;
+            for (int i = from; i < end; i++) action.accept(i);
+            from = end;
+        }
+
+        @Override
+        public long estimateSize() {
+            return (long) to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+    }
+}
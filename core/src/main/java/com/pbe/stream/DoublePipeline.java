@@ -0,0 +1,215 @@
+package com.pbe.stream;
+
+import com.pbe.collections.DoubleList;
+import com.pbe.function.DoubleFlatMapper;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BinaryOperator;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleToIntFunction;
+import java.util.function.DoubleToLongFunction;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/** Pipeline of double values from a double[] or a DoubleList, or mapped from an int or long pipeline; the double
+ counterpart of IntPipeline, lazy and fused the same way, with the same rules for parallel().
+ sum() adds in encounter order without the compensation DoubleStream.sum() applies, so over many values of mixed
+ magnitude it can be less accurate, and a parallel sum, which adds per chunk, can differ in the last bits.
+ */
+public final class DoublePipeline {
+
+    private final Supplier<? extends Spliterator<?>> source;
+    private final UnaryOperator<Sink> stages; // from a sink for this pipeline's values to a sink for the source's values
+    private final ForkJoinPool pool; // null when sequential
+
+    DoublePipeline(Supplier<? extends Spliterator<?>> source, UnaryOperator<Sink> stages, ForkJoinPool pool) {
+        this.source = source;
+        this.stages = stages;
+        this.pool = pool;
+    }
+
+    public static DoublePipeline of(double... values) {
+        return of(values, 0, values.length);
+    }
+
+    // The values from index from (inclusive) to to (exclusive), read when a terminal operation runs
+    public static DoublePipeline of(double[] values, int from, int to) {
+        ArraySpliterators.checkRange(values.length, from, to);
+        return new DoublePipeline(() -> new ArraySpliterators.OfDoubles(values, from, to), UnaryOperator.identity(), null);
+    }
+
+    public static DoublePipeline of(DoubleList list) {
+        Objects.requireNonNull(list, "list");
+        return new DoublePipeline(list::spliterator, UnaryOperator.identity(), null);
+    }
+
+    public DoublePipeline map(DoubleUnaryOperator mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return new DoublePipeline(source, then(down -> new Sink() {
+            @Override
+            public void accept(double value) {
+                down.accept(mapper.applyAsDouble(value));
+            }
+        }), pool);
+    }
+
+    public DoublePipeline filter(DoublePredicate predicate) {
+        Objects.requireNonNull(predicate, "predicate");
+        return new DoublePipeline(source, then(down -> new Sink() {
+            @Override
+            public void accept(double value) {
+                if (predicate.test(value)) down.accept(value);
+            }
+        }), pool);
+    }
+
+    // Replaces each value with the values the mapper passes on, in that order
+    public DoublePipeline flatMap(DoubleFlatMapper mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return new DoublePipeline(source, then(down -> new Sink() {
+            @Override
+            public void accept(double value) {
+                mapper.flatMap(value, down);
+            }
+        }), pool);
+    }
+
+    public IntPipeline mapToInt(DoubleToIntFunction mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return new IntPipeline(source, then(down -> new Sink() {
+            @Override
+            public void accept(double value) {
+                down.accept(mapper.applyAsInt(value));
+            }
+        }), pool);
+    }
+
+    public LongPipeline mapToLong(DoubleToLongFunction mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return new LongPipeline(source, then(down -> new Sink() {
+            @Override
+            public void accept(double value) {
+                down.accept(mapper.applyAsLong(value));
+            }
+        }), pool);
+    }
+
+    // The same pipeline, with terminal operations run on the common ForkJoinPool
+    public DoublePipeline parallel() {
+        return parallel(ForkJoinPool.commonPool());
+    }
+
+    public DoublePipeline parallel(ForkJoinPool pool) {
+        return new DoublePipeline(source, stages, Objects.requireNonNull(pool, "pool"));
+    }
+
+    public DoublePipeline sequential() {
+        return pool == null ? this : new DoublePipeline(source, stages, null);
+    }
+
+    public boolean isParallel() {
+        return pool != null;
+    }
+
+    public double reduce(double identity, DoubleBinaryOperator op) {
+        Objects.requireNonNull(op, "op");
+        return evaluate(() -> new Sink.Terminal<Double>() {
+            private double result = identity;
+
+            @Override
+            public void accept(double value) {
+                result = op.applyAsDouble(result, value);
+            }
+
+            @Override
+            Double result() {
+                return result; // boxed once per chunk, not per value
+            }
+        }, (a, b) -> op.applyAsDouble(a, b));
+    }
+
+    public double sum() {
+        return evaluate(() -> new Sink.Terminal<Double>() {
+            private double sum;
+
+            @Override
+            public void accept(double value) {
+                sum += value;
+            }
+
+            @Override
+            Double result() {
+                return sum;
+            }
+        }, Double::sum);
+    }
+
+    public long count() {
+        return evaluate(() -> new Sink.Terminal<Long>() {
+            private long count;
+
+            @Override
+            public void accept(double value) {
+                count++;
+            }
+
+            @Override
+            Long result() {
+                return count;
+            }
+        }, Long::sum);
+    }
+
+    public void forEach(DoubleConsumer action) {
+        Objects.requireNonNull(action, "action");
+        evaluate(() -> new Sink.Terminal<Void>() {
+            @Override
+            public void accept(double value) {
+                action.accept(value);
+            }
+
+            @Override
+            Void result() {
+                return null;
+            }
+        }, (a, b) -> null);
+    }
+
+    public double[] toArray() {
+        return toList().toArray();
+    }
+
+    public DoubleList toList() {
+        return evaluate(() -> new Sink.Terminal<DoubleList>() {
+            private final DoubleList list = new DoubleList();
+
+            @Override
+            public void accept(double value) {
+                list.add(value);
+            }
+
+            @Override
+            DoubleList result() {
+                return list;
+            }
+        }, (a, b) -> {
+            a.addAll(b);
+            return a;
+        });
+    }
+
+    // The stages so far followed by stage
+    private UnaryOperator<Sink> then(UnaryOperator<Sink> stage) {
+        UnaryOperator<Sink> before = stages;
+        return down -> before.apply(stage.apply(down));
+    }
+
+    private <R> R evaluate(Supplier<? extends Sink.Terminal<R>> terminal, BinaryOperator<R> combiner) {
+        return Evaluator.evaluate(source, stages, pool, terminal, combiner);
+    }
+}
@@ -0,0 +1,77 @@
+package com.pbe.stream;
+
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/** Runs a terminal operation: builds the sink chain for the pipeline's stages and pushes the source through it.
+ Sequentially that is one chain over the whole source. In parallel the source spliterator is split into chunks
+ of about a quarter of the pool's fair share each; every chunk gets its own chain and terminal, on a
+ fork/join task, and the results of neighbouring chunks are combined left to right, so encounter order is kept.
+ */
+final class Evaluator {
+
+    // Chunks smaller than this are not worth a task of their own
+    private static final long MIN_CHUNK = 4096;
+
+    private Evaluator() {
+    }
+
+    // source: the values at the head of the pipeline; stages: turns a sink for the pipeline's output into a sink
+    // for the source's values; pool: null to run on the calling thread
+    static <R> R evaluate(Supplier<? extends Spliterator<?>> source, UnaryOperator<Sink> stages, ForkJoinPool pool,
+                          Supplier<? extends Sink.Terminal<R>> terminal, BinaryOperator<R> combiner) {
+        Spliterator<?> spliterator = source.get();
+        if (pool == null) return run(spliterator, stages, terminal);
+        long chunk = Math.max(MIN_CHUNK, spliterator.estimateSize() / (4L * pool.getParallelism()));
+        return pool.invoke(new Task<>(spliterator, stages, terminal, combiner, chunk));
+    }
+
+    private static <R> R run(Spliterator<?> spliterator, UnaryOperator<Sink> stages, Supplier<? extends Sink.Terminal<R>> terminal) {
+        Sink.Terminal<R> last = terminal.get();
+        Sink head = stages.apply(last);
+        if (spliterator instanceof Spliterator.OfInt) ((Spliterator.OfInt) spliterator).forEachRemaining((IntConsumer) head);
+        else if (spliterator instanceof Spliterator.OfLong) ((Spliterator.OfLong) spliterator).forEachRemaining((LongConsumer) head);
+        else if (spliterator instanceof Spliterator.OfDouble) ((Spliterator.OfDouble) spliterator).forEachRemaining((DoubleConsumer) head);
+        else throw new IllegalArgumentException("Not a primitive spliterator: " + spliterator.getClass().getName());
+        return last.result();
+    }
+
+    private static final class Task<R> extends RecursiveTask<R> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Spliterator<?> spliterator;
+        private final UnaryOperator<Sink> stages;
+        private final Supplier<? extends Sink.Terminal<R>> terminal;
+        private final BinaryOperator<R> combiner;
+        private final long chunk;
+
+        Task(Spliterator<?> spliterator, UnaryOperator<Sink> stages, Supplier<? extends Sink.Terminal<R>> terminal,
+             BinaryOperator<R> combiner, long chunk) {
+            this.spliterator = spliterator;
+            this.stages = stages;
+            this.terminal = terminal;
+            this.combiner = combiner;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected R compute() {
+            Spliterator<?> prefix;
+            if (spliterator.estimateSize() > chunk && (prefix = spliterator.trySplit()) != null) {
+                Task<R> left = new Task<>(prefix, stages, terminal, combiner, chunk);
+                left.fork();
+                R right = new Task<>(spliterator, stages, terminal, combiner, chunk).compute();
+                return combiner.apply(left.join(), right);
+            }
+            return run(spliterator, stages, terminal);
+        }
+    }
+}
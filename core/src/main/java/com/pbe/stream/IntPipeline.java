@@ -0,0 +1,235 @@
+package com.pbe.stream;
+
+import com.pbe.collections.IntList;
+import com.pbe.function.IntFlatMapper;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BinaryOperator;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/** Pipeline of int values from an int[], an IntList or a range, for the code that would otherwise write
+ list.stream().map(...).filter(...).reduce(0, Integer::sum) over a List<Integer> and box every value on the way:
+ IntPipeline.of(list).map(v -> v * 3).filter(v -> v % 2 == 0).sum()
+ Lazy: map, filter and flatMap only record a stage and return a new pipeline; nothing is read until a terminal
+ operation (reduce, sum, count, forEach, toArray, toList). The stages are then fused into one chain that each value
+ runs through before the next is read, so there are no intermediate arrays and no value is ever boxed.
+ A pipeline is a description and can be run again; a pipeline over an IntList sees the list as it is at that time.
+ parallel() runs terminal operations on a ForkJoinPool, splitting the source into chunks. reduce then needs an
+ associative operator and an identity value for it; forEach calls its action from several threads, in no set order;
+ toArray and toList keep the source order.
+ */
+public final class IntPipeline {
+
+    private final Supplier<? extends Spliterator<?>> source;
+    private final UnaryOperator<Sink> stages; // from a sink for this pipeline's values to a sink for the source's values
+    private final ForkJoinPool pool; // null when sequential
+
+    IntPipeline(Supplier<? extends Spliterator<?>> source, UnaryOperator<Sink> stages, ForkJoinPool pool) {
+        this.source = source;
+        this.stages = stages;
+        this.pool = pool;
+    }
+
+    public static IntPipeline of(int... values) {
+        return of(values, 0, values.length);
+    }
+
+    // The values from index from (inclusive) to to (exclusive), read when a terminal operation runs
+    public static IntPipeline of(int[] values, int from, int to) {
+        ArraySpliterators.checkRange(values.length, from, to);
+        return new IntPipeline(() -> new ArraySpliterators.OfInts(values, from, to), UnaryOperator.identity(), null);
+    }
+
+    public static IntPipeline of(IntList list) {
+        Objects.requireNonNull(list, "list");
+        return new IntPipeline(list::spliterator, UnaryOperator.identity(), null);
+    }
+
+    // from (inclusive) to to (exclusive); empty when to <= from
+    public static IntPipeline range(int from, int to) {
+        return new IntPipeline(() -> new ArraySpliterators.OfRange(from, Math.max(from, to)), UnaryOperator.identity(), null);
+    }
+
+    public IntPipeline map(IntUnaryOperator mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return new IntPipeline(source, then(down -> new Sink() {
+            @Override
+            public void accept(int value) {
+                down.accept(mapper.applyAsInt(value));
+            }
+        }), pool);
+    }
+
+    public IntPipeline filter(IntPredicate predicate) {
+        Objects.requireNonNull(predicate, "predicate");
+        return new IntPipeline(source, then(down -> new Sink() {
+            @Override
+            public void accept(int value) {
+                if (predicate.test(value)) down.accept(value);
+            }
+        }), pool);
+    }
+
+    // Replaces each value with the values the mapper passes on, in that order
+    public IntPipeline flatMap(IntFlatMapper mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return new IntPipeline(source, then(down -> new Sink() {
+            @Override
+            public void accept(int value) {
+                mapper.flatMap(value, down);
+            }
+        }), pool);
+    }
+
+    public LongPipeline mapToLong(IntToLongFunction mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return new LongPipeline(source, then(down -> new Sink() {
+            @Override
+            public void accept(int value) {
+                down.accept(mapper.applyAsLong(value));
+            }
+        }), pool);
+    }
+
+    public DoublePipeline mapToDouble(IntToDoubleFunction mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return new DoublePipeline(source, then(down -> new Sink() {
+            @Override
+            public void accept(int value) {
+                down.accept(mapper.applyAsDouble(value));
+            }
+        }), pool);
+    }
+
+    public LongPipeline asLongPipeline() {
+        return mapToLong(value -> value);
+    }
+
+    public DoublePipeline asDoublePipeline() {
+        return mapToDouble(value -> value);
+    }
+
+    // The same pipeline, with terminal operations run on the common ForkJoinPool
+    public IntPipeline parallel() {
+        return parallel(ForkJoinPool.commonPool());
+    }
+
+    public IntPipeline parallel(ForkJoinPool pool) {
+        return new IntPipeline(source, stages, Objects.requireNonNull(pool, "pool"));
+    }
+
+    public IntPipeline sequential() {
+        return pool == null ? this : new IntPipeline(source, stages, null);
+    }
+
+    public boolean isParallel() {
+        return pool != null;
+    }
+
+    public int reduce(int identity, IntBinaryOperator op) {
+        Objects.requireNonNull(op, "op");
+        return evaluate(() -> new Sink.Terminal<Integer>() {
+            private int result = identity;
+
+            @Override
+            public void accept(int value) {
+                result = op.applyAsInt(result, value);
+            }
+
+            @Override
+            Integer result() {
+                return result; // boxed once per chunk, not per value
+            }
+        }, (a, b) -> op.applyAsInt(a, b));
+    }
+
+    // Sum as a long, so it does not overflow where IntStream.sum() would
+    public long sum() {
+        return evaluate(() -> new Sink.Terminal<Long>() {
+            private long sum;
+
+            @Override
+            public void accept(int value) {
+                sum += value;
+            }
+
+            @Override
+            Long result() {
+                return sum;
+            }
+        }, Long::sum);
+    }
+
+    public long count() {
+        return evaluate(() -> new Sink.Terminal<Long>() {
+            private long count;
+
+            @Override
+            public void accept(int value) {
+                count++;
+            }
+
+            @Override
+            Long result() {
+                return count;
+            }
+        }, Long::sum);
+    }
+
+    public void forEach(IntConsumer action) {
+        Objects.requireNonNull(action, "action");
+        evaluate(() -> new Sink.Terminal<Void>() {
+            @Override
+            public void accept(int value) {
+                action.accept(value);
+            }
+
+            @Override
+            Void result() {
+                return null;
+            }
+        }, (a, b) -> null);
+    }
+
+    public int[] toArray() {
+        return toList().toArray();
+    }
+
+    public IntList toList() {
+        return evaluate(() -> new Sink.Terminal<IntList>() {
+            private final IntList list = new IntList();
+
+            @Override
+            public void accept(int value) {
+                list.add(value);
+            }
+
+            @Override
+            IntList result() {
+                return list;
+            }
+        }, (a, b) -> {
+            a.addAll(b);
+            return a;
+        });
+    }
+
+    // The stages so far followed by stage
+    private UnaryOperator<Sink> then(UnaryOperator<Sink> stage) {
+        UnaryOperator<Sink> before = stages;
+        return down -> before.apply(stage.apply(down));
+    }
+
+    private <R> R evaluate(Supplier<? extends Sink.Terminal<R>> terminal, BinaryOperator<R> combiner) {
+        return Evaluator.evaluate(source, stages, pool, terminal, combiner);
+    }
+}
@@ -0,0 +1,217 @@
+package com.pbe.stream;
+
+import com.pbe.collections.LongList;
+import com.pbe.function.LongFlatMapper;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BinaryOperator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/** Pipeline of long values from a long[] or a LongList, or mapped from an IntPipeline; the long counterpart of
+ IntPipeline, lazy and fused the same way, with the same rules for parallel().
+ */
+public final class LongPipeline {
+
+    private final Supplier<? extends Spliterator<?>> source;
+    private final UnaryOperator<Sink> stages; // from a sink for this pipeline's values to a sink for the source's values
+    private final ForkJoinPool pool; // null when sequential
+
+    LongPipeline(Supplier<? extends Spliterator<?>> source, UnaryOperator<Sink> stages, ForkJoinPool pool) {
+        this.source = source;
+        this.stages = stages;
+        this.pool = pool;
+    }
+
+    public static LongPipeline of(long... values) {
+        return of(values, 0, values.length);
+    }
+
+    // The values from index from (inclusive) to to (exclusive), read when a terminal operation runs
+    public static LongPipeline of(long[] values, int from, int to) {
+        ArraySpliterators.checkRange(values.length, from, to);
+        return new LongPipeline(() -> new ArraySpliterators.OfLongs(values, from, to), UnaryOperator.identity(), null);
+    }
+
+    public static LongPipeline of(LongList list) {
+        Objects.requireNonNull(list, "list");
+        return new LongPipeline(list::spliterator, UnaryOperator.identity(), null);
+    }
+
+    public LongPipeline map(LongUnaryOperator mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return new LongPipeline(source, then(down -> new Sink() {
+            @Override
+            public void accept(long value) {
+                down.accept(mapper.applyAsLong(value));
+            }
+        }), pool);
+    }
+
+    public LongPipeline filter(LongPredicate predicate) {
+        Objects.requireNonNull(predicate, "predicate");
+        return new LongPipeline(source, then(down -> new Sink() {
+            @Override
+            public void accept(long value) {
+                if (predicate.test(value)) down.accept(value);
+            }
+        }), pool);
+    }
+
+    // Replaces each value with the values the mapper passes on, in that order
+    public LongPipeline flatMap(LongFlatMapper mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return new LongPipeline(source, then(down -> new Sink() {
+            @Override
+            public void accept(long value) {
+                mapper.flatMap(value, down);
+            }
+        }), pool);
+    }
+
+    public IntPipeline mapToInt(LongToIntFunction mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return new IntPipeline(source, then(down -> new Sink() {
+            @Override
+            public void accept(long value) {
+                down.accept(mapper.applyAsInt(value));
+            }
+        }), pool);
+    }
+
+    public DoublePipeline mapToDouble(LongToDoubleFunction mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return new DoublePipeline(source, then(down -> new Sink() {
+            @Override
+            public void accept(long value) {
+                down.accept(mapper.applyAsDouble(value));
+            }
+        }), pool);
+    }
+
+    public DoublePipeline asDoublePipeline() {
+        return mapToDouble(value -> value);
+    }
+
+    // The same pipeline, with terminal operations run on the common ForkJoinPool
+    public LongPipeline parallel() {
+        return parallel(ForkJoinPool.commonPool());
+    }
+
+    public LongPipeline parallel(ForkJoinPool pool) {
+        return new LongPipeline(source, stages, Objects.requireNonNull(pool, "pool"));
+    }
+
+    public LongPipeline sequential() {
+        return pool == null ? this : new LongPipeline(source, stages, null);
+    }
+
+    public boolean isParallel() {
+        return pool != null;
+    }
+
+    public long reduce(long identity, LongBinaryOperator op) {
+        Objects.requireNonNull(op, "op");
+        return evaluate(() -> new Sink.Terminal<Long>() {
+            private long result = identity;
+
+            @Override
+            public void accept(long value) {
+                result = op.applyAsLong(result, value);
+            }
+
+            @Override
+            Long result() {
+                return result; // boxed once per chunk, not per value
+            }
+        }, (a, b) -> op.applyAsLong(a, b));
+    }
+
+    public long sum() {
+        return evaluate(() -> new Sink.Terminal<Long>() {
+            private long sum;
+
+            @Override
+            public void accept(long value) {
+                sum += value;
+            }
+
+            @Override
+            Long result() {
+                return sum;
+            }
+        }, Long::sum);
+    }
+
+    public long count() {
+        return evaluate(() -> new Sink.Terminal<Long>() {
+            private long count;
+
+            @Override
+            public void accept(long value) {
+                count++;
+            }
+
+            @Override
+            Long result() {
+                return count;
+            }
+        }, Long::sum);
+    }
+
+    public void forEach(LongConsumer action) {
+        Objects.requireNonNull(action, "action");
+        evaluate(() -> new Sink.Terminal<Void>() {
+            @Override
+            public void accept(long value) {
+                action.accept(value);
+            }
+
+            @Override
+            Void result() {
+                return null;
+            }
+        }, (a, b) -> null);
+    }
+
+    public long[] toArray() {
+        return toList().toArray();
+    }
+
+    public LongList toList() {
+        return evaluate(() -> new Sink.Terminal<LongList>() {
+            private final LongList list = new LongList();
+
+            @Override
+            public void accept(long value) {
+                list.add(value);
+            }
+
+            @Override
+            LongList result() {
+                return list;
+            }
+        }, (a, b) -> {
+            a.addAll(b);
+            return a;
+        });
+    }
+
+    // The stages so far followed by stage
+    private UnaryOperator<Sink> then(UnaryOperator<Sink> stage) {
+        UnaryOperator<Sink> before = stages;
+        return down -> before.apply(stage.apply(down));
+    }
+
+    private <R> R evaluate(Supplier<? extends Sink.Terminal<R>> terminal, BinaryOperator<R> combiner) {
+        return Evaluator.evaluate(source, stages, pool, terminal, combiner);
+    }
+}
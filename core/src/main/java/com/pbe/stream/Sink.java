@@ -0,0 +1,34 @@
+package com.pbe.stream;
+
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/** One stage of a pipeline, taking the values of its input type and passing its results on to the next stage.
+ A pipeline of map/filter stages becomes a chain of sinks, so each value travels through every stage before the
+ next value is read: one pass, no intermediate arrays, and nothing boxed. A stage overrides the accept of its
+ input type; the others fail, as the pipeline classes never connect them.
+ */
+abstract class Sink implements IntConsumer, LongConsumer, DoubleConsumer {
+
+    @Override
+    public void accept(int value) {
+        throw new IllegalStateException("Sink does not take int values: " + getClass().getName());
+    }
+
+    @Override
+    public void accept(long value) {
+        throw new IllegalStateException("Sink does not take long values: " + getClass().getName());
+    }
+
+    @Override
+    public void accept(double value) {
+        throw new IllegalStateException("Sink does not take double values: " + getClass().getName());
+    }
+
+    // Last stage of a pipeline, holding the result of a terminal operation over the values it was given
+    abstract static class Terminal<R> extends Sink {
+
+        abstract R result();
+    }
+}
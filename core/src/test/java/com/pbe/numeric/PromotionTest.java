@@ -0,0 +1,256 @@
+package com.pbe.numeric;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/** Promotion against the boxed path it replaces, for every operator and every pair of column types:
+ each value is boxed into its own wrapper, unboxed and promoted by Java, computed and re-boxed, and the result
+ has to be bit-identical to the primitive column (floatToRawIntBits / doubleToRawLongBits for float and double).
+ The columns hold the edge values of each type (zero, -0.0, NaN, infinities, MIN_VALUE/MAX_VALUE, values that
+ round when widened to float) in every left/right combination, so overflow and MIN_VALUE / -1 are covered.
+ Integer division and remainder by zero must throw ArithmeticException, as they do on the boxed path.
+ */
+class PromotionTest {
+
+    private static final byte[] BYTES = {0, 1, -1, 7, -7, Byte.MIN_VALUE, Byte.MAX_VALUE};
+    private static final short[] SHORTS = {0, 1, -1, 300, -300, Short.MIN_VALUE, Short.MAX_VALUE};
+    private static final char[] CHARS = {0, 1, 'A', 0x7FFF, 0x8000, Character.MAX_VALUE};
+    private static final int[] INTS = {0, 1, -1, 3, -3, 123_456_789, (1 << 24) + 1, Integer.MIN_VALUE, Integer.MAX_VALUE};
+    private static final long[] LONGS = {0, 1, -1, 3, -3, (1L << 53) + 1, Integer.MIN_VALUE, Long.MIN_VALUE, Long.MAX_VALUE};
+    private static final float[] FLOATS = {0f, -0f, 1f, -1f, 0.1f, 3.5f, Float.NaN, Float.POSITIVE_INFINITY,
+            Float.NEGATIVE_INFINITY, Float.MIN_VALUE, Float.MAX_VALUE, -Float.MAX_VALUE};
+    private static final double[] DOUBLES = {0d, -0d, 1d, -1d, 0.1, 3.5, Double.NaN, Double.POSITIVE_INFINITY,
+            Double.NEGATIVE_INFINITY, Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE};
+
+    static Stream<Arguments> cases() {
+        List<Arguments> cases = new ArrayList<>();
+        for (BinaryOp op : BinaryOp.values()) {
+            for (NumericKind left : NumericKind.values()) {
+                for (NumericKind right : NumericKind.values()) cases.add(Arguments.of(op, left, right));
+            }
+        }
+        return cases.stream();
+    }
+
+    @ParameterizedTest(name = "{1} {0} {2}")
+    @MethodSource("cases")
+    void primitiveMatchesBoxed(BinaryOp op, NumericKind left, NumericKind right) {
+        NumericKind promoted = NumericKind.promote(left, right);
+        boolean integral = promoted == NumericKind.INT || promoted == NumericKind.LONG;
+        boolean dividing = op == BinaryOp.DIVIDE || op == BinaryOp.REMAINDER;
+
+        // every left value against every right value, leaving out integer division by zero
+        List<Object> lefts = new ArrayList<>();
+        List<Object> rights = new ArrayList<>();
+        for (Object l : boxedEdgeValues(left)) {
+            for (Object r : boxedEdgeValues(right)) {
+                if (integral && dividing && asLong(r) == 0) continue;
+                lefts.add(l);
+                rights.add(r);
+            }
+        }
+        NumericVector result = Promotion.apply(op, column(left, lefts), column(right, rights));
+        assertEquals(promoted, result.kind());
+        for (int i = 0; i < lefts.size(); i++) {
+            Object l = lefts.get(i);
+            Object r = rights.get(i);
+            Object expected = boxedApply(op, promoted, l, r);
+            assertEquals(bits(expected), bits(result, i), () -> l + " " + op + " " + r + ": boxed " + expected);
+        }
+    }
+
+    @ParameterizedTest(name = "{1} {0} {2}")
+    @MethodSource("cases")
+    void integerDivisionByZeroThrows(BinaryOp op, NumericKind left, NumericKind right) {
+        NumericKind promoted = NumericKind.promote(left, right);
+        if (op != BinaryOp.DIVIDE && op != BinaryOp.REMAINDER) return;
+        if (promoted != NumericKind.INT && promoted != NumericKind.LONG) return;
+        Object one = boxedEdgeValues(left).get(1);
+        Object zero = boxedEdgeValues(right).get(0);
+        assertThrows(ArithmeticException.class, () -> boxedApply(op, promoted, one, zero));
+        assertThrows(ArithmeticException.class,
+                () -> Promotion.apply(op, column(left, List.of(one)), column(right, List.of(zero))));
+    }
+
+    // The edge values of a type, each boxed into its own wrapper (Byte, Short, Character, ...); zero comes first
+    private static List<Object> boxedEdgeValues(NumericKind kind) {
+        List<Object> values = new ArrayList<>();
+        switch (kind) {
+            case BYTE:
+                for (byte v : BYTES) values.add(v);
+                break;
+            case SHORT:
+                for (short v : SHORTS) values.add(v);
+                break;
+            case CHAR:
+                for (char v : CHARS) values.add(v);
+                break;
+            case INT:
+                for (int v : INTS) values.add(v);
+                break;
+            case LONG:
+                for (long v : LONGS) values.add(v);
+                break;
+            case FLOAT:
+                for (float v : FLOATS) values.add(v);
+                break;
+            default:
+                for (double v : DOUBLES) values.add(v);
+        }
+        return values;
+    }
+
+    private static NumericVector column(NumericKind kind, List<Object> boxed) {
+        int n = boxed.size();
+        switch (kind) {
+            case BYTE: {
+                byte[] values = new byte[n];
+                for (int i = 0; i < n; i++) values[i] = (Byte) boxed.get(i);
+                return NumericVector.of(values);
+            }
+            case SHORT: {
+                short[] values = new short[n];
+                for (int i = 0; i < n; i++) values[i] = (Short) boxed.get(i);
+                return NumericVector.of(values);
+            }
+            case CHAR: {
+                char[] values = new char[n];
+                for (int i = 0; i < n; i++) values[i] = (Character) boxed.get(i);
+                return NumericVector.of(values);
+            }
+            case INT: {
+                int[] values = new int[n];
+                for (int i = 0; i < n; i++) values[i] = (Integer) boxed.get(i);
+                return NumericVector.of(values);
+            }
+            case LONG: {
+                long[] values = new long[n];
+                for (int i = 0; i < n; i++) values[i] = (Long) boxed.get(i);
+                return NumericVector.of(values);
+            }
+            case FLOAT: {
+                float[] values = new float[n];
+                for (int i = 0; i < n; i++) values[i] = (Float) boxed.get(i);
+                return NumericVector.of(values);
+            }
+            default: {
+                double[] values = new double[n];
+                for (int i = 0; i < n; i++) values[i] = (Double) boxed.get(i);
+                return NumericVector.of(values);
+            }
+        }
+    }
+
+    // The boxed path: unbox both wrappers, promote, compute and box the result, as dObA = dObA + iObA does
+    private static Object boxedApply(BinaryOp op, NumericKind promoted, Object left, Object right) {
+        switch (promoted) {
+            case INT: {
+                int l = asInt(left);
+                int r = asInt(right);
+                Integer result;
+                switch (op) {
+                    case ADD: result = l + r; break;
+                    case SUBTRACT: result = l - r; break;
+                    case MULTIPLY: result = l * r; break;
+                    case DIVIDE: result = l / r; break;
+                    default: result = l % r;
+                }
+                return result;
+            }
+            case LONG: {
+                long l = asLong(left);
+                long r = asLong(right);
+                Long result;
+                switch (op) {
+                    case ADD: result = l + r; break;
+                    case SUBTRACT: result = l - r; break;
+                    case MULTIPLY: result = l * r; break;
+                    case DIVIDE: result = l / r; break;
+                    default: result = l % r;
+                }
+                return result;
+            }
+            case FLOAT: {
+                float l = asFloat(left);
+                float r = asFloat(right);
+                Float result;
+                switch (op) {
+                    case ADD: result = l + r; break;
+                    case SUBTRACT: result = l - r; break;
+                    case MULTIPLY: result = l * r; break;
+                    case DIVIDE: result = l / r; break;
+                    default: result = l % r;
+                }
+                return result;
+            }
+            default: {
+                double l = asDouble(left);
+                double r = asDouble(right);
+                Double result;
+                switch (op) {
+                    case ADD: result = l + r; break;
+                    case SUBTRACT: result = l - r; break;
+                    case MULTIPLY: result = l * r; break;
+                    case DIVIDE: result = l / r; break;
+                    default: result = l % r;
+                }
+                return result;
+            }
+        }
+    }
+
+    // Unboxing followed by a widening conversion, as the compiler emits it for each wrapper
+    private static int asInt(Object boxed) {
+        if (boxed instanceof Byte) return (Byte) boxed;
+        if (boxed instanceof Short) return (Short) boxed;
+        if (boxed instanceof Character) return (Character) boxed;
+        return (Integer) boxed;
+    }
+
+    private static long asLong(Object boxed) {
+        if (boxed instanceof Long) return (Long) boxed;
+        if (boxed instanceof Float || boxed instanceof Double) return (long) asDouble(boxed);
+        return asInt(boxed);
+    }
+
+    private static float asFloat(Object boxed) {
+        if (boxed instanceof Float) return (Float) boxed;
+        if (boxed instanceof Long) return (Long) boxed;
+        return asInt(boxed);
+    }
+
+    private static double asDouble(Object boxed) {
+        if (boxed instanceof Double) return (Double) boxed;
+        if (boxed instanceof Float) return (Float) boxed;
+        if (boxed instanceof Long) return (Long) boxed;
+        return asInt(boxed);
+    }
+
+    private static long bits(Object boxed) {
+        if (boxed instanceof Double) return Double.doubleToRawLongBits((Double) boxed);
+        if (boxed instanceof Float) return Float.floatToRawIntBits((Float) boxed);
+        if (boxed instanceof Long) return (Long) boxed;
+        return (Integer) boxed;
+    }
+
+    private static long bits(NumericVector vector, int i) {
+        switch (vector.kind()) {
+            case INT:
+                return vector.ints()[i];
+            case LONG:
+                return vector.longs()[i];
+            case FLOAT:
+                return Float.floatToRawIntBits(vector.floats()[i]);
+            default:
+                return Double.doubleToRawLongBits(vector.doubles()[i]);
+        }
+    }
+}
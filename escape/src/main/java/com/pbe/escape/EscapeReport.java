@@ -0,0 +1,225 @@
+package com.pbe.escape;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/** Reports, per example of Main and per JIT configuration, whether the wrappers are still allocated once the code is hot.
+ C2 can remove a box altogether when escape analysis proves it never leaves the compiled code (scalar replacement),
+ and EliminateAutoBox lets it fold valueOf/intValue pairs; Graal has its own partial escape analysis.
+ Whether that happens depends on inlining, so the report measures it instead of guessing:
+ - every scenario is warmed up until compiled, then run for the configured number of iterations
+ - bytes_per_op: bytes the thread allocated per iteration (thread allocation counter, exact)
+ - wrapper_samples: jdk.ObjectAllocationSample events for wrapper classes during the run (JFR, sampled)
+ - verdict: scalar-replaced below 1 byte per iteration, allocates otherwise
+ Configurations: c2 (default), no-ea (C2 without escape analysis), no-autobox (C2 without EliminateAutoBox) and
+ graal (the JVMCI compiler, when the JDK ships it). Each runs in its own child JVM; a configuration the JDK does not
+ support is skipped with a note on stderr.
+ -XX:+PrintEliminateAllocations exists in debug builds of HotSpot only; when the VM accepts it, it is added to the
+ C2 configurations and the lines it prints go to stderr.
+
+ Usage: java -jar escape.jar [configs=c2,no-ea,no-autobox,graal] [scenarios=all|NAME,...] [iterations=10000000]
+        [warmup=2000] [format=markdown|csv]
+ */
+public final class EscapeReport {
+
+    private static final String HEADER = "config,scenario,code,bytes_per_op,wrapper_samples,top_wrapper,verdict";
+    private static final int BATCH = 10_000;
+    private static final Set<String> WRAPPERS = Set.of("java.lang.Boolean", "java.lang.Character", "java.lang.Byte",
+            "java.lang.Short", "java.lang.Integer", "java.lang.Long", "java.lang.Float", "java.lang.Double");
+    private static final Map<String, List<String>> CONFIGS = Map.of(
+            "c2", List.of(),
+            "no-ea", List.of("-XX:-DoEscapeAnalysis"),
+            "no-autobox", List.of("-XX:-EliminateAutoBox"),
+            "graal", List.of("-XX:+UnlockExperimentalVMOptions", "-XX:+EnableJVMCI", "-XX:+UseJVMCICompiler"));
+    private static final List<String> PRINT_ELIMINATE = List.of("-XX:+UnlockDiagnosticVMOptions", "-XX:+PrintEliminateAllocations");
+
+    private static volatile long sink;
+
+    private EscapeReport() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        List<String> configs = List.of("c2", "no-ea", "no-autobox", "graal");
+        List<Scenario> scenarios = Arrays.asList(Scenario.values());
+        String scenarioList = "all";
+        long iterations = 10_000_000;
+        long warmupMillis = 2000;
+        String format = "markdown";
+        String label = null;
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            String key = eq < 0 ? arg : arg.substring(0, eq);
+            String value = eq < 0 ? "" : arg.substring(eq + 1);
+            switch (key) {
+                case "configs":
+                    configs = Arrays.asList(value.split(","));
+                    break;
+                case "scenarios":
+                    scenarioList = value;
+                    if (!value.equals("all")) {
+                        scenarios = new ArrayList<>();
+                        for (String name : value.split(",")) scenarios.add(Scenario.valueOf(name.toUpperCase(Locale.ROOT)));
+                    }
+                    break;
+                case "iterations":
+                    iterations = Long.parseLong(value);
+                    break;
+                case "warmup":
+                    warmupMillis = Long.parseLong(value);
+                    break;
+                case "format":
+                    format = value;
+                    break;
+                case "label":
+                    label = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (iterations < BATCH) throw new IllegalArgumentException("At least " + BATCH + " iterations are needed: " + iterations);
+
+        List<String> rows = new ArrayList<>();
+        if (configs.equals(List.of("current"))) {
+            // Child mode: measure in this JVM, labelled with the configuration it was started with.
+            // The first recording of a JVM initializes JFR, which deoptimizes compiled code; get that out of the way
+            // before any warmup, or the first scenario is measured while running deoptimized.
+            try (Recording recording = new Recording()) {
+                recording.start();
+            }
+            for (Scenario scenario : scenarios) rows.add(measure(label == null ? "current" : label, scenario, iterations, warmupMillis));
+        } else {
+            boolean printEliminate = accepts(PRINT_ELIMINATE);
+            System.err.println("PrintEliminateAllocations: " + (printEliminate ? "enabled" : "not available in this VM (debug builds only)"));
+            for (String config : configs) {
+                List<String> flags = CONFIGS.get(config);
+                if (flags == null) throw new IllegalArgumentException("Unknown configuration: " + config + ", expected one of " + CONFIGS.keySet());
+                List<String> childFlags = new ArrayList<>(flags);
+                if (printEliminate && !config.equals("graal")) childFlags.addAll(PRINT_ELIMINATE);
+                rows.addAll(runChild(config, childFlags, scenarioList, iterations, warmupMillis));
+            }
+        }
+        print(rows, format);
+    }
+
+    // Warms the scenario up, then runs it under a JFR recording and returns one CSV row
+    static String measure(String config, Scenario scenario, long iterations, long warmupMillis) throws IOException {
+        // At least 2000 calls, so that the loop method itself is compiled and not only an OSR version of it
+        long warmupEnd = System.nanoTime() + warmupMillis * 1_000_000;
+        for (int round = 0; round < 2000 || System.nanoTime() < warmupEnd; round++) sink += scenario.loop(BATCH);
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long batches = iterations / BATCH;
+        long allocated;
+        Path file = Files.createTempFile("escape-" + scenario.name().toLowerCase(Locale.ROOT), ".jfr");
+        try {
+            try (Recording recording = new Recording()) {
+                recording.enable("jdk.ObjectAllocationSample").with("throttle", "1000/s").withStackTrace();
+                recording.start();
+                long before = threads.getCurrentThreadAllocatedBytes();
+                for (long b = 0; b < batches; b++) sink += scenario.loop(BATCH);
+                allocated = threads.getCurrentThreadAllocatedBytes() - before;
+                recording.stop();
+                recording.dump(file);
+            }
+            return row(config, scenario, allocated / (double) (batches * BATCH), wrapperSamples(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Number of allocation samples per wrapper class, taken on this thread
+    private static Map<String, Integer> wrapperSamples(Path file) throws IOException {
+        long threadId = Thread.currentThread().getId();
+        Map<String, Integer> counts = new HashMap<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            if (!event.getEventType().getName().equals("jdk.ObjectAllocationSample")) continue;
+            if (event.getThread() == null || event.getThread().getJavaThreadId() != threadId) continue;
+            String type = event.getClass("objectClass").getName();
+            if (WRAPPERS.contains(type)) counts.merge(type.substring("java.lang.".length()), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private static String row(String config, Scenario scenario, double bytesPerOp, Map<String, Integer> samples) {
+        int total = samples.values().stream().mapToInt(Integer::intValue).sum();
+        String top = samples.entrySet().stream().max(Map.Entry.comparingByValue()).map(Map.Entry::getKey).orElse("-");
+        String verdict = bytesPerOp < 1 ? "scalar-replaced" : "allocates";
+        return String.format(Locale.ROOT, "%s,%s,%s,%.2f,%d,%s,%s", config, scenario.name(), scenario.code().replace(',', ';'),
+                bytesPerOp, total, top, verdict);
+    }
+
+    // Whether a JVM starts with the given flags
+    private static boolean accepts(List<String> flags) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(javaExecutable());
+        command.addAll(flags);
+        command.add("-version");
+        Process process = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        return process.waitFor() == 0;
+    }
+
+    private static List<String> runChild(String config, List<String> flags, String scenarios, long iterations, long warmupMillis)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(javaExecutable());
+        command.addAll(flags);
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"), EscapeReport.class.getName(),
+                "configs=current", "label=" + config, "scenarios=" + scenarios, "iterations=" + iterations,
+                "warmup=" + warmupMillis, "format=csv"));
+        Process process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        List<String> rows = new ArrayList<>();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                // Keep the data rows; anything else is VM output such as PrintEliminateAllocations
+                if (line.startsWith(config + ",")) rows.add(line);
+                else if (!line.equals(HEADER)) System.err.println(line);
+            }
+        }
+        // A configuration this JDK does not support (no JVMCI compiler, unknown flag) is reported and skipped
+        int exit = process.waitFor();
+        if (exit != 0) System.err.println("Skipping " + config + ": the child JVM exited with code " + exit);
+        return rows;
+    }
+
+    private static String javaExecutable() {
+        return Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    private static void print(List<String> rows, String format) {
+        if (format.equals("csv")) {
+            System.out.println(HEADER);
+            rows.forEach(System.out::println);
+            return;
+        }
+        String[] columns = HEADER.split(",");
+        System.out.println("| " + String.join(" | ", columns) + " |");
+        System.out.println("|" + "---|".repeat(columns.length));
+        for (String row : rows) {
+            System.out.println("| " + String.join(" | ", row.split(",")) + " |");
+        }
+    }
+}
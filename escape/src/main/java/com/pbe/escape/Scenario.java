@@ -0,0 +1,148 @@
+package com.pbe.escape;
+
+import com.pbe.Main;
+
+/** The examples of Main as hot loops, each with the wrappers exactly as Main writes them.
+ The values start at 1000, above the Integer cache, so every box that is not eliminated is a new object;
+ the loops add up primitive results only, so no wrapper has to survive an iteration.
+ Each constant has its own loop method, so the JIT compiles and profiles every scenario separately.
+ ESCAPING_BOX is the control: its box is stored in an array and can never be scalar-replaced.
+ */
+enum Scenario {
+
+    TYPE_WRAPPER("Integer.valueOf(a), iOb.intValue()") {
+        @Override
+        long loop(int n) {
+            long sum = 0;
+            for (int i = 0; i < n; i++) {
+                int a = 1000 + i;
+                Integer iOb = Integer.valueOf(a);
+                sum += iOb.intValue();
+            }
+            return sum;
+        }
+    },
+    AUTOBOXING("Integer iOb2 = a; int b2 = iOb2") {
+        @Override
+        long loop(int n) {
+            long sum = 0;
+            for (int i = 0; i < n; i++) {
+                int a = 1000 + i;
+                Integer iOb2 = a;
+                int b2 = iOb2;
+                sum += b2;
+            }
+            return sum;
+        }
+    },
+    METHOD_BOUNDARY("Integer iOb3 = autoboxme(100)") {
+        @Override
+        long loop(int n) {
+            long sum = 0;
+            for (int i = 0; i < n; i++) {
+                Integer iOb3 = Main.autoboxme(1000 + i); // boxed into the parameter, unboxed on return, boxed again
+                sum += iOb3;
+            }
+            return sum;
+        }
+    },
+    EXPRESSION("++iObA; iObB = iObA + (iObA / 3)") {
+        @Override
+        long loop(int n) {
+            long sum = 0;
+            for (int i = 0; i < n; i++) {
+                Integer iObA = 1000 + i;
+                ++iObA;
+                Integer iObB = iObA + (iObA / 3);
+                sum += iObB;
+            }
+            return sum;
+        }
+    },
+    PROMOTION("dObA = dObA + iObA") {
+        @Override
+        long loop(int n) {
+            long sum = 0;
+            for (int i = 0; i < n; i++) {
+                Integer iObA = 1000 + i;
+                Double dObA = 97.97;
+                dObA = dObA + iObA;
+                sum += dObA.longValue();
+            }
+            return sum;
+        }
+    },
+    SWITCH("switch (iObA)") {
+        @Override
+        long loop(int n) {
+            long sum = 0;
+            for (int i = 0; i < n; i++) {
+                Integer iObA = 1000 + (i & 3);
+                switch (iObA) {
+                    case 1001:
+                        sum += 1;
+                        break;
+                    case 1002:
+                        sum += 2;
+                        break;
+                    default:
+                        sum += 3;
+                }
+            }
+            return sum;
+        }
+    },
+    BOOLEAN_CHARACTER("Boolean checkA = true; Character ch = 'a'; char ch2 = ch") {
+        @Override
+        long loop(int n) {
+            long sum = 0;
+            for (int i = 0; i < n; i++) {
+                Boolean checkA = (i & 1) == 0; // always one of the two cached Booleans
+                Character ch = (char) (1000 + (i & 0x7FFF)); // above 127, so not from the Character cache
+                char ch2 = ch;
+                if (checkA) sum += ch2;
+            }
+            return sum;
+        }
+    },
+    BYTE_VALUE("x = iObA.byteValue()") {
+        @Override
+        long loop(int n) {
+            long sum = 0;
+            for (int i = 0; i < n; i++) {
+                Integer iObA = 1000 + i;
+                int x = iObA.byteValue();
+                sum += x;
+            }
+            return sum;
+        }
+    },
+    ESCAPING_BOX("control: box stored in an array") {
+        private final Integer[] sink = new Integer[1024];
+
+        @Override
+        long loop(int n) {
+            long sum = 0;
+            for (int i = 0; i < n; i++) {
+                Integer iOb = 1000 + i;
+                sink[i & 1023] = iOb;
+                sum += iOb;
+            }
+            return sum;
+        }
+    };
+
+    private final String code;
+
+    Scenario(String code) {
+        this.code = code;
+    }
+
+    // The Main code the scenario stands for
+    String code() {
+        return code;
+    }
+
+    // Runs the scenario n times and returns the sum of the primitive results
+    abstract long loop(int n);
+}
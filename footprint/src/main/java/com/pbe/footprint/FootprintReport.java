@@ -0,0 +1,161 @@
+package com.pbe.footprint;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+
+/** Memory footprint of the type wrappers compared to their primitive types, measured with JOL.
+ The header of Main says primitives are no objects "for the sake of performance"; this report puts numbers on it:
+ object header + value + padding for a single wrapper, and the extra reference per element for wrapper arrays
+ and collections of wrappers, next to the size of the equivalent primitive array.
+ - shallow: size of the object itself (for an array or collection: only the array or collection object)
+ - retained: size of everything reachable from it, shared cached wrappers counted once
+
+ Usage: java -jar footprint.jar [sizes=1,1000,1000000] [format=markdown|csv] [oops=both|on|off]
+ With oops=both (the default) the report runs itself in two child JVMs, with and without compressed oops.
+ */
+public final class FootprintReport {
+
+    private static final String HEADER = "wrapper,structure,elements,compressed_oops,shallow_bytes,retained_bytes,"
+            + "bytes_per_element,primitive_bytes,overhead_factor";
+
+    private FootprintReport() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int[] sizes = {1, 1000, 1_000_000};
+        String format = "markdown";
+        String oops = "both";
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            String key = eq < 0 ? arg : arg.substring(0, eq);
+            String value = eq < 0 ? "" : arg.substring(eq + 1);
+            switch (key) {
+                case "sizes":
+                    sizes = Arrays.stream(value.split(",")).mapToInt(Integer::parseInt).toArray();
+                    break;
+                case "format":
+                    format = value;
+                    break;
+                case "oops":
+                    oops = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        List<String> rows = new ArrayList<>();
+        if (oops.equals("current")) {
+            measure(sizes, rows);
+        } else {
+            if (!oops.equals("off")) rows.addAll(runChild("-XX:+UseCompressedOops", sizes));
+            if (!oops.equals("on")) rows.addAll(runChild("-XX:-UseCompressedOops", sizes));
+        }
+        print(rows, format);
+    }
+
+    // Measures all wrapper types and structures in this JVM, one CSV row each
+    static void measure(int[] sizes, List<String> rows) {
+        boolean compressedOops = compressedOops();
+        for (WrapperType type : WrapperType.values()) {
+            String name = type.wrapper().getSimpleName();
+            Object single = type.box(0);
+            long primitiveBytes = primitiveSize(type);
+            rows.add(row(name, "single", 1, compressedOops, ClassLayout.parseInstance(single).instanceSize(),
+                    GraphLayout.parseInstance(single).totalSize(), primitiveBytes));
+            for (int size : sizes) {
+                long primitiveArrayBytes = GraphLayout.parseInstance(type.primitiveArray(size)).totalSize();
+
+                Object[] array = type.boxedArray(size);
+                rows.add(row(name, name + "[]", size, compressedOops, ClassLayout.parseInstance(array).instanceSize(),
+                        GraphLayout.parseInstance((Object) array).totalSize(), primitiveArrayBytes));
+
+                ArrayList<Object> list = new ArrayList<>(Arrays.asList(array));
+                rows.add(row(name, "ArrayList<" + name + ">", size, compressedOops, ClassLayout.parseInstance(list).instanceSize(),
+                        GraphLayout.parseInstance(list).totalSize(), primitiveArrayBytes));
+
+                // Equal wrappers collapse in a set, so Boolean and Byte sets stay small
+                HashSet<Object> set = new HashSet<>(Arrays.asList(array));
+                rows.add(row(name, "HashSet<" + name + ">", set.size(), compressedOops, ClassLayout.parseInstance(set).instanceSize(),
+                        GraphLayout.parseInstance(set).totalSize(), GraphLayout.parseInstance(type.primitiveArray(set.size())).totalSize()));
+            }
+        }
+    }
+
+    private static String row(String wrapper, String structure, int elements, boolean compressedOops,
+                              long shallow, long retained, long primitiveBytes) {
+        return String.format(Locale.ROOT, "%s,%s,%d,%s,%d,%d,%.2f,%d,%.2f", wrapper, structure, elements, compressedOops,
+                shallow, retained, retained / (double) Math.max(1, elements), primitiveBytes,
+                retained / (double) Math.max(1, primitiveBytes));
+    }
+
+    // Size of the bare primitive value, as stored in a field or array element
+    private static long primitiveSize(WrapperType type) {
+        switch (type.primitive()) {
+            case "boolean":
+            case "byte":
+                return 1;
+            case "char":
+            case "short":
+                return 2;
+            case "int":
+            case "float":
+                return 4;
+            default:
+                return 8;
+        }
+    }
+
+    private static boolean compressedOops() {
+        HotSpotDiagnosticMXBean bean = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+        return Boolean.parseBoolean(bean.getVMOption("UseCompressedOops").getValue());
+    }
+
+    private static List<String> runChild(String oopsFlag, int[] sizes) throws IOException, InterruptedException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        String sizeList = Arrays.stream(sizes).mapToObj(Integer::toString).reduce((a, b) -> a + "," + b).orElse("1");
+        Process process = new ProcessBuilder(java, oopsFlag, "-Djol.magicFieldOffset=true",
+                "-cp", System.getProperty("java.class.path"), FootprintReport.class.getName(),
+                "oops=current", "format=csv", "sizes=" + sizeList)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        List<String> rows = new ArrayList<>();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                // Skip the header and any JOL diagnostics, keep the data rows
+                if (!line.isEmpty() && !line.startsWith("#") && !line.equals(HEADER)) rows.add(line);
+            }
+        }
+        int exit = process.waitFor();
+        if (exit != 0) throw new IllegalStateException("Footprint measurement with " + oopsFlag + " failed with exit code " + exit);
+        return rows;
+    }
+
+    private static void print(List<String> rows, String format) {
+        if (format.equals("csv")) {
+            System.out.println(HEADER);
+            rows.forEach(System.out::println);
+            return;
+        }
+        String[] columns = HEADER.split(",");
+        System.out.println("| " + String.join(" | ", columns) + " |");
+        System.out.println("|" + "---|".repeat(columns.length));
+        for (String row : rows) {
+            System.out.println("| " + String.join(" | ", row.split(",")) + " |");
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.pbe.footprint;
+
+import java.lang.reflect.Array;
+import java.util.function.IntFunction;
+
+/** The eight type wrappers, with a way to box the i-th value and to allocate the primitive equivalent.
+ Values are chosen outside the wrapper caches where the type allows, so every element is its own object,
+ as it is for most IDs, counters and measurements in real data. Boolean and Byte are always fully cached.
+ */
+enum WrapperType {
+
+    CHARACTER(Character.class, "char", i -> Character.valueOf((char) (128 + i % 65408)), char[]::new),
+    BOOLEAN(Boolean.class, "boolean", i -> Boolean.valueOf(i % 2 == 0), boolean[]::new),
+    BYTE(Byte.class, "byte", i -> Byte.valueOf((byte) i), byte[]::new),
+    SHORT(Short.class, "short", i -> Short.valueOf((short) (128 + i % 32000)), short[]::new),
+    INTEGER(Integer.class, "int", i -> Integer.valueOf(128 + i), int[]::new),
+    LONG(Long.class, "long", i -> Long.valueOf(128L + i), long[]::new),
+    FLOAT(Float.class, "float", i -> Float.valueOf(i), float[]::new),
+    DOUBLE(Double.class, "double", i -> Double.valueOf(i), double[]::new);
+
+    private final Class<?> wrapper;
+    private final String primitive;
+    private final IntFunction<Object> box;
+    private final IntFunction<Object> primitiveArray;
+
+    WrapperType(Class<?> wrapper, String primitive, IntFunction<Object> box, IntFunction<Object> primitiveArray) {
+        this.wrapper = wrapper;
+        this.primitive = primitive;
+        this.box = box;
+        this.primitiveArray = primitiveArray;
+    }
+
+    Class<?> wrapper() {
+        return wrapper;
+    }
+
+    String primitive() {
+        return primitive;
+    }
+
+    Object box(int i) {
+        return box.apply(i);
+    }
+
+    Object[] boxedArray(int length) {
+        Object[] array = (Object[]) Array.newInstance(wrapper, length);
+        for (int i = 0; i < length; i++) array[i] = box(i);
+        return array;
+    }
+
+    Object primitiveArray(int length) {
+        return primitiveArray.apply(length);
+    }
+}
@@ -0,0 +1,100 @@
+package com.pbe.offheap;
+
+import jdk.incubator.foreign.MemoryAccess;
+import jdk.incubator.foreign.MemorySegment;
+import jdk.incubator.foreign.ResourceScope;
+
+import java.util.function.DoubleConsumer;
+
+/** Fixed-size array of double values stored off-heap, in native memory.
+ A Double[] costs a reference plus a 24 byte object per element, and even a double[] of a billion elements
+ is an 8 GB object the garbage collector has to manage. This array lives outside the Java heap,
+ is indexed with a long (so it can exceed 2^31 elements) and never boxes.
+ The memory belongs to a ResourceScope:
+ - allocate(size): a confined scope owned by the array, usable from the allocating thread only
+ - allocateShared(size): a shared scope owned by the array, usable from any thread
+ - allocate(size, scope): a scope owned by the caller, e.g. to free many arrays at once
+ close() frees the memory of an array that owns its scope. Accessing a closed array throws IllegalStateException.
+ */
+public final class DoubleArray implements AutoCloseable {
+
+    private static final long BYTES = Double.BYTES;
+
+    private final MemorySegment segment;
+    private final ResourceScope ownedScope; // null when the caller owns the scope
+    private final long size;
+
+    private DoubleArray(long size, ResourceScope scope, boolean owned) {
+        if (size < 0) throw new IllegalArgumentException("Negative size: " + size);
+        this.segment = MemorySegment.allocateNative(size * BYTES, BYTES, scope);
+        this.ownedScope = owned ? scope : null;
+        this.size = size;
+    }
+
+    public static DoubleArray allocate(long size) {
+        return new DoubleArray(size, ResourceScope.newConfinedScope(), true);
+    }
+
+    public static DoubleArray allocateShared(long size) {
+        return new DoubleArray(size, ResourceScope.newSharedScope(), true);
+    }
+
+    public static DoubleArray allocate(long size, ResourceScope scope) {
+        return new DoubleArray(size, scope, false);
+    }
+
+    public static DoubleArray copyOf(double[] values) {
+        DoubleArray array = allocate(values.length);
+        array.copyFrom(values, 0, 0, values.length);
+        return array;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public double get(long index) {
+        return MemoryAccess.getDoubleAtIndex(segment, index);
+    }
+
+    public void set(long index, double value) {
+        MemoryAccess.setDoubleAtIndex(segment, index, value);
+    }
+
+    public void fill(double value) {
+        for (long i = 0; i < size; i++) MemoryAccess.setDoubleAtIndex(segment, i, value);
+    }
+
+    // Copies length values from the heap array src, starting at srcOffset, into this array starting at index
+    public void copyFrom(double[] src, int srcOffset, long index, int length) {
+        segment.asSlice(index * BYTES, length * BYTES)
+                .copyFrom(MemorySegment.ofArray(src).asSlice(srcOffset * BYTES, length * BYTES));
+    }
+
+    // Copies length values of this array, starting at index, into the heap array dst starting at dstOffset
+    public void copyTo(long index, double[] dst, int dstOffset, int length) {
+        MemorySegment.ofArray(dst).asSlice(dstOffset * BYTES, length * BYTES)
+                .copyFrom(segment.asSlice(index * BYTES, length * BYTES));
+    }
+
+    public double[] toArray() {
+        if (size > Integer.MAX_VALUE - 8) throw new IllegalStateException("Too large for a heap array: " + size);
+        double[] values = new double[(int) size];
+        copyTo(0, values, 0, values.length);
+        return values;
+    }
+
+    public void forEach(DoubleConsumer action) {
+        for (long i = 0; i < size; i++) action.accept(MemoryAccess.getDoubleAtIndex(segment, i));
+    }
+
+    // The underlying memory, e.g. for bulk operations or to hand it to native code
+    public MemorySegment segment() {
+        return segment;
+    }
+
+    @Override
+    public void close() {
+        if (ownedScope != null) ownedScope.close();
+    }
+}
@@ -0,0 +1,100 @@
+package com.pbe.offheap;
+
+import jdk.incubator.foreign.MemoryAccess;
+import jdk.incubator.foreign.MemorySegment;
+import jdk.incubator.foreign.ResourceScope;
+
+import java.util.function.LongConsumer;
+
+/** Fixed-size array of long values stored off-heap, in native memory.
+ A Long[] costs a reference plus a 24 byte object per element, and even a long[] of a billion elements
+ is an 8 GB object the garbage collector has to manage. This array lives outside the Java heap,
+ is indexed with a long (so it can exceed 2^31 elements) and never boxes.
+ The memory belongs to a ResourceScope:
+ - allocate(size): a confined scope owned by the array, usable from the allocating thread only
+ - allocateShared(size): a shared scope owned by the array, usable from any thread
+ - allocate(size, scope): a scope owned by the caller, e.g. to free many arrays at once
+ close() frees the memory of an array that owns its scope. Accessing a closed array throws IllegalStateException.
+ */
+public final class LongArray implements AutoCloseable {
+
+    private static final long BYTES = Long.BYTES;
+
+    private final MemorySegment segment;
+    private final ResourceScope ownedScope; // null when the caller owns the scope
+    private final long size;
+
+    private LongArray(long size, ResourceScope scope, boolean owned) {
+        if (size < 0) throw new IllegalArgumentException("Negative size: " + size);
+        this.segment = MemorySegment.allocateNative(size * BYTES, BYTES, scope);
+        this.ownedScope = owned ? scope : null;
+        this.size = size;
+    }
+
+    public static LongArray allocate(long size) {
+        return new LongArray(size, ResourceScope.newConfinedScope(), true);
+    }
+
+    public static LongArray allocateShared(long size) {
+        return new LongArray(size, ResourceScope.newSharedScope(), true);
+    }
+
+    public static LongArray allocate(long size, ResourceScope scope) {
+        return new LongArray(size, scope, false);
+    }
+
+    public static LongArray copyOf(long[] values) {
+        LongArray array = allocate(values.length);
+        array.copyFrom(values, 0, 0, values.length);
+        return array;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long get(long index) {
+        return MemoryAccess.getLongAtIndex(segment, index);
+    }
+
+    public void set(long index, long value) {
+        MemoryAccess.setLongAtIndex(segment, index, value);
+    }
+
+    public void fill(long value) {
+        for (long i = 0; i < size; i++) MemoryAccess.setLongAtIndex(segment, i, value);
+    }
+
+    // Copies length values from the heap array src, starting at srcOffset, into this array starting at index
+    public void copyFrom(long[] src, int srcOffset, long index, int length) {
+        segment.asSlice(index * BYTES, length * BYTES)
+                .copyFrom(MemorySegment.ofArray(src).asSlice(srcOffset * BYTES, length * BYTES));
+    }
+
+    // Copies length values of this array, starting at index, into the heap array dst starting at dstOffset
+    public void copyTo(long index, long[] dst, int dstOffset, int length) {
+        MemorySegment.ofArray(dst).asSlice(dstOffset * BYTES, length * BYTES)
+                .copyFrom(segment.asSlice(index * BYTES, length * BYTES));
+    }
+
+    public long[] toArray() {
+        if (size > Integer.MAX_VALUE - 8) throw new IllegalStateException("Too large for a heap array: " + size);
+        long[] values = new long[(int) size];
+        copyTo(0, values, 0, values.length);
+        return values;
+    }
+
+    public void forEach(LongConsumer action) {
+        for (long i = 0; i < size; i++) action.accept(MemoryAccess.getLongAtIndex(segment, i));
+    }
+
+    // The underlying memory, e.g. for bulk operations or to hand it to native code
+    public MemorySegment segment() {
+        return segment;
+    }
+
+    @Override
+    public void close() {
+        if (ownedScope != null) ownedScope.close();
+    }
+}
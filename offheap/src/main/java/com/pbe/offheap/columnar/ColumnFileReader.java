@@ -0,0 +1,237 @@
+package com.pbe.offheap.columnar;
+
+import jdk.incubator.foreign.MemoryAccess;
+import jdk.incubator.foreign.MemorySegment;
+import jdk.incubator.foreign.ResourceScope;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Reads a file written by ColumnFileWriter by memory-mapping it: opening a file of 10 GB maps it, reads the
+ directory and allocates nothing per value, where reading the same data back from an ObjectInputStream creates
+ an Integer, Long or Double per value. The operating system pages the data in as it is touched.
+ The pages of a column come as read-only IntBuffer, LongBuffer or DoubleBuffer views of the mapped file, no copy:
+ try (ColumnFileReader reader = ColumnFileReader.open(path)) {
+     ColumnFileReader.Column ids = reader.column("id");
+     for (int p = 0; p < ids.pageCount(); p++) {
+         IntBuffer page = ids.intPage(p);
+         for (int i = 0; i < page.limit(); i++) sum += page.get(i);
+     }
+ }
+ The file is mapped as a whole in a shared ResourceScope (the Foreign Memory API: run with --add-modules
+ jdk.incubator.foreign), so it may exceed 2 GB, and any thread can read. close() unmaps it; buffers taken
+ from the reader throw IllegalStateException after that, instead of reading unmapped memory.
+ */
+public final class ColumnFileReader implements AutoCloseable {
+
+    private final ResourceScope scope;
+    private final MemorySegment file;
+    private final int pageRows;
+    private final long rowCount;
+    private final Map<String, Column> columns;
+
+    private ColumnFileReader(ResourceScope scope, MemorySegment file) throws IOException {
+        this.scope = scope;
+        this.file = file;
+        ByteBuffer header = file.asSlice(0, ColumnFormat.HEADER_BYTES).asByteBuffer().order(ColumnFormat.ORDER);
+        if (header.getInt() != ColumnFormat.MAGIC) throw new IOException("Not a column file");
+        int version = header.getInt();
+        if (version != ColumnFormat.VERSION) throw new IOException("Unsupported column file version: " + version);
+        this.pageRows = header.getInt();
+        int columnCount = header.getInt();
+        this.rowCount = header.getLong();
+        long directoryOffset = header.getLong();
+        if (directoryOffset == 0) throw new IOException("Incomplete column file: no directory, the writer did not finish");
+        if (pageRows < 1 || pageRows > ColumnFormat.MAX_PAGE_ROWS || columnCount < 0 || rowCount < 0
+                || directoryOffset < ColumnFormat.HEADER_BYTES || directoryOffset > file.byteSize()) {
+            throw new IOException("Corrupt column file header");
+        }
+        this.columns = readDirectory(file.asSlice(directoryOffset).asByteBuffer().order(ColumnFormat.ORDER), columnCount, directoryOffset);
+    }
+
+    public static ColumnFileReader open(Path path) throws IOException {
+        long size = Files.size(path);
+        if (size < ColumnFormat.HEADER_BYTES) throw new IOException("Not a column file: " + path);
+        ResourceScope scope = ResourceScope.newSharedScope();
+        try {
+            return new ColumnFileReader(scope, MemorySegment.mapFile(path, 0, size, FileChannel.MapMode.READ_ONLY, scope));
+        } catch (IOException | RuntimeException e) {
+            scope.close();
+            throw e;
+        }
+    }
+
+    private Map<String, Column> readDirectory(ByteBuffer directory, int columnCount, long directoryOffset) throws IOException {
+        Map<String, Column> result = new LinkedHashMap<>();
+        long pages = (rowCount + pageRows - 1) / pageRows;
+        try {
+            for (int c = 0; c < columnCount; c++) {
+                ColumnType type = ColumnType.ofCode(directory.get());
+                boolean nullable = directory.get() != 0;
+                byte[] name = new byte[directory.getShort()];
+                directory.get(name);
+                int pageCount = directory.getInt();
+                if (type == null || pageCount != pages) throw new IOException("Corrupt column file directory");
+                long[] offsets = new long[pageCount];
+                for (int p = 0; p < pageCount; p++) {
+                    offsets[p] = directory.getLong();
+                    int rows = (int) Math.min(pageRows, rowCount - (long) p * pageRows);
+                    long end = offsets[p] + (nullable ? ColumnFormat.validityBytes(rows) : 0) + (long) rows * type.width();
+                    if (offsets[p] < ColumnFormat.HEADER_BYTES || end > directoryOffset) throw new IOException("Corrupt column file directory");
+                }
+                Column column = new Column(new String(name, StandardCharsets.UTF_8), type, nullable, offsets);
+                if (result.put(column.name, column) != null) throw new IOException("Duplicate column: " + column.name);
+            }
+        } catch (BufferUnderflowException | NegativeArraySizeException e) {
+            throw new IOException("Corrupt column file directory", e);
+        }
+        return result;
+    }
+
+    public long rowCount() {
+        return rowCount;
+    }
+
+    // Rows in every page of a column but the last
+    public int pageRows() {
+        return pageRows;
+    }
+
+    // In the order they were written
+    public List<String> columnNames() {
+        return Collections.unmodifiableList(new ArrayList<>(columns.keySet()));
+    }
+
+    public Column column(String name) {
+        Column column = columns.get(name);
+        if (column == null) throw new IllegalArgumentException("No column " + name + ", columns are " + columns.keySet());
+        return column;
+    }
+
+    // Unmaps the file; closing again does nothing
+    @Override
+    public void close() {
+        if (scope.isAlive()) scope.close();
+    }
+
+    /** One column of the file. The page methods for another type than the column's throw IllegalStateException.
+     */
+    public final class Column {
+
+        private final String name;
+        private final ColumnType type;
+        private final boolean nullable;
+        private final long[] pageOffsets;
+
+        private Column(String name, ColumnType type, boolean nullable, long[] pageOffsets) {
+            this.name = name;
+            this.type = type;
+            this.nullable = nullable;
+            this.pageOffsets = pageOffsets;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public ColumnType type() {
+            return type;
+        }
+
+        public boolean isNullable() {
+            return nullable;
+        }
+
+        public int pageCount() {
+            return pageOffsets.length;
+        }
+
+        // Number of rows in a page, pageRows() for all but the last
+        public int pageSize(int page) {
+            return (int) Math.min(pageRows, rowCount - (long) page * pageRows);
+        }
+
+        public IntBuffer intPage(int page) {
+            check(ColumnType.INT);
+            return values(page).asIntBuffer();
+        }
+
+        public LongBuffer longPage(int page) {
+            check(ColumnType.LONG);
+            return values(page).asLongBuffer();
+        }
+
+        public DoubleBuffer doublePage(int page) {
+            check(ColumnType.DOUBLE);
+            return values(page).asDoubleBuffer();
+        }
+
+        // The null bitmap of a page: bit i of word i / 64 is set when row i of the page has a value.
+        // Null for a column that is not nullable.
+        public LongBuffer validity(int page) {
+            if (!nullable) return null;
+            return file.asSlice(pageOffsets[page], ColumnFormat.validityBytes(pageSize(page)))
+                    .asByteBuffer().order(ColumnFormat.ORDER).asLongBuffer();
+        }
+
+        public boolean isNull(long row) {
+            checkRow(row);
+            if (!nullable) return false;
+            long offset = pageOffsets[(int) (row / pageRows)];
+            int index = (int) (row % pageRows);
+            long word = MemoryAccess.getLongAtOffset(file, offset + (index >>> 6) * (long) Long.BYTES, ColumnFormat.ORDER);
+            return (word & 1L << index) == 0;
+        }
+
+        // Single values, read straight from the mapped file; 0 for a null
+        public int getInt(long row) {
+            check(ColumnType.INT);
+            return MemoryAccess.getIntAtOffset(file, valueOffset(row), ColumnFormat.ORDER);
+        }
+
+        public long getLong(long row) {
+            check(ColumnType.LONG);
+            return MemoryAccess.getLongAtOffset(file, valueOffset(row), ColumnFormat.ORDER);
+        }
+
+        public double getDouble(long row) {
+            check(ColumnType.DOUBLE);
+            return MemoryAccess.getDoubleAtOffset(file, valueOffset(row), ColumnFormat.ORDER);
+        }
+
+        private ByteBuffer values(int page) {
+            int rows = pageSize(page);
+            long offset = pageOffsets[page] + (nullable ? ColumnFormat.validityBytes(rows) : 0);
+            return file.asSlice(offset, (long) rows * type.width()).asByteBuffer().order(ColumnFormat.ORDER);
+        }
+
+        private long valueOffset(long row) {
+            checkRow(row);
+            int page = (int) (row / pageRows);
+            int index = (int) (row % pageRows);
+            long offset = pageOffsets[page] + (nullable ? ColumnFormat.validityBytes(pageSize(page)) : 0);
+            return offset + (long) index * type.width();
+        }
+
+        private void checkRow(long row) {
+            if (row < 0 || row >= rowCount) throw new IndexOutOfBoundsException("Row " + row + " out of bounds for " + rowCount + " rows");
+        }
+
+        private void check(ColumnType expected) {
+            if (type != expected) throw new IllegalStateException("Column " + name + " holds " + type + " values, not " + expected);
+        }
+    }
+}
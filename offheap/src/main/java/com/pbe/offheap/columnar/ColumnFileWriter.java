@@ -0,0 +1,338 @@
+package com.pbe.offheap.columnar;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/** Writes int, long and double columns to a column file, one column after the other, for ColumnFileReader to map:
+ try (ColumnFileWriter writer = ColumnFileWriter.create(path)) {
+     writer.writeInts("id", ids);
+     ColumnFileWriter.Column price = writer.column("price", ColumnType.DOUBLE, true);
+     for (...) if (known) price.append(value); else price.appendNull();
+ }
+ Instead of an ObjectOutputStream of a List<Integer>, which writes every Integer as an object, the values go
+ into a direct buffer of one page, and each full page goes to the FileChannel in one gathering write together
+ with its null bitmap. A column can be appended in any number of calls, so it does not have to fit in memory;
+ every column must end up with the same number of rows. The file is complete once close() has written the
+ directory and the header; see ColumnFormat for the layout.
+ */
+public final class ColumnFileWriter implements AutoCloseable {
+
+    // Rows per page unless given: 4 MB pages of int values, 8 MB of long or double values
+    public static final int DEFAULT_PAGE_ROWS = 1 << 20;
+
+    private static final byte[] PADDING = new byte[8];
+
+    private final FileChannel channel;
+    private final int pageRows;
+    private final ByteBuffer values; // the values of the page being filled, shared by all columns
+    private final ByteBuffer validity; // the bitmap of that page, for nullable columns
+    private final long[] validityWords;
+    private final List<Column> columns = new ArrayList<>();
+    private final Set<String> names = new HashSet<>();
+    private Column current;
+    private long position;
+    private long rowCount = -1; // rows of the first finished column
+    private boolean closed;
+
+    private ColumnFileWriter(FileChannel channel, int pageRows) {
+        this.channel = channel;
+        this.pageRows = pageRows;
+        this.values = ByteBuffer.allocateDirect(pageRows * Long.BYTES).order(ColumnFormat.ORDER);
+        this.validity = ByteBuffer.allocateDirect(ColumnFormat.validityBytes(pageRows)).order(ColumnFormat.ORDER);
+        this.validityWords = new long[ColumnFormat.validityBytes(pageRows) / Long.BYTES];
+        this.position = ColumnFormat.HEADER_BYTES;
+    }
+
+    public static ColumnFileWriter create(Path path) throws IOException {
+        return create(path, DEFAULT_PAGE_ROWS);
+    }
+
+    // Creates or replaces the file at path
+    public static ColumnFileWriter create(Path path, int pageRows) throws IOException {
+        if (pageRows < 1 || pageRows > ColumnFormat.MAX_PAGE_ROWS) {
+            throw new IllegalArgumentException("Rows per page must be in 1.." + ColumnFormat.MAX_PAGE_ROWS + ": " + pageRows);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        try {
+            ColumnFileWriter writer = new ColumnFileWriter(channel, pageRows);
+            writer.writeHeader(0, 0, 0); // no directory yet: marks the file incomplete until close()
+            channel.position(ColumnFormat.HEADER_BYTES);
+            return writer;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Starts the next column, finishing the one before it
+    public Column column(String name, ColumnType type, boolean nullable) throws IOException {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(type, "type");
+        checkOpen();
+        if (name.getBytes(StandardCharsets.UTF_8).length > Short.MAX_VALUE) throw new IllegalArgumentException("Column name too long: " + name.length() + " chars");
+        if (!names.add(name)) throw new IllegalArgumentException("Duplicate column: " + name);
+        finishColumn();
+        current = new Column(name, type, nullable);
+        columns.add(current);
+        return current;
+    }
+
+    public void writeInts(String name, int[] values) throws IOException {
+        column(name, ColumnType.INT, false).append(values, 0, values.length);
+    }
+
+    public void writeLongs(String name, long[] values) throws IOException {
+        column(name, ColumnType.LONG, false).append(values, 0, values.length);
+    }
+
+    public void writeDoubles(String name, double[] values) throws IOException {
+        column(name, ColumnType.DOUBLE, false).append(values, 0, values.length);
+    }
+
+    // Finishes the last column and writes the directory and the header. Throws IllegalStateException,
+    // leaving an incomplete file, when the columns do not all have the same number of rows.
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            finishColumn();
+            long directoryOffset = position;
+            writeDirectory();
+            writeHeader(columns.size(), Math.max(0, rowCount), directoryOffset);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writeHeader(int columnCount, long rows, long directoryOffset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(ColumnFormat.HEADER_BYTES).order(ColumnFormat.ORDER);
+        header.putInt(ColumnFormat.MAGIC)
+                .putInt(ColumnFormat.VERSION)
+                .putInt(pageRows)
+                .putInt(columnCount)
+                .putLong(rows)
+                .putLong(directoryOffset)
+                .flip();
+        while (header.hasRemaining()) channel.write(header, header.position()); // at the start of the file
+    }
+
+    private void finishColumn() throws IOException {
+        if (current == null) return;
+        Column column = current;
+        current = null;
+        if (column.fill > 0) flushPage(column);
+        if (rowCount < 0) rowCount = column.rows;
+        else if (column.rows != rowCount) {
+            throw new IllegalStateException("Column " + column.name + " has " + column.rows + " rows, the columns before it " + rowCount);
+        }
+    }
+
+    private void flushPage(Column column) throws IOException {
+        long offset = position;
+        int rows = column.fill;
+        values.clear().limit(rows * column.type.width());
+        validity.clear();
+        if (column.nullable) {
+            int words = ColumnFormat.validityBytes(rows) / Long.BYTES;
+            validity.asLongBuffer().put(validityWords, 0, words);
+            validity.limit(words * Long.BYTES);
+            Arrays.fill(validityWords, 0, words, 0);
+        } else {
+            validity.limit(0);
+        }
+        int bytes = validity.limit() + values.limit();
+        ByteBuffer padding = ByteBuffer.wrap(PADDING, 0, (int) (ColumnFormat.align(bytes) - bytes)); // offset is aligned already
+        write(validity, values, padding);
+        column.addPage(offset);
+        column.fill = 0;
+    }
+
+    private void writeDirectory() throws IOException {
+        int bytes = 0;
+        List<byte[]> encodedNames = new ArrayList<>(columns.size());
+        for (Column column : columns) {
+            byte[] name = column.name.getBytes(StandardCharsets.UTF_8);
+            encodedNames.add(name);
+            bytes += 1 + 1 + 2 + name.length + 4 + column.pageCount * Long.BYTES;
+        }
+        ByteBuffer directory = ByteBuffer.allocate(bytes).order(ColumnFormat.ORDER);
+        for (int i = 0; i < columns.size(); i++) {
+            Column column = columns.get(i);
+            byte[] name = encodedNames.get(i);
+            directory.put(column.type.code())
+                    .put((byte) (column.nullable ? 1 : 0))
+                    .putShort((short) name.length)
+                    .put(name)
+                    .putInt(column.pageCount);
+            for (int p = 0; p < column.pageCount; p++) directory.putLong(column.pageOffsets[p]);
+        }
+        write(directory.flip());
+    }
+
+    private void write(ByteBuffer... buffers) throws IOException {
+        long remaining = 0;
+        for (ByteBuffer b : buffers) remaining += b.remaining();
+        while (remaining > 0) {
+            long written = channel.write(buffers);
+            position += written;
+            remaining -= written;
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) throw new IllegalStateException("Writer closed");
+    }
+
+    /** The column being written. Appending to a column after the next one was started, or after close(),
+     throws IllegalStateException, and so does appending values of another type than the column's.
+     Single values widen as in an assignment: append(int) works on long and double columns, so
+     longColumn.append(5) stores 5L, and append(long) works on double columns. Arrays must match the type.
+     */
+    public final class Column {
+
+        private final String name;
+        private final ColumnType type;
+        private final boolean nullable;
+        private final IntBuffer ints;
+        private final LongBuffer longs;
+        private final DoubleBuffer doubles;
+        private long[] pageOffsets = new long[8];
+        private int pageCount;
+        private int fill; // rows in the page being filled
+        private long rows;
+
+        private Column(String name, ColumnType type, boolean nullable) {
+            this.name = name;
+            this.type = type;
+            this.nullable = nullable;
+            this.ints = type == ColumnType.INT ? values.clear().asIntBuffer() : null;
+            this.longs = type == ColumnType.LONG ? values.clear().asLongBuffer() : null;
+            this.doubles = type == ColumnType.DOUBLE ? values.clear().asDoubleBuffer() : null;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public ColumnType type() {
+            return type;
+        }
+
+        // Rows appended so far
+        public long rows() {
+            return rows;
+        }
+
+        public Column append(int value) throws IOException {
+            if (type == ColumnType.LONG) return append((long) value);
+            if (type == ColumnType.DOUBLE) return append((double) value);
+            check(ColumnType.INT);
+            ints.put(fill, value);
+            return appended(1);
+        }
+
+        public Column append(int[] values, int from, int to) throws IOException {
+            check(ColumnType.INT);
+            Objects.checkFromToIndex(from, to, values.length);
+            while (from < to) {
+                int n = Math.min(to - from, pageRows - fill);
+                ints.put(fill, values, from, n);
+                appended(n);
+                from += n;
+            }
+            return this;
+        }
+
+        public Column append(long value) throws IOException {
+            if (type == ColumnType.DOUBLE) return append((double) value);
+            check(ColumnType.LONG);
+            longs.put(fill, value);
+            return appended(1);
+        }
+
+        public Column append(long[] values, int from, int to) throws IOException {
+            check(ColumnType.LONG);
+            Objects.checkFromToIndex(from, to, values.length);
+            while (from < to) {
+                int n = Math.min(to - from, pageRows - fill);
+                longs.put(fill, values, from, n);
+                appended(n);
+                from += n;
+            }
+            return this;
+        }
+
+        public Column append(double value) throws IOException {
+            check(ColumnType.DOUBLE);
+            doubles.put(fill, value);
+            return appended(1);
+        }
+
+        public Column append(double[] values, int from, int to) throws IOException {
+            check(ColumnType.DOUBLE);
+            Objects.checkFromToIndex(from, to, values.length);
+            while (from < to) {
+                int n = Math.min(to - from, pageRows - fill);
+                doubles.put(fill, values, from, n);
+                appended(n);
+                from += n;
+            }
+            return this;
+        }
+
+        // A row without a value; only for a nullable column. The file stores 0 in its place.
+        public Column appendNull() throws IOException {
+            check(type);
+            if (!nullable) throw new IllegalStateException("Column " + name + " is not nullable");
+            int bytes = type.width();
+            for (int i = fill * bytes, end = i + bytes; i < end; i++) values.put(i, (byte) 0);
+            fill++;
+            rows++;
+            if (fill == pageRows) flushPage(this);
+            return this;
+        }
+
+        // Marks the n rows after fill as present and flushes a full page
+        private Column appended(int n) throws IOException {
+            if (nullable) setPresent(fill, fill + n);
+            fill += n;
+            rows += n;
+            if (fill == pageRows) flushPage(this);
+            return this;
+        }
+
+        private void setPresent(int from, int to) {
+            while (from < to) {
+                int bit = from & 63;
+                int count = Math.min(64 - bit, to - from);
+                validityWords[from >>> 6] |= (count == 64 ? -1L : (1L << count) - 1) << bit;
+                from += count;
+            }
+        }
+
+        private void check(ColumnType expected) {
+            checkOpen();
+            if (current != this) throw new IllegalStateException("Column " + name + " is finished");
+            if (type != expected) throw new IllegalStateException("Column " + name + " holds " + type + " values, not " + expected);
+        }
+
+        private void addPage(long offset) {
+            if (pageCount == pageOffsets.length) pageOffsets = Arrays.copyOf(pageOffsets, pageCount * 2);
+            pageOffsets[pageCount++] = offset;
+        }
+    }
+}
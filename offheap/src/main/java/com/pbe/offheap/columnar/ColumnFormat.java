@@ -0,0 +1,35 @@
+package com.pbe.offheap.columnar;
+
+import java.nio.ByteOrder;
+
+/** Layout of a column file, all numbers little-endian:
+ - header, 32 bytes: magic "PBEC", version (int), rows per page (int), column count (int), row count (long),
+   offset of the directory (long, 0 until the writer has closed the file)
+ - the pages of each column, one column after the other. A page holds the next rows-per-page rows of a column
+   (the last page of a column fewer): for a nullable column first a validity bitmap of ceil(rows / 64) longs,
+   bit i set when row i of the page has a value, then the values (0 for a null), padded to a multiple of 8 bytes.
+   Pages start 8-byte aligned, so the values of every type are aligned in the mapped file.
+ - the directory, per column: type code (byte), nullable (byte), name length (short), name in UTF-8,
+   page count (int) and the file offset of each page (long)
+ */
+final class ColumnFormat {
+
+    static final int MAGIC = 'P' | 'B' << 8 | 'E' << 16 | 'C' << 24;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    // Largest page: 8 byte values plus the bitmap must stay within one ByteBuffer
+    static final int MAX_PAGE_ROWS = 1 << 27;
+
+    private ColumnFormat() {
+    }
+
+    static int validityBytes(int rows) {
+        return ((rows + 63) >>> 6) * Long.BYTES;
+    }
+
+    static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+}
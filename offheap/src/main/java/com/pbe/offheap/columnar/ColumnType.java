@@ -0,0 +1,34 @@
+package com.pbe.offheap.columnar;
+
+/** Type of the values of a column in a column file; the code is what the file stores.
+ */
+public enum ColumnType {
+
+    INT(1, Integer.BYTES),
+    LONG(2, Long.BYTES),
+    DOUBLE(3, Double.BYTES);
+
+    private final byte code;
+    private final int width;
+
+    ColumnType(int code, int width) {
+        this.code = (byte) code;
+        this.width = width;
+    }
+
+    // Bytes per value
+    public int width() {
+        return width;
+    }
+
+    byte code() {
+        return code;
+    }
+
+    static ColumnType ofCode(byte code) {
+        for (ColumnType type : values()) {
+            if (type.code == code) return type;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,106 @@
+package com.pbe.parse;
+
+import com.pbe.numeric.NumericKind;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/** One delimiter-aligned slice of a file, parsed into its own primitive array.
+ Only the array matching the kind is used; it grows like an IntList while parsing.
+ */
+final class Chunk {
+
+    final long start;
+    final long end;
+
+    int count;
+    int[] ints;
+    long[] longs;
+    double[] doubles;
+
+    long errorCount;
+    int recordedErrors;
+    long[] errorOffsets = new long[0];
+    ParseError[] errorKinds = new ParseError[0];
+
+    Chunk(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    void parse(FileChannel channel, NumericKind kind, int maxErrors) {
+        MappedByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int limit = buffer.limit();
+        int capacity = limit / 8 + 16; // a guess at the number of fields; the array grows when it is too small
+        switch (kind) {
+            case INT:
+                ints = new int[capacity];
+                break;
+            case LONG:
+                longs = new long[capacity];
+                break;
+            default:
+                doubles = new double[capacity];
+        }
+        FieldParser parser = new FieldParser();
+        int pos = 0;
+        while (pos < limit) {
+            while (pos < limit && FieldParser.isDelimiter(buffer.get(pos))) pos++;
+            if (pos == limit) break;
+            int fieldStart = pos;
+            while (pos < limit && !FieldParser.isDelimiter(buffer.get(pos))) pos++;
+            switch (kind) {
+                case INT: {
+                    int value = parser.parseInt(buffer, fieldStart, pos);
+                    if (parser.error == null) {
+                        if (count == ints.length) ints = Arrays.copyOf(ints, grow(count));
+                        ints[count++] = value;
+                    }
+                    break;
+                }
+                case LONG: {
+                    long value = parser.parseLong(buffer, fieldStart, pos);
+                    if (parser.error == null) {
+                        if (count == longs.length) longs = Arrays.copyOf(longs, grow(count));
+                        longs[count++] = value;
+                    }
+                    break;
+                }
+                default: {
+                    double value = parser.parseDouble(buffer, fieldStart, pos);
+                    if (parser.error == null) {
+                        if (count == doubles.length) doubles = Arrays.copyOf(doubles, grow(count));
+                        doubles[count++] = value;
+                    }
+                }
+            }
+            if (parser.error != null) reject(start + fieldStart, parser.error, maxErrors);
+        }
+    }
+
+    private void reject(long offset, ParseError kind, int maxErrors) {
+        errorCount++;
+        if (recordedErrors == maxErrors) return;
+        if (recordedErrors == errorOffsets.length) {
+            int length = Math.min(maxErrors, Math.max(8, 2 * recordedErrors));
+            errorOffsets = Arrays.copyOf(errorOffsets, length);
+            errorKinds = Arrays.copyOf(errorKinds, length);
+        }
+        errorOffsets[recordedErrors] = offset;
+        errorKinds[recordedErrors++] = kind;
+    }
+
+    private static int grow(int length) {
+        long grown = length + (length >> 1) + 16L;
+        if (grown > Integer.MAX_VALUE - 8) throw new IllegalStateException("Chunk holds too many fields: " + length);
+        return (int) grown;
+    }
+}
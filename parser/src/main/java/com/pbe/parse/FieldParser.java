@@ -0,0 +1,168 @@
+package com.pbe.parse;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/** Parses one field, the bytes [start, end) of a buffer, without creating a String.
+ The result is returned as a primitive; error is null after a successful parse and the reason otherwise.
+ Not thread-safe: each chunk of a file gets its own instance.
+ */
+final class FieldParser {
+
+    // Powers of ten that are exact as doubles
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final int MAX_MANTISSA_DIGITS = 18; // 18 decimal digits always fit a long
+
+    ParseError error;
+    private byte[] scratch = new byte[64];
+
+    static boolean isDelimiter(byte b) {
+        return b == ' ' || b == '\n' || b == ',' || b == '\r' || b == '\t' || b == ';';
+    }
+
+    // Accumulates negatively, like Integer.parseInt, so that MIN_VALUE can be parsed
+    int parseInt(ByteBuffer buffer, int start, int end) {
+        error = null;
+        int i = start;
+        boolean negative = false;
+        byte first = buffer.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+        if (i == end) return fail(ParseError.MALFORMED);
+        int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int multiplyMin = limit / 10;
+        int result = 0;
+        for (; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) return fail(ParseError.MALFORMED);
+            if (result < multiplyMin) return overflow(buffer, i + 1, end);
+            result *= 10;
+            if (result < limit + digit) return overflow(buffer, i + 1, end);
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    long parseLong(ByteBuffer buffer, int start, int end) {
+        error = null;
+        int i = start;
+        boolean negative = false;
+        byte first = buffer.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+        if (i == end) return fail(ParseError.MALFORMED);
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplyMin = limit / 10;
+        long result = 0;
+        for (; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) return fail(ParseError.MALFORMED);
+            if (result < multiplyMin) return overflow(buffer, i + 1, end);
+            result *= 10;
+            if (result < limit + digit) return overflow(buffer, i + 1, end);
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /* Accepts [+-]digits[.digits][(e|E)[+-]digits], with digits on at least one side of the point.
+     The significant digits are collected in a long. When they are at most 2^53 and the exponent at most 22,
+     both the mantissa and the power of ten are exact doubles, so one multiplication or division gives the
+     correctly rounded result (Clinger's fast path). Longer mantissas and larger exponents, rare in data files,
+     fall back to Double.parseDouble, which needs a String.
+     */
+    double parseDouble(ByteBuffer buffer, int start, int end) {
+        error = null;
+        int i = start;
+        boolean negative = false;
+        byte first = buffer.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean sawDigit = false;
+        boolean inexact = false;
+        for (; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) break;
+            sawDigit = true;
+            if (digits < MAX_MANTISSA_DIGITS) {
+                mantissa = mantissa * 10 + digit;
+                if (mantissa != 0) digits++;
+            } else {
+                exponent++;
+                inexact |= digit != 0;
+            }
+        }
+        if (i < end && buffer.get(i) == '.') {
+            for (i++; i < end; i++) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9) break;
+                sawDigit = true;
+                if (digits < MAX_MANTISSA_DIGITS) {
+                    mantissa = mantissa * 10 + digit;
+                    if (mantissa != 0) digits++;
+                    exponent--;
+                } else {
+                    inexact |= digit != 0;
+                }
+            }
+        }
+        if (!sawDigit) return fail(ParseError.MALFORMED);
+        if (i < end && (buffer.get(i) == 'e' || buffer.get(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+                negativeExponent = buffer.get(i) == '-';
+                i++;
+            }
+            if (i == end) return fail(ParseError.MALFORMED);
+            int explicit = 0;
+            for (; i < end; i++) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9) return fail(ParseError.MALFORMED);
+                if (explicit < 100_000) explicit = explicit * 10 + digit; // far beyond any double, no overflow
+            }
+            exponent += negativeExponent ? -explicit : explicit;
+        }
+        if (i != end) return fail(ParseError.MALFORMED);
+        if (mantissa == 0) return negative ? -0.0 : 0.0;
+        if (!inexact && mantissa <= MAX_EXACT_MANTISSA && exponent >= -22 && exponent <= 22) {
+            double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+            return negative ? -value : value;
+        }
+        return parseSlow(buffer, start, end);
+    }
+
+    private double parseSlow(ByteBuffer buffer, int start, int end) {
+        int length = end - start;
+        if (scratch.length < length) scratch = new byte[Math.max(length, 2 * scratch.length)];
+        buffer.get(start, scratch, 0, length);
+        return Double.parseDouble(new String(scratch, 0, length, StandardCharsets.ISO_8859_1));
+    }
+
+    // An overflowing number is reported as OVERFLOW only when the rest of the field consists of digits too
+    private int overflow(ByteBuffer buffer, int from, int end) {
+        for (int i = from; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) return fail(ParseError.MALFORMED);
+        }
+        return fail(ParseError.OVERFLOW);
+    }
+
+    private int fail(ParseError reason) {
+        error = reason;
+        return 0;
+    }
+}
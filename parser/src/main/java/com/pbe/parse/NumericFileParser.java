@@ -0,0 +1,193 @@
+package com.pbe.parse;
+
+import com.pbe.numeric.NumericKind;
+import com.pbe.numeric.NumericVector;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/** Parses text files of numbers into int[], long[] or double[], in parallel and without a String or wrapper per value.
+ Reading with BufferedReader.readLine and Integer.valueOf creates a String and, outside -128..127, an Integer
+ per number, and stops at the first NumberFormatException. This parser instead:
+ 1. splits the file into chunks of about the configured size, moving each boundary forward to just past a delimiter,
+    so that no field spans two chunks
+ 2. memory-maps each chunk and parses it on a ForkJoinPool, straight from the mapped bytes into a primitive array
+ 3. concatenates the chunk arrays in file order
+ Fields are ASCII numbers separated by any run of spaces, tabs, line breaks, commas or semicolons.
+ Fields that do not parse are skipped and reported in the ParseErrors of the result, with their byte offsets.
+ Doubles with more than 15 to 17 significant digits or exponents beyond +-22 go through Double.parseDouble,
+ the one place a String is still created.
+ */
+public final class NumericFileParser {
+
+    public static final int DEFAULT_CHUNK_SIZE = 16 << 20;
+    public static final int DEFAULT_MAX_ERRORS = 1000;
+    private static final int MIN_CHUNK_SIZE = 1 << 16; // every chunk is a memory mapping, and a process can only have so many
+    private static final int MAX_CHUNK_SIZE = 1 << 30; // a chunk grows up to the next delimiter, a mapping can hold 2 GB
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    public NumericFileParser() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE, DEFAULT_MAX_ERRORS);
+    }
+
+    public NumericFileParser(ForkJoinPool pool, int chunkSize, int maxErrors) {
+        if (chunkSize < MIN_CHUNK_SIZE || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("Chunk size must be in " + MIN_CHUNK_SIZE + ".." + MAX_CHUNK_SIZE + ": " + chunkSize);
+        }
+        if (maxErrors < 0) throw new IllegalArgumentException("Max errors must be non-negative: " + maxErrors);
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+    }
+
+    public ParseResult parseInts(Path file) throws IOException {
+        return parse(file, NumericKind.INT);
+    }
+
+    public ParseResult parseLongs(Path file) throws IOException {
+        return parse(file, NumericKind.LONG);
+    }
+
+    public ParseResult parseDoubles(Path file) throws IOException {
+        return parse(file, NumericKind.DOUBLE);
+    }
+
+    private ParseResult parse(Path file, NumericKind kind) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<Chunk> chunks = split(channel);
+            try {
+                pool.invoke(new ParseTask(channel, kind, chunks, 0, chunks.size()));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return merge(kind, chunks);
+        }
+    }
+
+    private List<Chunk> split(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<Chunk> chunks = new ArrayList<>();
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long start = 0;
+        while (start < size) {
+            long end = Math.min(size, start + chunkSize);
+            // Move the boundary to just past the next delimiter
+            while (end < size) {
+                probe.clear();
+                int read = channel.read(probe, end - 1);
+                if (read <= 0) {
+                    end = size;
+                    break;
+                }
+                int i = 0;
+                while (i < read && !FieldParser.isDelimiter(probe.get(i))) i++;
+                if (i < read) {
+                    end += i;
+                    break;
+                }
+                end += read;
+            }
+            end = Math.min(end, size);
+            if (end - start > Integer.MAX_VALUE) throw new IOException("No delimiter within 2 GB after offset " + start);
+            chunks.add(new Chunk(start, end));
+            start = end;
+        }
+        return chunks;
+    }
+
+    private ParseResult merge(NumericKind kind, List<Chunk> chunks) {
+        long total = 0;
+        long errorCount = 0;
+        int recorded = 0;
+        for (Chunk chunk : chunks) {
+            total += chunk.count;
+            errorCount += chunk.errorCount;
+            recorded = Math.min(maxErrors, recorded + chunk.recordedErrors);
+        }
+        if (total > Integer.MAX_VALUE - 8) throw new IllegalStateException("Too many values for one array: " + total);
+
+        long[] errorOffsets = new long[recorded];
+        ParseError[] errorKinds = new ParseError[recorded];
+        int e = 0;
+        for (Chunk chunk : chunks) {
+            int n = Math.min(chunk.recordedErrors, recorded - e);
+            System.arraycopy(chunk.errorOffsets, 0, errorOffsets, e, n);
+            System.arraycopy(chunk.errorKinds, 0, errorKinds, e, n);
+            e += n;
+        }
+        ParseErrors errors = new ParseErrors(errorCount, errorOffsets, errorKinds);
+
+        int n = (int) total;
+        int at = 0;
+        switch (kind) {
+            case INT: {
+                int[] values = new int[n];
+                for (Chunk chunk : chunks) {
+                    System.arraycopy(chunk.ints, 0, values, at, chunk.count);
+                    at += chunk.count;
+                    chunk.ints = null; // lets the chunk array go as soon as it is copied
+                }
+                return new ParseResult(NumericVector.of(values), errors);
+            }
+            case LONG: {
+                long[] values = new long[n];
+                for (Chunk chunk : chunks) {
+                    System.arraycopy(chunk.longs, 0, values, at, chunk.count);
+                    at += chunk.count;
+                    chunk.longs = null;
+                }
+                return new ParseResult(NumericVector.of(values), errors);
+            }
+            default: {
+                double[] values = new double[n];
+                for (Chunk chunk : chunks) {
+                    System.arraycopy(chunk.doubles, 0, values, at, chunk.count);
+                    at += chunk.count;
+                    chunk.doubles = null;
+                }
+                return new ParseResult(NumericVector.of(values), errors);
+            }
+        }
+    }
+
+    // Splits the list of chunks in halves until one chunk is left, the usual fork/join shape
+    private final class ParseTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final NumericKind kind;
+        private final List<Chunk> chunks;
+        private final int from;
+        private final int to;
+
+        ParseTask(FileChannel channel, NumericKind kind, List<Chunk> chunks, int from, int to) {
+            this.channel = channel;
+            this.kind = kind;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (from < to) chunks.get(from).parse(channel, kind, maxErrors);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ParseTask(channel, kind, chunks, from, middle), new ParseTask(channel, kind, chunks, middle, to));
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.pbe.parse;
+
+/** Why a field was rejected. The field is left out of the parsed values and its position is reported in ParseErrors.
+ */
+public enum ParseError {
+    // Not a number of the requested type, e.g. "12x", "1.5" for an int field, or a lone "-"
+    MALFORMED,
+    // A well-formed integer outside the range of int or long
+    OVERFLOW
+}
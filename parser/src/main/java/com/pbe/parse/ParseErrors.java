@@ -0,0 +1,50 @@
+package com.pbe.parse;
+
+/** The fields a parse rejected, reported next to the values instead of as exceptions:
+ Integer.valueOf(String) throws a NumberFormatException for the first bad field, which ends the whole parse.
+ Every rejected field is counted; the byte offset in the file and the kind are kept for the first ones only,
+ up to the limit given to the parser, in file order.
+ */
+public final class ParseErrors {
+
+    private final long count;
+    private final long[] offsets;
+    private final ParseError[] kinds;
+
+    ParseErrors(long count, long[] offsets, ParseError[] kinds) {
+        this.count = count;
+        this.offsets = offsets;
+        this.kinds = kinds;
+    }
+
+    // Total number of rejected fields
+    public long count() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    // Number of rejected fields whose offset and kind were kept
+    public int recorded() {
+        return offsets.length;
+    }
+
+    // Byte offset in the file of the first character of the i-th recorded field
+    public long offset(int i) {
+        return offsets[i];
+    }
+
+    public ParseError kind(int i) {
+        return kinds[i];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder().append(count).append(" errors");
+        for (int i = 0; i < offsets.length; i++) sb.append(i == 0 ? ": " : ", ").append(kinds[i]).append('@').append(offsets[i]);
+        if (count > offsets.length) sb.append(", ...");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,25 @@
+package com.pbe.parse;
+
+import com.pbe.numeric.NumericVector;
+
+/** The values parsed from a file, in file order, and the fields that were rejected.
+ */
+public final class ParseResult {
+
+    private final NumericVector values;
+    private final ParseErrors errors;
+
+    ParseResult(NumericVector values, ParseErrors errors) {
+        this.values = values;
+        this.errors = errors;
+    }
+
+    // An INT, LONG or DOUBLE vector, depending on the parse method used
+    public NumericVector values() {
+        return values;
+    }
+
+    public ParseErrors errors() {
+        return errors;
+    }
+}
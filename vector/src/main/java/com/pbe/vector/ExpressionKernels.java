@@ -0,0 +1,84 @@
+package com.pbe.vector;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/** SIMD kernels for the expression shapes of Main, evaluated over whole arrays at once:
+ - iObB = iObA + (iObA / 3)  ->  plusThird(int[] a, int[] out)
+ - dObA = dObA + iObA        ->  plus(double[] d, int[] a, double[] out)
+ Each kernel processes as many lanes per instruction as the CPU supports, and finishes the tail of the arrays,
+ or everything when the Vector API is disabled (-Dcom.pbe.vector.disable=true), with a scalar loop.
+ Results are identical to the scalar Java expressions.
+
+ There is no vector integer division, on x86 nor in the Vector API, so x / 3 is computed the way the JIT does it
+ for a scalar constant divisor: the high half of x * 0x55555556 (done in long lanes), plus 1 when x is negative.
+ This is exactly Java's truncating int division for every int. Going through double lanes, (int) (x / 3.0),
+ would be exact too, but JDK 17 does not compile the double to int lane conversion into a vector instruction.
+ */
+public final class ExpressionKernels {
+
+    public static final boolean VECTOR_ENABLED = !Boolean.getBoolean("com.pbe.vector.disable");
+
+    // Longs and doubles take twice the bits of ints, so the int species has half the width of the other two:
+    // all three then have the same number of lanes and convert into each other one-to-one.
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS =
+            IntVector.SPECIES_PREFERRED.withShape(VectorShape.forBitSize(Math.max(64, DOUBLES.vectorBitSize() / 2)));
+
+    private ExpressionKernels() {
+    }
+
+    // out[i] = a[i] + (a[i] / 3)
+    public static void plusThird(int[] a, int[] out) {
+        checkLengths(a.length, out.length);
+        int i = 0;
+        if (VECTOR_ENABLED && INTS.length() == LONGS.length()) {
+            int bound = INTS.loopBound(a.length);
+            for (; i < bound; i += INTS.length()) {
+                IntVector v = IntVector.fromArray(INTS, a, i);
+                LongVector high = ((LongVector) v.convertShape(VectorOperators.I2L, LONGS, 0))
+                        .mul(0x55555556L).lanewise(VectorOperators.ASHR, 32);
+                IntVector quotient = ((IntVector) high.convertShape(VectorOperators.L2I, INTS, 0))
+                        .sub(v.lanewise(VectorOperators.ASHR, 31)); // x >> 31 is -1 for negative x
+                v.add(quotient).intoArray(out, i);
+            }
+        }
+        for (; i < a.length; i++) out[i] = a[i] + (a[i] / 3);
+    }
+
+    // out[i] = d[i] + a[i]
+    public static void plus(double[] d, int[] a, double[] out) {
+        checkLengths(d.length, a.length);
+        checkLengths(d.length, out.length);
+        int i = 0;
+        if (VECTOR_ENABLED && INTS.length() == DOUBLES.length()) {
+            int bound = DOUBLES.loopBound(d.length);
+            for (; i < bound; i += DOUBLES.length()) {
+                DoubleVector widened = (DoubleVector) IntVector.fromArray(INTS, a, i).convertShape(VectorOperators.I2D, DOUBLES, 0);
+                DoubleVector.fromArray(DOUBLES, d, i).add(widened).intoArray(out, i);
+            }
+        }
+        for (; i < d.length; i++) out[i] = d[i] + a[i];
+    }
+
+    // Scalar reference versions, the same loops without the Vector API
+    public static void plusThirdScalar(int[] a, int[] out) {
+        checkLengths(a.length, out.length);
+        for (int i = 0; i < a.length; i++) out[i] = a[i] + (a[i] / 3);
+    }
+
+    public static void plusScalar(double[] d, int[] a, double[] out) {
+        checkLengths(d.length, a.length);
+        checkLengths(d.length, out.length);
+        for (int i = 0; i < d.length; i++) out[i] = d[i] + a[i];
+    }
+
+    private static void checkLengths(int expected, int actual) {
+        if (expected != actual) throw new IllegalArgumentException("Length mismatch: " + expected + " vs " + actual);
+    }
+}